@@ -0,0 +1,30 @@
+package org.example.game;
+
+/**
+ * What a key means to the game. Input maps raw key codes onto these (a key can mean several things,
+ * e.g. S is DOWN and, in a shop, SELL), and Game only ever asks about actions, so scripts, replays and bots
+ * can drive it by injecting actions with no AWT involved.
+ */
+public enum Action {
+    UP, DOWN, LEFT, RIGHT, // arrows / WASD
+    CONFIRM,               // Enter or Space: pick in menus
+    INTERACT,              // Enter: stairs, doors, NPCs
+    WAIT,                  // Space: pass a turn
+    CANCEL,                // Escape
+    BACK,                  // Escape or Backspace: leave a battle submenu
+    INVENTORY,             // I
+    TRAVEL,                // G
+    LOG,                   // L: message history
+    RESTART,               // R
+    TALK,                  // Z
+    SELL,                  // S in a shop
+    YES, NO;               // Y / N
+
+    private static final Action[] ALL = values();
+
+    final long bit = 1L << ordinal();
+
+    static Action of(int ordinal) {
+        return ALL[ordinal];
+    }
+}
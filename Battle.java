@@ -31,8 +31,10 @@ public final class Battle {
 
     public Phase phase = Phase.PLAYER_MENU;
 
-    public String log = "A wild foe appears!";
-    public int timerFrames = 0;
+    // Message box line: an event in the game's EventLog, only turned into text when shown
+    private final EventLog events; // null: headless, nothing is recorded
+    private long logSeq = -1;
+    private String logText = "A wild foe appears!";
 
     // ----------------------------
 // New stat tuning knobs
@@ -73,38 +75,96 @@ public final class Battle {
         if (foeFrozenTurns < 0) foeFrozenTurns = 0;
     }
     // ----------------------------
-    // Battle sprite “juice” timers
+    // Battle sprite “juice” timers and delayed effects, on the battle timeline.
+    // Animations are stored as the frame they end on, so nothing counts down per frame.
     // ----------------------------
-    public int playerAtkFrames = 0;
-    public int enemyAtkFrames  = 0;
-    public int playerHitFrames = 0;
-    public int enemyHitFrames  = 0;
-
-    // Delayed hit scheduling (attack first, hit reaction later)
-    public int playerHitDelay = 0;
-    public int enemyHitDelay  = 0;
-    public int queuedPlayerHitFrames = 0;
-    public int queuedEnemyHitFrames  = 0;
-    // Delayed DAMAGE scheduling (so HP bars don't change instantly)
-    public int foeDmgDelay = 0;
-    public int playerDmgDelay = 0;
-
-    public int queuedFoeDamage = 0;
-    public int queuedPlayerDamage = 0;
-
-    // Optional: if the queued damage will kill the foe, we can flip to WON when it lands
-    public boolean queuedFoeDamageWillKill = false;
-    public String queuedFoeDefeatLog = "";
-
-    // Enemy defeat animation timer (for split/fade fling)
-    public int enemyDefeatFrames = 0;
+    private final BattleTimeline timeline; // null: headless, every effect lands at once
+    private final BattleTimeline.Handler handler = this::fire;
+    private Player player; // target of queued player damage, set by advanceFrame()
+
+    private long playerAtkEnd = 0;
+    private long enemyAtkEnd = 0;
+    private long playerHitEnd = 0;
+    private long enemyHitEnd = 0;
+    private long enemyDefeatEnd = 0;
+
+    private static final int EV_PLAYER_HIT = 0;     // payload: hit frames
+    private static final int EV_ENEMY_HIT = 1;      // payload: hit frames
+    private static final int EV_FOE_DAMAGE = 2;
+    private static final int EV_PLAYER_DAMAGE = 3;
+    private static final int EV_PHASE = 4;          // payload: wait id
+
+    // Delayed DAMAGE (so HP bars don't change instantly); lands with the first due EV_*_DAMAGE
+    private int queuedFoeDamage = 0;
+    private int queuedPlayerDamage = 0;
+
+    // If the queued damage will kill the foe, we flip to WON when it lands
+    private boolean queuedFoeDamageWillKill = false;
+
+    // Pending phase change (waitThen); only the latest one counts
+    private int waitId = 0;
+    private Phase waitFrom, waitTo;
+    private String waitLog;
+
+    /** WON: frame the victory hold ends on (-1 = not started). */
+    public long winHoldUntil = -1;
+
     public static final int ENEMY_DEFEAT_FRAMES_MAX = 36;
 
     // tune delay between attacker motion and victim reaction
     public static final int HIT_LAG_FRAMES = 4;
 
-    public Battle(Enemy foe) {
+    public Battle(Enemy foe, EventLog events) {
+        this.foe = foe;
+        this.events = events;
+        this.timeline = new BattleTimeline();
+    }
+
+    /** headless: no clock and no log; delayed effects and phase waits happen immediately (simulation). */
+    public Battle(Enemy foe, boolean headless) {
         this.foe = foe;
+        this.events = null;
+        this.timeline = headless ? null : new BattleTimeline();
+    }
+
+    // ----------------------------
+    // Message box
+    // ----------------------------
+
+    /** Show an event about this battle's foe (actor = foe) and record it. */
+    public void say(EventLog.Kind kind, String what, int a, int b) {
+        if (events == null) return;
+        logSeq = events.add(kind, foe.name, what, a, b);
+        logText = null;
+    }
+
+    public void say(EventLog.Kind kind) {
+        say(kind, null, 0, 0);
+    }
+
+    /** Show a fixed line and record it. */
+    public void say(String line) {
+        if (events == null || line.isEmpty()) {
+            prompt(line);
+            return;
+        }
+        logSeq = events.text(line);
+        logText = line;
+    }
+
+    /** Show a menu prompt; not recorded. */
+    public void prompt(String line) {
+        logSeq = -1;
+        logText = line;
+    }
+
+    /** The message box line (formatted the first time it is asked for). */
+    public String logLine() {
+        if (logText == null) {
+            String t = events.text(logSeq);
+            logText = (t == null) ? "" : t;
+        }
+        return logText;
     }
 
     // ----------------------------
@@ -131,29 +191,73 @@ public final class Battle {
     }
 
     public static boolean rollStatusResist(RNG rng, int casterInt, int targetWill) {
+        return rng.nextInt(100) < statusResistPct(casterInt, targetWill);
+    }
+
+    public static int statusResistPct(int casterInt, int targetWill) {
         int diff = targetWill - casterInt; // positive = more resist
         int pct = BASE_STATUS_RESIST_PCT + diff * WILL_RESIST_PER_POINT;
-        pct = clampPct(pct, 0, 70); // never guaranteed unless you want it
-        return rng.nextInt(100) < pct;
+        return clampPct(pct, 0, 70); // never guaranteed unless you want it
     }
 
     public static int applyWillVsSlowPenalty(RNG rng, int penaltyPct, int targetWill, int slowTurnsActive) {
         if (penaltyPct <= 0) return 0;
         if (slowTurnsActive <= 0) return penaltyPct;
 
-        int shake = BASE_SLOW_SHAKE_PCT + targetWill * WILL_SLOW_SHAKE_PER_POINT;
-        shake = clampPct(shake, 0, 65);
-
-        boolean ignoreThisAction = rng.nextInt(100) < shake;
+        boolean ignoreThisAction = rng.nextInt(100) < slowShakePct(targetWill);
         return ignoreThisAction ? 0 : penaltyPct;
     }
 
+    /** Chance that a slowed actor ignores the slow penalties on one action. */
+    public static int slowShakePct(int will) {
+        int shake = BASE_SLOW_SHAKE_PCT + will * WILL_SLOW_SHAKE_PER_POINT;
+        return clampPct(shake, 0, 65);
+    }
+
     public static boolean rollPhysicalHit(RNG rng, int baseAccuracyPct,
                                           int attackerSpeed, int defenderSpeed,
                                           int accuracyPenaltyPct) {
+        return rng.nextInt(100) < physicalHitPct(baseAccuracyPct, attackerSpeed, defenderSpeed, accuracyPenaltyPct);
+    }
+
+    public static int physicalHitPct(int baseAccuracyPct, int attackerSpeed, int defenderSpeed,
+                                     int accuracyPenaltyPct) {
         int spdBonus = (attackerSpeed - defenderSpeed) * SPEED_ACC_PER_POINT;
-        int finalAcc = clampPct(baseAccuracyPct + spdBonus - accuracyPenaltyPct, 5, 95);
-        return rng.nextInt(100) < finalAcc;
+        return clampPct(baseAccuracyPct + spdBonus - accuracyPenaltyPct, 5, 95);
+    }
+
+    // ----------------------------
+    // Player physical moves: accuracy / damage table
+    // ----------------------------
+
+    /** Base accuracy; Smash gets +2% per speed point over 10. */
+    public static int moveAccuracy(Player.PhysicalMove move, int playerSpeed) {
+        return switch (move) {
+            case SMASH -> 75 + Math.max(0, playerSpeed - 10) * 2;
+            case LUNGE -> 85;
+            case SWEEP, PARRY -> 100;
+            default -> 90;
+        };
+    }
+
+    /** Damage in percent of the weapon roll (before a crit). */
+    public static int moveDamagePct(Player.PhysicalMove move) {
+        return switch (move) {
+            case SMASH -> 140;
+            case LUNGE -> 110;
+            case SWEEP -> 80;
+            case PARRY -> 0;
+            default -> 100;
+        };
+    }
+
+    public static boolean moveCanBeDodged(Player.PhysicalMove move) {
+        return move != Player.PhysicalMove.SWEEP;
+    }
+
+    /** Lunge: x1.5 on a hit (and a miss leaves you off-balance). */
+    public static boolean moveCritsOnHit(Player.PhysicalMove move) {
+        return move == Player.PhysicalMove.LUNGE;
     }
 
     public static boolean rollSpellHit(RNG rng, int baseAccuracyPct,
@@ -218,104 +322,156 @@ public final class Battle {
     }
 
     // ----------------------------
-    // Anim helpers
+    // Timeline
     // ----------------------------
-    public void queueEnemyHit(int delayFrames, int hitFrames) {
-        enemyHitDelay = Math.max(enemyHitDelay, delayFrames);
-        queuedEnemyHitFrames = Math.max(queuedEnemyHitFrames, hitFrames);
+
+    /** Current battle frame. */
+    public long frame() {
+        return (timeline == null) ? 0 : timeline.now();
     }
 
-    public void queuePlayerHit(int delayFrames, int hitFrames) {
-        playerHitDelay = Math.max(playerHitDelay, delayFrames);
-        queuedPlayerHitFrames = Math.max(queuedPlayerHitFrames, hitFrames);
+    /** Call once per frame while in battle: fires whatever is due this frame. */
+    public void advanceFrame(Player player) {
+        this.player = player;
+        if (timeline != null) timeline.advance(handler);
     }
 
-    public void startEnemyDefeatAnim() {
-        enemyDefeatFrames = ENEMY_DEFEAT_FRAMES_MAX;
+    /**
+     * Skip ahead: land every pending effect (damage, hits, phase change) in order and run the clock past
+     * the last animation, as if the frames had played. For skip-animation; headless code needs no clock at all.
+     */
+    public void fastForward(Player player) {
+        this.player = player;
+        if (timeline == null) return;
+        long until = Math.max(Math.max(playerAtkEnd, enemyAtkEnd), Math.max(playerHitEnd, enemyHitEnd));
+        timeline.fastForward(handler, until);
+        timeline.fastForward(handler, enemyDefeatEnd); // a kill above starts the defeat anim
+    }
+
+    /**
+     * Switch from the current phase to next after frames, if the battle is still in the current phase then
+     * (a kill landing in between wins). Replaces any earlier pending switch. newLog: prompt to show, or null.
+     */
+    public void waitThen(Phase next, int frames, String newLog) {
+        waitId++;
+        waitFrom = phase;
+        waitTo = next;
+        waitLog = newLog;
+        schedule(frames, EV_PHASE, waitId);
     }
 
-    public void tickAnims() {
-        if (playerAtkFrames > 0) playerAtkFrames--;
-        if (enemyAtkFrames  > 0) enemyAtkFrames--;
-        if (playerHitFrames > 0) playerHitFrames--;
-        if (enemyHitFrames  > 0) enemyHitFrames--;
+    public void waitThen(Phase next, int frames) {
+        waitThen(next, frames, null);
+    }
 
-        // delayed enemy hit
-        if (enemyHitDelay > 0) {
-            enemyHitDelay--;
-            if (enemyHitDelay == 0 && queuedEnemyHitFrames > 0) {
-                enemyHitFrames = Math.max(enemyHitFrames, queuedEnemyHitFrames);
-                queuedEnemyHitFrames = 0;
-            }
+    /** Do the pending phase switch now (player dismissed the wait). */
+    public void skipWait() {
+        if (waitTo == null) return;
+        waitId++; // the scheduled event is now stale
+        switchPhase();
+    }
+
+    private void schedule(int delayFrames, int kind, int payload) {
+        if (timeline == null) fire(kind, payload);
+        else timeline.schedule(delayFrames, kind, payload);
+    }
+
+    private void switchPhase() {
+        if (phase == waitFrom) {
+            phase = waitTo;
+            if (waitLog != null) prompt(waitLog);
         }
+        waitTo = null;
+    }
 
-        // delayed player hit
-        if (playerHitDelay > 0) {
-            playerHitDelay--;
-            if (playerHitDelay == 0 && queuedPlayerHitFrames > 0) {
-                playerHitFrames = Math.max(playerHitFrames, queuedPlayerHitFrames);
-                queuedPlayerHitFrames = 0;
+    private void fire(int kind, int payload) {
+        long now = frame();
+        switch (kind) {
+            case EV_PLAYER_HIT -> playerHitEnd = Math.max(playerHitEnd, now + payload);
+            case EV_ENEMY_HIT -> enemyHitEnd = Math.max(enemyHitEnd, now + payload);
+            case EV_FOE_DAMAGE -> landFoeDamage();
+            case EV_PLAYER_DAMAGE -> landPlayerDamage();
+            case EV_PHASE -> {
+                if (payload == waitId && waitTo != null) switchPhase();
             }
+            default -> { }
         }
+    }
+
+    // ----------------------------
+    // Anim helpers
+    // ----------------------------
+    public void startPlayerAttack(int frames) {
+        playerAtkEnd = Math.max(playerAtkEnd, frame() + frames);
+    }
+
+    public void startEnemyAttack(int frames) {
+        enemyAtkEnd = Math.max(enemyAtkEnd, frame() + frames);
+    }
+
+    public void queueEnemyHit(int delayFrames, int hitFrames) {
+        schedule(delayFrames, EV_ENEMY_HIT, hitFrames);
+    }
+
+    public void queuePlayerHit(int delayFrames, int hitFrames) {
+        schedule(delayFrames, EV_PLAYER_HIT, hitFrames);
+    }
+
+    public void startEnemyDefeatAnim() {
+        enemyDefeatEnd = frame() + ENEMY_DEFEAT_FRAMES_MAX;
+    }
+
+    // Frames left of each animation (what the renderer tweens on)
+    public int playerAtkFrames() { return framesLeft(playerAtkEnd); }
+    public int enemyAtkFrames() { return framesLeft(enemyAtkEnd); }
+    public int playerHitFrames() { return framesLeft(playerHitEnd); }
+    public int enemyHitFrames() { return framesLeft(enemyHitEnd); }
+    public int enemyDefeatFrames() { return framesLeft(enemyDefeatEnd); }
 
-        // defeat animation countdown
-        if (enemyDefeatFrames > 0) enemyDefeatFrames--;
+    private int framesLeft(long end) {
+        return (int) Math.max(0, end - frame());
     }
 
-    public void queueFoeDamage(int delayFrames, int dmg, boolean willKill, String defeatLog) {
-        foeDmgDelay = Math.max(foeDmgDelay, delayFrames);
+    /** Damage lands after delayFrames; a kill then shows "The foe was defeated!" and switches to WON. */
+    public void queueFoeDamage(int delayFrames, int dmg, boolean willKill) {
         queuedFoeDamage = Math.max(queuedFoeDamage, dmg);
         queuedFoeDamageWillKill = queuedFoeDamageWillKill || willKill;
-        if (defeatLog != null && !defeatLog.isBlank()) queuedFoeDefeatLog = defeatLog;
+        schedule(delayFrames, EV_FOE_DAMAGE, 0);
     }
 
     public void queuePlayerDamage(int delayFrames, int dmg) {
-        playerDmgDelay = Math.max(playerDmgDelay, delayFrames);
         queuedPlayerDamage = Math.max(queuedPlayerDamage, dmg);
+        schedule(delayFrames, EV_PLAYER_DAMAGE, 0);
     }
 
-    /**
-     * Call once per frame while in battle (after tickAnims()).
-     * Applies queued damage when its delay reaches 0.
-     */
-    public void tickDamage(Player player) {
-        // --- foe damage ---
-        if (foeDmgDelay > 0) {
-            foeDmgDelay--;
-            if (foeDmgDelay == 0 && queuedFoeDamage > 0) {
-                foe.hp -= queuedFoeDamage;
-                queuedFoeDamage = 0;
-
-                if (foe.hp <= 0 || queuedFoeDamageWillKill) {
-                    foe.hp = 0;
-                    queuedFoeDamageWillKill = false;
-
-                    // Start the defeat animation exactly when damage "lands"
-                    startEnemyDefeatAnim();
-
-                    if (queuedFoeDefeatLog != null && !queuedFoeDefeatLog.isBlank()) {
-                        log = queuedFoeDefeatLog;
-                    }
-
-                    phase = Phase.WON;
-                } else {
-                    queuedFoeDamageWillKill = false;
-                }
-            }
+    private void landFoeDamage() {
+        if (queuedFoeDamage <= 0) return;
+        foe.hp -= queuedFoeDamage;
+        queuedFoeDamage = 0;
+
+        if (foe.hp <= 0 || queuedFoeDamageWillKill) {
+            foe.hp = 0;
+            queuedFoeDamageWillKill = false;
+
+            // Start the defeat animation exactly when damage "lands"
+            startEnemyDefeatAnim();
+
+            say(EventLog.Kind.FOE_DEFEATED);
+
+            phase = Phase.WON;
+        } else {
+            queuedFoeDamageWillKill = false;
         }
+    }
 
-        // --- player damage ---
-        if (playerDmgDelay > 0) {
-            playerDmgDelay--;
-            if (playerDmgDelay == 0 && queuedPlayerDamage > 0) {
-                player.hp -= queuedPlayerDamage;
-                queuedPlayerDamage = 0;
-
-                if (player.hp < 0) player.hp = 0;
-                if (player.hp <= 0) {
-                    phase = Phase.LOST;
-                }
-            }
+    private void landPlayerDamage() {
+        if (queuedPlayerDamage <= 0 || player == null) return;
+        player.hp -= queuedPlayerDamage;
+        queuedPlayerDamage = 0;
+
+        if (player.hp < 0) player.hp = 0;
+        if (player.hp <= 0) {
+            phase = Phase.LOST;
         }
     }
 
@@ -330,9 +486,12 @@ public final class Battle {
     public static boolean rollDodge(RNG rng, int baseDodgePct,
                                     int attackerSpeed, int defenderSpeed,
                                     int dodgePenaltyPct) {
+        return rng.nextInt(100) < dodgePct(baseDodgePct, attackerSpeed, defenderSpeed, dodgePenaltyPct);
+    }
+
+    public static int dodgePct(int baseDodgePct, int attackerSpeed, int defenderSpeed, int dodgePenaltyPct) {
         int spdBonus = (defenderSpeed - attackerSpeed) * SPEED_DODGE_PER_POINT;
-        int finalDodge = clampPct(baseDodgePct + spdBonus - dodgePenaltyPct, 0, 60);
-        return rng.nextInt(100) < finalDodge;
+        return clampPct(baseDodgePct + spdBonus - dodgePenaltyPct, 0, 60);
     }
 
     // Attacker hit roll (accuracy check)
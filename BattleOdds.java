@@ -0,0 +1,380 @@
+package org.example.game;
+
+import org.example.entity.Enemy;
+import org.example.entity.Player;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exact battle odds, no sampling. Every roll in a round (foe dodge, hit, damage, the foe's move pick, player
+ * dodge, its hit, curse resist, shaking off slow) comes from the same clamp formulas Battle rolls with, so
+ * one round is a finite probability table from a state (player hp, foe hp, player slow turns) to the next.
+ * The outcome is then solved by dynamic programming over all states of the matchup.
+ *
+ * Hp never goes up inside a fight, so states are solved in order of (player hp, foe hp); only the slow turns can
+ * cycle (a curse re-applied before it wears off), which is a small linear system per hp pair.
+ *
+ * The model is the BattleSim SCRIPTED fight: the player attacks with one physical move every round, no parry,
+ * spells or items, and the foe's statuses stay clear. A solved matchup (player and foe stats, move) is kept
+ * in a small LRU cache, so once built any (hp, hp, slow) query is an array lookup.
+ */
+public final class BattleOdds {
+    private static final int CACHE_SIZE = 32;
+
+    /** Outcome of a fight from one state, player moving first. */
+    public static final class Odds {
+        public final double win;            // chance the player wins
+        public final double expectedRounds; // player + foe action = one round
+        public final double expectedHpLeft; // player hp at the end, 0 for a loss
+
+        Odds(double win, double expectedRounds, double expectedHpLeft) {
+            this.win = win;
+            this.expectedRounds = expectedRounds;
+            this.expectedHpLeft = expectedHpLeft;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("win %.2f%%, %.2f rounds, %.2f hp left", 100 * win, expectedRounds, expectedHpLeft);
+        }
+    }
+
+    private final LinkedHashMap<Key, Matchup> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Matchup> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /** Odds from the current hp of both sides; slowTurns = the battle's playerSlowTurns. */
+    public Odds odds(Player player, Enemy foe, Player.PhysicalMove attack, int slowTurns) {
+        if (foe.hp <= 0) return new Odds(1, 0, Math.max(0, player.hp));
+        if (player.hp <= 0) return new Odds(0, 0, 0);
+        Matchup m = matchup(player, foe, attack);
+        int s = m.index(player.hp, foe.hp, slowTurns);
+        return new Odds(m.win[s], m.rounds[s], m.hpLeft[s]);
+    }
+
+    /** Just the win chance (no allocation once the matchup is cached). */
+    public double winChance(Player player, Enemy foe, Player.PhysicalMove attack, int slowTurns) {
+        if (foe.hp <= 0) return 1;
+        if (player.hp <= 0) return 0;
+        Matchup m = matchup(player, foe, attack);
+        return m.win[m.index(player.hp, foe.hp, slowTurns)];
+    }
+
+    /**
+     * Full distribution of the player's hp at the end of the fight from the current state:
+     * out[h] for h >= 1 is the chance to win with h hp left, out[0] the chance to lose. Not cached.
+     */
+    public double[] hpLeftDistribution(Player player, Enemy foe, Player.PhysicalMove attack, int slowTurns) {
+        Matchup m = matchup(player, foe, attack);
+        double[] out = new double[m.maxP + 1];
+        if (foe.hp <= 0 || player.hp <= 0) {
+            out[Math.max(0, Math.min(m.maxP, player.hp))] = 1;
+            return out;
+        }
+        m.forward(m.index(player.hp, foe.hp, slowTurns), out);
+        return out;
+    }
+
+    /** Number of solved matchups held. */
+    public int cachedMatchups() {
+        return cache.size();
+    }
+
+    private Matchup matchup(Player player, Enemy foe, Player.PhysicalMove attack) {
+        Key key = new Key(player, foe, attack);
+        Matchup m = cache.get(key);
+        if (m == null) {
+            m = new Matchup(player, foe, attack);
+            m.solve();
+            cache.put(key, m);
+        }
+        return m;
+    }
+
+    // Everything a round's odds depend on
+    private static final class Key {
+        private final int[] v;
+        private final int hash;
+
+        Key(Player p, Enemy f, Player.PhysicalMove attack) {
+            v = new int[] {
+                    p.maxHp, p.speed(), p.will(), p.getAtkMinTotal(), p.getAtkMaxTotal(), attack.ordinal(),
+                    f.def.id, f.maxHp, f.speed(), f.intelligence(), f.atkMin, f.atkMax
+            };
+            hash = Arrays.hashCode(v);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Arrays.equals(v, k.v);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Round tables and solved values of one matchup. States are (p, f, s): player hp 1..maxP, foe hp 1..maxF,
+     * slow turns 0..maxS. Terminal codes (< 0) encode the player's hp at the end: -1 - hp (so -1 = lost).
+     */
+    private static final class Matchup {
+        final int maxP, maxF, maxS;
+
+        // Player action: chance to land (by slowed 0/1), then the damage of a landed hit
+        final double[] playerLand = new double[2];
+        final int[] playerDmg;
+        final double[] playerDmgP;
+
+        // Foe action (by player slowed 0/1 after the tick): damage dealt, slow turns it applies (0 = none), chance
+        final int[][] foeDmg = new int[2][];
+        final int[][] foeSlow = new int[2][];
+        final double[][] foeP = new double[2][];
+
+        double[] win, rounds, hpLeft;
+
+        // Scratch for one state's successors
+        private int[] succ = new int[64];
+        private double[] succP = new double[64];
+        private int succCount;
+
+        Matchup(Player player, Enemy foe, Player.PhysicalMove attack) {
+            maxP = Math.max(1, player.maxHp);
+            maxF = Math.max(1, foe.maxHp);
+
+            int pSpd = player.speed(), fSpd = foe.speed();
+            int pShake = Battle.slowShakePct(player.will());
+
+            // Player: Game.executePhysicalMove
+            double notDodged = Battle.moveCanBeDodged(attack)
+                    ? 1 - Battle.dodgePct(Game.FOE_BASE_DODGE_PCT, pSpd, fSpd, 0) / 100.0 : 1;
+            int acc = Battle.moveAccuracy(attack, pSpd);
+            double hit = Battle.physicalHitPct(acc, pSpd, fSpd, 0) / 100.0;
+            double hitSlowed = Battle.physicalHitPct(acc, pSpd, fSpd, Enemy.SLOW_ACC_PENALTY_PCT) / 100.0;
+            playerLand[0] = notDodged * hit;
+            playerLand[1] = notDodged * (pShake / 100.0 * hit + (1 - pShake / 100.0) * hitSlowed);
+
+            int lo = player.getAtkMinTotal(), hi = Math.max(lo, player.getAtkMaxTotal());
+            playerDmg = new int[hi - lo + 1];
+            playerDmgP = new double[hi - lo + 1];
+            for (int r = lo; r <= hi; r++) {
+                int d = r * Battle.moveDamagePct(attack) / 100;
+                if (Battle.moveCritsOnHit(attack)) d = (int) (d * 1.5);
+                playerDmg[r - lo] = d;
+                playerDmgP[r - lo] = 1.0 / (hi - lo + 1);
+            }
+
+            // Foe: Enemy.resolveBattleMove
+            Enemy.BattleMove[] moves = Enemy.battleMoves(foe.def);
+            int slow = 0;
+            for (Enemy.BattleMove mv : moves) if (mv.slowTurns > 0) slow = Math.max(slow, foe.slowDuration(mv));
+            maxS = slow;
+
+            for (int slowed = 0; slowed < 2; slowed++) {
+                double dodge = Battle.dodgePct(Enemy.PLAYER_BASE_DODGE_PCT, fSpd, pSpd, 0) / 100.0;
+                if (slowed == 1) {
+                    double dodgeSlowed = Battle.dodgePct(Enemy.PLAYER_BASE_DODGE_PCT, fSpd, pSpd,
+                            Enemy.SLOW_DODGE_PENALTY_PCT) / 100.0;
+                    dodge = pShake / 100.0 * dodge + (1 - pShake / 100.0) * dodgeSlowed;
+                }
+
+                int n = 1;
+                for (Enemy.BattleMove mv : moves) n += (mv.slowTurns > 0) ? 1 : foe.atkMax - foe.atkMin + 1;
+                int[] dmg = new int[n];
+                int[] slows = new int[n];
+                double[] p = new double[n];
+                int k = 1; // [0] = nothing happens
+                double nothing = 1;
+                int picked = 0; // chance taken by earlier moves; the last one gets the rest, as in Enemy.pickMove
+
+                for (int i = 0; i < moves.length; i++) {
+                    Enemy.BattleMove mv = moves[i];
+                    int chance = (i == moves.length - 1) ? 100 - picked : mv.chancePct;
+                    picked += chance;
+                    double pick = (moves.length == 1) ? 1 : chance / 100.0;
+                    double land = pick * (1 - dodge) * Battle.physicalHitPct(mv.accuracy, fSpd, pSpd, 0) / 100.0;
+
+                    if (mv.slowTurns > 0) {
+                        slows[k] = foe.slowDuration(mv);
+                        p[k] = land * (1 - Battle.statusResistPct(foe.intelligence(), player.will()) / 100.0);
+                        nothing -= p[k++];
+                        continue;
+                    }
+                    for (int r = foe.atkMin; r <= foe.atkMax; r++) {
+                        dmg[k] = Math.max(1, r + mv.dmgBonus);
+                        p[k] = land / (foe.atkMax - foe.atkMin + 1);
+                        nothing -= p[k++];
+                    }
+                }
+                p[0] = Math.max(0, nothing);
+                foeDmg[slowed] = dmg;
+                foeSlow[slowed] = slows;
+                foeP[slowed] = p;
+            }
+        }
+
+        int index(int p, int f, int s) {
+            p = Math.max(1, Math.min(maxP, p));
+            f = Math.max(1, Math.min(maxF, f));
+            s = Math.max(0, Math.min(maxS, s));
+            return ((p - 1) * maxF + (f - 1)) * (maxS + 1) + s;
+        }
+
+        /** Successors of one state after a full round into succ / succP. */
+        private void expand(int p, int f, int s) {
+            succCount = 0;
+            double land = playerLand[s > 0 ? 1 : 0];
+            int s1 = Math.max(0, s - 1);
+            int slowed = s1 > 0 ? 1 : 0;
+
+            for (int i = -1; i < playerDmg.length; i++) {
+                double pp = (i < 0) ? 1 - land : land * playerDmgP[i];
+                if (pp <= 0) continue;
+                int f2 = (i < 0) ? f : f - playerDmg[i];
+                if (f2 <= 0) {
+                    add(-1 - p, pp);
+                    continue;
+                }
+
+                int[] dmg = foeDmg[slowed];
+                double[] fp = foeP[slowed];
+                for (int j = 0; j < dmg.length; j++) {
+                    if (fp[j] <= 0) continue;
+                    int p2 = p - dmg[j];
+                    if (p2 <= 0) add(-1, pp * fp[j]);
+                    else add(index(p2, f2, foeSlow[slowed][j] > 0 ? Math.max(s1, foeSlow[slowed][j]) : s1), pp * fp[j]);
+                }
+            }
+        }
+
+        private void add(int code, double prob) {
+            if (succCount == succ.length) {
+                succ = Arrays.copyOf(succ, succCount << 1);
+                succP = Arrays.copyOf(succP, succCount << 1);
+            }
+            succ[succCount] = code;
+            succP[succCount++] = prob;
+        }
+
+        /** Backward pass: win chance, expected rounds and hp left for every state. */
+        void solve() {
+            int n = maxP * maxF * (maxS + 1);
+            win = new double[n];
+            rounds = new double[n];
+            hpLeft = new double[n];
+
+            int k = maxS + 1;
+            double[][] a = new double[k][k];
+            double[][] rhs = new double[k][3];
+
+            for (int p = 1; p <= maxP; p++) {
+                for (int f = 1; f <= maxF; f++) {
+                    int base = index(p, f, 0);
+                    for (int s = 0; s < k; s++) {
+                        Arrays.fill(a[s], 0);
+                        a[s][s] = 1;
+                        rhs[s][0] = 0;
+                        rhs[s][1] = 1; // this round
+                        rhs[s][2] = 0;
+
+                        expand(p, f, s);
+                        for (int i = 0; i < succCount; i++) {
+                            int c = succ[i];
+                            double pr = succP[i];
+                            if (c < 0) {
+                                int left = -1 - c;
+                                if (left > 0) rhs[s][0] += pr;
+                                rhs[s][2] += pr * left;
+                            } else if (c - base >= 0 && c - base < k) {
+                                a[s][c - base] -= pr; // same hp pair: part of the system
+                            } else {
+                                rhs[s][0] += pr * win[c];
+                                rhs[s][1] += pr * rounds[c];
+                                rhs[s][2] += pr * hpLeft[c];
+                            }
+                        }
+                    }
+
+                    solveLinear(a, rhs, k);
+                    for (int s = 0; s < k; s++) {
+                        win[base + s] = rhs[s][0];
+                        rounds[base + s] = rhs[s][1];
+                        hpLeft[base + s] = rhs[s][2];
+                    }
+                }
+            }
+        }
+
+        /** Forward pass from one state: probability mass flows down to the terminal hp values in out. */
+        void forward(int start, double[] out) {
+            double[] mass = new double[win.length];
+            mass[start] = 1;
+
+            int k = maxS + 1;
+            double[][] a = new double[k][k];
+            double[][] visits = new double[k][1];
+
+            for (int p = maxP; p >= 1; p--) {
+                for (int f = maxF; f >= 1; f--) {
+                    int base = index(p, f, 0);
+                    boolean any = false;
+                    for (int s = 0; s < k; s++) any |= mass[base + s] > 0;
+                    if (!any) continue;
+
+                    // Expected visits v of each slow state: v = mass + Q^T v
+                    for (int s = 0; s < k; s++) {
+                        Arrays.fill(a[s], 0);
+                        a[s][s] = 1;
+                        visits[s][0] = mass[base + s];
+                    }
+                    for (int s = 0; s < k; s++) {
+                        expand(p, f, s);
+                        for (int i = 0; i < succCount; i++) {
+                            int c = succ[i];
+                            if (c >= 0 && c - base >= 0 && c - base < k) a[c - base][s] -= succP[i];
+                        }
+                    }
+                    solveLinear(a, visits, k);
+
+                    for (int s = 0; s < k; s++) {
+                        double v = visits[s][0];
+                        if (v <= 0) continue;
+                        expand(p, f, s);
+                        for (int i = 0; i < succCount; i++) {
+                            int c = succ[i];
+                            if (c < 0) out[-1 - c] += v * succP[i];
+                            else if (c - base < 0 || c - base >= k) mass[c] += v * succP[i];
+                        }
+                    }
+                }
+            }
+        }
+
+        // Gaussian elimination with partial pivoting; solution replaces rhs
+        private static void solveLinear(double[][] a, double[][] rhs, int n) {
+            int cols = rhs[0].length;
+            for (int c = 0; c < n; c++) {
+                int piv = c;
+                for (int r = c + 1; r < n; r++) if (Math.abs(a[r][c]) > Math.abs(a[piv][c])) piv = r;
+                double[] t = a[c]; a[c] = a[piv]; a[piv] = t;
+                t = rhs[c]; rhs[c] = rhs[piv]; rhs[piv] = t;
+
+                for (int r = 0; r < n; r++) {
+                    if (r == c || a[r][c] == 0) continue;
+                    double m = a[r][c] / a[c][c];
+                    for (int j = c; j < n; j++) a[r][j] -= m * a[c][j];
+                    for (int j = 0; j < cols; j++) rhs[r][j] -= m * rhs[c][j];
+                }
+            }
+            for (int r = 0; r < n; r++) {
+                for (int j = 0; j < cols; j++) rhs[r][j] /= a[r][r];
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package org.example.game;
+
+import org.example.entity.Enemy;
+import org.example.entity.EnemyDef;
+import org.example.entity.EnemyDefs;
+import org.example.entity.Player;
+import org.example.game.util.RNG;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless battle runner for balance work: plays whole encounters with the real roll helpers
+ * (Battle's hit/dodge/resist rolls, Enemy.resolveBattleMove) but none of the frame timers, hit lag or
+ * log strings, and reports win rate, turns to kill and HP lost per enemy archetype (EnemyDefs) and floor.
+ *
+ * The player is a baseline build for the floor (one level per floor, see playerForFloor) using physical
+ * moves only, no spells or items, driven by a policy:
+ *  - SCRIPTED: Slash every turn (a fresh character's only move),
+ *  - GREEDY: knows every move, uses the one with the best expected damage against this foe, and parries
+ *    when the foe's next hit could kill (never twice in a row).
+ *
+ * Fights are split into fixed-seed chunks over all cores, so results don't depend on the thread count.
+ *
+ * Usage: BattleSim [fightsPerCell=20000] [floors=10] [threads=all cores] [seed=1]
+ */
+public final class BattleSim {
+    public enum Policy { SCRIPTED, GREEDY }
+
+    public static final int MAX_TURNS = 200; // a fight still going after this counts as a timeout
+    private static final int CHUNK = 4096;   // fights per task
+
+    // Level-up order of the baseline build
+    private static final Player.Stat[] BUILD = {
+            Player.Stat.HP, Player.Stat.ATK, Player.Stat.SPEED, Player.Stat.HP, Player.Stat.ATK, Player.Stat.WILL
+    };
+
+    private static final Player.PhysicalMove[] ATTACKS = {
+            Player.PhysicalMove.SLASH, Player.PhysicalMove.SMASH, Player.PhysicalMove.LUNGE, Player.PhysicalMove.SWEEP
+    };
+
+    /** Outcome counts and histograms for one (policy, archetype, floor) cell. */
+    public static final class Stats {
+        public long fights, wins, timeouts;
+        public final long[] turnsToKill = new long[MAX_TURNS + 1]; // wins only
+        public final long[] hpLostPct = new long[101];            // all fights, % of max hp
+
+        void add(Stats o) {
+            fights += o.fights;
+            wins += o.wins;
+            timeouts += o.timeouts;
+            for (int i = 0; i < turnsToKill.length; i++) turnsToKill[i] += o.turnsToKill[i];
+            for (int i = 0; i < hpLostPct.length; i++) hpLostPct[i] += o.hpLostPct[i];
+        }
+
+        public double winRate() {
+            return fights == 0 ? 0 : (double) wins / fights;
+        }
+
+        public String toString() {
+            return String.format("%8d %6.1f%% %6d | %4d %4d %4d | %4d%% %4d%% %4d%%",
+                    fights, 100 * winRate(), timeouts,
+                    percentile(turnsToKill, 10), percentile(turnsToKill, 50), percentile(turnsToKill, 90),
+                    percentile(hpLostPct, 10), percentile(hpLostPct, 50), percentile(hpLostPct, 90));
+        }
+
+        private static int percentile(long[] hist, int p) {
+            long total = 0;
+            for (long c : hist) total += c;
+            if (total == 0) return 0;
+            long want = (total * p + 99) / 100;
+            long seen = 0;
+            for (int i = 0; i < hist.length; i++) {
+                seen += hist[i];
+                if (seen >= Math.max(1, want)) return i;
+            }
+            return hist.length - 1;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int fights = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int floors = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+
+        long t0 = System.nanoTime();
+        Stats[][][] cells = run(fights, floors, threads, seed);
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        // SCRIPTED is exactly what BattleOdds models, so its rows also show the exact win chance
+        BattleOdds odds = new BattleOdds();
+        long total = 0;
+        for (Policy policy : Policy.values()) {
+            System.out.println(policy + ":");
+            System.out.printf("  %-8s %5s %8s %7s %6s | %4s %4s %4s | %5s %5s %5s | %7s%n",
+                    "enemy", "floor", "fights", "win", "t/out", "k10", "k50", "k90", "hp10", "hp50", "hp90", "exact");
+            for (int id = 0; id < EnemyDefs.count(); id++) {
+                EnemyDef def = EnemyDefs.get(id);
+                for (int f = 1; f <= floors; f++) {
+                    Stats s = cells[policy.ordinal()][id][f - 1];
+                    total += s.fights;
+                    String exact = "-";
+                    if (policy == Policy.SCRIPTED) {
+                        Player p = playerForFloor(f, policy);
+                        Enemy foe = Enemy.spawnOfType(def, 0, 0, f);
+                        exact = String.format("%.1f%%", 100 * odds.winChance(p, foe, Player.PhysicalMove.SLASH, 0));
+                    }
+                    System.out.printf("  %-8s %5d %s | %7s%n", def.key, f, s, exact);
+                }
+            }
+        }
+        System.out.printf("%d battles on %d threads in %.2fs (%.0f battles/s)%n", total, threads, secs, total / secs);
+    }
+
+    /** Stats indexed [policy][archetype id][floor - 1], fightsPerCell fights each. */
+    public static Stats[][][] run(int fightsPerCell, int floors, int threads, long seed) throws Exception {
+        Policy[] policies = Policy.values();
+        Stats[][][] cells = new Stats[policies.length][EnemyDefs.count()][floors];
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "battle-sim");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            long chunkId = 0;
+            for (Policy policy : policies) {
+                for (int id = 0; id < EnemyDefs.count(); id++) {
+                    EnemyDef def = EnemyDefs.get(id);
+                    for (int f = 1; f <= floors; f++) {
+                        Stats cell = new Stats();
+                        cells[policy.ordinal()][id][f - 1] = cell;
+                        int floor = f;
+
+                        for (int done = 0; done < fightsPerCell; done += CHUNK) {
+                            int n = Math.min(CHUNK, fightsPerCell - done);
+                            long chunkSeed = seed * 0x9E3779B97F4A7C15L + chunkId++;
+                            tasks.add(pool.submit(() -> {
+                                Stats part = new Arena(policy, def, floor, chunkSeed).fight(n);
+                                synchronized (cell) {
+                                    cell.add(part);
+                                }
+                            }));
+                        }
+                    }
+                }
+            }
+            for (Future<?> t : tasks) t.get();
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return cells;
+    }
+
+    /** The player build used for a floor: level = floor, level-ups in BUILD order. */
+    public static Player playerForFloor(int floor, Policy policy) {
+        Player p = new Player(0, 0);
+        for (int i = 1; i < floor; i++) {
+            p.exp = p.expToNext;
+            p.levelUp(BUILD[(i - 1) % BUILD.length]);
+        }
+        if (policy == Policy.GREEDY) {
+            for (Player.PhysicalMove m : Player.PhysicalMove.values()) p.learnMove(m);
+        }
+        return p;
+    }
+
+    /** One player and one foe fought over and over; single-threaded. */
+    private static final class Arena {
+        private final Policy policy;
+        private final Player player;
+        private final Enemy foe;
+        private final RNG rng;
+        private final Player.PhysicalMove attack; // the move the policy attacks with
+
+        Arena(Policy policy, EnemyDef def, int floor, long seed) {
+            this.policy = policy;
+            this.rng = new RNG(seed);
+            this.player = playerForFloor(floor, policy);
+            this.foe = Enemy.spawnOfType(def, 0, 0, floor);
+            this.attack = (policy == Policy.GREEDY) ? bestAttack() : Player.PhysicalMove.SLASH;
+        }
+
+        Stats fight(int count) {
+            Stats s = new Stats();
+            for (int i = 0; i < count; i++) fightOnce(s);
+            return s;
+        }
+
+        private void fightOnce(Stats s) {
+            player.hp = player.maxHp;
+            foe.hp = foe.maxHp;
+            Battle b = new Battle(foe, true);
+            boolean parriedLast = false;
+
+            int turn = 1;
+            for (; turn <= MAX_TURNS; turn++) {
+                // Player acts first, as in the battle menu
+                boolean parry = policy == Policy.GREEDY && !parriedLast && player.hp <= foe.atkMax + 2; // +2: Skewer
+                if (parry) b.parryActive = true;
+                else playerAttack(b, attack);
+                parriedLast = parry;
+                tickPlayerStatuses(b);
+                if (foe.hp <= 0) break;
+
+                enemyAct(b);
+                if (player.hp <= 0) break;
+            }
+
+            s.fights++;
+            if (foe.hp <= 0) {
+                s.wins++;
+                s.turnsToKill[turn]++;
+            } else if (turn > MAX_TURNS) {
+                s.timeouts++;
+            }
+            s.hpLostPct[(player.maxHp - Math.max(0, player.hp)) * 100 / player.maxHp]++;
+        }
+
+        // Same rules as Game.executePhysicalMove, damage applied at once
+        private void playerAttack(Battle b, Player.PhysicalMove move) {
+            if (Battle.moveCanBeDodged(move) && Battle.rollDodge(rng, Game.FOE_BASE_DODGE_PCT,
+                    player.speed(), foe.speed(), b.foeDodgePenaltyPct)) {
+                return;
+            }
+
+            int pen = Battle.applyWillVsSlowPenalty(rng, b.playerAccuracyPenaltyPct, player.will(), b.playerSlowTurns);
+            int acc = Battle.moveAccuracy(move, player.speed());
+            if (!Battle.rollPhysicalHit(rng, acc, player.speed(), foe.speed(), pen)) return;
+
+            int dmg = player.rollDamage(rng) * Battle.moveDamagePct(move) / 100;
+            if (Battle.moveCritsOnHit(move)) dmg = (int) (dmg * 1.5);
+            if (b.fireSwordActive) dmg += rng.range(6, 9);
+            if (b.foeGuarded) {
+                dmg = Math.max(1, dmg / 2);
+                b.foeGuarded = false;
+            }
+            foe.hp -= dmg;
+        }
+
+        // Same as Game's ENEMY_ACT phase
+        private void enemyAct(Battle b) {
+            if (b.foeFrozenTurns > 0) b.foeFrozenTurns--;
+            else foe.resolveBattleMove(rng, player, b);
+
+            if (b.foeSlowTurns > 0) {
+                b.foeSlowTurns--;
+                if (b.foeSlowTurns <= 0) {
+                    b.foeAccuracyPenaltyPct = 0;
+                    b.foeDodgePenaltyPct = 0;
+                }
+            }
+        }
+
+        private static void tickPlayerStatuses(Battle b) {
+            if (b.playerSlowTurns > 0) {
+                b.playerSlowTurns--;
+                if (b.playerSlowTurns <= 0) {
+                    b.playerAccuracyPenaltyPct = 0;
+                    b.playerDodgePenaltyPct = 0;
+                }
+            }
+        }
+
+        // Expected damage per use against this foe, ignoring statuses (none at the start of a fight)
+        private Player.PhysicalMove bestAttack() {
+            Player.PhysicalMove best = Player.PhysicalMove.SLASH;
+            double bestDmg = -1;
+            for (Player.PhysicalMove m : ATTACKS) {
+                if (!player.knowsMove(m)) continue;
+                double hit = Battle.physicalHitPct(Battle.moveAccuracy(m, player.speed()),
+                        player.speed(), foe.speed(), 0) / 100.0;
+                if (Battle.moveCanBeDodged(m)) {
+                    hit *= 1 - Battle.dodgePct(Game.FOE_BASE_DODGE_PCT, player.speed(), foe.speed(), 0) / 100.0;
+                }
+                double dmg = (player.getAtkMinTotal() + player.getAtkMaxTotal()) / 2.0 * Battle.moveDamagePct(m) / 100;
+                if (Battle.moveCritsOnHit(m)) dmg *= 1.5;
+                if (hit * dmg > bestDmg) {
+                    bestDmg = hit * dmg;
+                    best = m;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.game;
+
+import java.util.Arrays;
+
+/**
+ * Frame clock plus a timing wheel of scheduled battle events (damage landing, hit reactions, phase changes).
+ *
+ * Events hash into SLOTS buckets by due frame; a frame only looks at its own bucket, so a frame with
+ * nothing due costs O(1) however many events are pending. Events further out than SLOTS frames stay in
+ * their bucket until their frame comes round. Events due on the same frame fire in the order scheduled.
+ */
+final class BattleTimeline {
+    interface Handler {
+        void fire(int kind, int payload);
+    }
+
+    private static final int SLOTS = 64; // power of two, > any usual delay
+    private static final int MASK = SLOTS - 1;
+
+    private long now = 0;
+    private int pending = 0;
+
+    private final int[] head = new int[SLOTS];
+    private final int[] tail = new int[SLOTS];
+
+    // Event pool (linked lists per slot + free list)
+    private long[] time = new long[32];
+    private int[] kind = new int[32];
+    private int[] payload = new int[32];
+    private int[] next = new int[32];
+    private int free = -1;
+    private int used = 0;
+
+    BattleTimeline() {
+        Arrays.fill(head, -1);
+        Arrays.fill(tail, -1);
+    }
+
+    /** Current frame. */
+    long now() {
+        return now;
+    }
+
+    int pending() {
+        return pending;
+    }
+
+    /** Fire kind/payload delayFrames from now (at least 1: the next advance). */
+    void schedule(int delayFrames, int kindOf, int payloadOf) {
+        long at = now + Math.max(1, delayFrames);
+        int e = alloc();
+        time[e] = at;
+        kind[e] = kindOf;
+        payload[e] = payloadOf;
+        next[e] = -1;
+
+        int s = (int) (at & MASK);
+        if (tail[s] < 0) head[s] = e;
+        else next[tail[s]] = e;
+        tail[s] = e;
+        pending++;
+    }
+
+    /** Move to the next frame and fire what is due on it. */
+    void advance(Handler h) {
+        now++;
+        int s = (int) (now & MASK);
+        if (head[s] < 0) return;
+
+        // Detach the bucket first: handlers may schedule into it again
+        int e = head[s];
+        head[s] = -1;
+        tail[s] = -1;
+        while (e >= 0) {
+            int after = next[e];
+            if (time[e] <= now) {
+                pending--;
+                int k = kind[e], p = payload[e];
+                release(e);
+                h.fire(k, p);
+            } else {
+                // a later lap: back into the bucket
+                next[e] = -1;
+                if (tail[s] < 0) head[s] = e;
+                else next[tail[s]] = e;
+                tail[s] = e;
+            }
+            e = after;
+        }
+    }
+
+    /** Advance until nothing is pending and the clock has reached untilFrame. */
+    void fastForward(Handler h, long untilFrame) {
+        while (pending > 0 || now < untilFrame) advance(h);
+    }
+
+    private int alloc() {
+        if (free >= 0) {
+            int e = free;
+            free = next[e];
+            return e;
+        }
+        if (used == time.length) {
+            int n = used << 1;
+            time = Arrays.copyOf(time, n);
+            kind = Arrays.copyOf(kind, n);
+            payload = Arrays.copyOf(payload, n);
+            next = Arrays.copyOf(next, n);
+        }
+        return used++;
+    }
+
+    private void release(int e) {
+        next[e] = free;
+        free = e;
+    }
+}
@@ -0,0 +1,298 @@
+package org.example.world;
+
+import org.example.game.util.RNG;
+
+/**
+ * Bit-packed cave grid for the cellular-automata generator: one bit per tile (set = wall),
+ * each row stored as ceil(w / 64) longs. Smoothing counts the 8 neighbours of 64 tiles at once
+ * with bit-sliced adders, and region flood fill spreads along rows with add-carry tricks.
+ *
+ * Buffers grow on demand and are reused between floors (one instance per GenWorkspace).
+ */
+final class CaveBits {
+    private int w, h, words;
+    private long lastWordMask; // valid tile bits of the last word in each row
+
+    private long[] cur = new long[0];
+    private long[] next = new long[0];
+
+    // Region search scratch
+    private long[] open = new long[0];
+    private long[] region = new long[0];
+    private long[] best = new long[0];
+    private long[] rowTmp = new long[0];
+    private int regionLo, regionHi;
+
+    void reset(int w, int h) {
+        this.w = w;
+        this.h = h;
+        this.words = (w + 63) >>> 6;
+        this.lastWordMask = (w & 63) == 0 ? -1L : (1L << (w & 63)) - 1;
+
+        int n = words * h;
+        if (cur.length < n) {
+            cur = new long[n];
+            next = new long[n];
+            open = new long[n];
+            region = new long[n];
+            best = new long[n];
+        }
+        if (rowTmp.length < words) rowTmp = new long[words];
+    }
+
+    int w() { return w; }
+    int h() { return h; }
+
+    boolean isWall(int x, int y) {
+        if (x < 0 || y < 0 || x >= w || y >= h) return true;
+        return (cur[y * words + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+
+    /** Random walls at ~44% density (7/16: four random words combined), solid map border. */
+    void randomFill(RNG rng) {
+        int n = words * h;
+        // Bulk draws into the scratch buffers (cleared before any other use)
+        rng.nextLongs(next, 0, n);
+        rng.nextLongs(open, 0, n);
+        rng.nextLongs(region, 0, n);
+        rng.nextLongs(best, 0, n);
+        for (int i = 0; i < n; i++) cur[i] = ~((next[i] | open[i]) & (region[i] | best[i]));
+        applyBorder(cur);
+    }
+
+    /**
+     * One 4-5 rule step for the whole map: a tile becomes wall if 5+ of its 8 neighbours are walls,
+     * and stays wall with 4+. Out-of-map neighbours count as walls.
+     */
+    void smoothStep() {
+        for (int y = 0; y < h; y++) {
+            int row = y * words;
+            int up = (y > 0) ? row - words : -1;
+            int dn = (y + 1 < h) ? row + words : -1;
+
+            for (int i = 0; i < words; i++) {
+                long nw = westOf(up, i), n = mid(up, i), ne = eastOf(up, i);
+                long we = westOf(row, i), ea = eastOf(row, i);
+                long sw = westOf(dn, i), s = mid(dn, i), se = eastOf(dn, i);
+
+                // Carry-save adders: sum 8 one-bit inputs per lane into ones/twos/fours/eights
+                long s1a = nw ^ n ^ ne,  c1a = (nw & n) | (ne & (nw ^ n));
+                long s1b = we ^ ea ^ sw, c1b = (we & ea) | (sw & (we ^ ea));
+                long o = s1a ^ s1b ^ s,  c2a = (s1a & s1b) | (s & (s1a ^ s1b));
+                long ones = o ^ se,      c2b = o & se;
+
+                long t = c1a ^ c1b ^ c2a, c3a = (c1a & c1b) | (c2a & (c1a ^ c1b));
+                long twos = t ^ c2b,      c3b = t & c2b;
+
+                long fours = c3a ^ c3b, eights = c3a & c3b;
+
+                long ge5 = eights | (fours & (twos | ones));
+                long ge4 = eights | fours;
+                next[row + i] = ge5 | (cur[row + i] & ge4);
+            }
+        }
+
+        long[] tmp = cur; cur = next; next = tmp;
+        applyBorder(cur);
+    }
+
+    private long mid(int row, int i) {
+        return (row < 0) ? -1L : cur[row + i];
+    }
+
+    // Lane x gets the tile at x-1
+    private long westOf(int row, int i) {
+        if (row < 0) return -1L;
+        long prev = (i > 0) ? cur[row + i - 1] : -1L;
+        return (cur[row + i] << 1) | (prev >>> 63);
+    }
+
+    // Lane x gets the tile at x+1
+    private long eastOf(int row, int i) {
+        if (row < 0) return -1L;
+        long nxt = (i + 1 < words) ? cur[row + i + 1] : -1L;
+        return (cur[row + i] >>> 1) | (nxt << 63);
+    }
+
+    private void applyBorder(long[] a) {
+        int last = (h - 1) * words;
+        for (int i = 0; i < words; i++) {
+            a[i] = -1L;
+            a[last + i] = -1L;
+        }
+
+        int ex = w - 1;
+        for (int y = 0; y < h; y++) {
+            int row = y * words;
+            a[row] |= 1L;
+            a[row + (ex >>> 6)] |= 1L << (ex & 63);
+            a[row + words - 1] |= ~lastWordMask;
+        }
+    }
+
+    /**
+     * Fill every open area except the largest 4-connected one. Returns the size of the kept area.
+     */
+    int keepLargestRegion() {
+        int n = words * h;
+        for (int i = 0; i < n; i++) open[i] = ~cur[i];
+        for (int y = 0; y < h; y++) open[y * words + words - 1] &= lastWordMask;
+
+        java.util.Arrays.fill(region, 0, n, 0L);
+        java.util.Arrays.fill(best, 0, n, 0L);
+        int bestSize = 0;
+
+        for (int y = 0; y < h; y++) {
+            int row = y * words;
+            for (int i = 0; i < words; i++) {
+                while (open[row + i] != 0) {
+                    region[row + i] = Long.lowestOneBit(open[row + i]);
+                    floodRegion(y);
+
+                    // Take the component out of the open set (and count it) as we clear it
+                    int size = 0;
+                    for (int r = regionLo * words, end = (regionHi + 1) * words; r < end; r++) {
+                        size += Long.bitCount(region[r]);
+                        open[r] &= ~region[r];
+                    }
+
+                    if (size > bestSize) {
+                        if (bestSize > 0) java.util.Arrays.fill(best, 0, n, 0L);
+                        System.arraycopy(region, regionLo * words, best, regionLo * words,
+                                (regionHi - regionLo + 1) * words);
+                        bestSize = size;
+                    }
+                    java.util.Arrays.fill(region, regionLo * words, (regionHi + 1) * words, 0L);
+                }
+            }
+        }
+
+        for (int i = 0; i < n; i++) cur[i] = ~best[i];
+        applyBorder(cur);
+        return bestSize;
+    }
+
+    /** Grow the seeded region inside open by alternating down/up row sweeps until nothing changes. */
+    private void floodRegion(int seedY) {
+        regionLo = regionHi = seedY;
+        growRow(seedY);
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int y = Math.max(0, regionLo - 1); y <= Math.min(h - 1, regionHi + 1); y++) {
+                if (growRow(y)) changed = true;
+            }
+            for (int y = Math.min(h - 1, regionHi + 1); y >= Math.max(0, regionLo - 1); y--) {
+                if (growRow(y)) changed = true;
+            }
+        }
+    }
+
+    // Pull in open tiles touching the region from the rows above/below, then fill along the row.
+    private boolean growRow(int y) {
+        int row = y * words;
+        int up = (y > 0) ? row - words : -1;
+        int dn = (y + 1 < h) ? row + words : -1;
+
+        long any = 0;
+        for (int i = 0; i < words; i++) {
+            long s = region[row + i];
+            if (up >= 0) s |= region[up + i];
+            if (dn >= 0) s |= region[dn + i];
+            s &= open[row + i];
+            rowTmp[i] = s;
+            any |= s;
+        }
+        if (any == 0) return false;
+
+        // Towards higher x: m + s carries through each run of open bits above a seed
+        long carry = 0;
+        for (int i = 0; i < words; i++) {
+            long m = open[row + i];
+            long s = (rowTmp[i] | carry) & m;
+            long f = (((m + s) ^ m) & m) | s;
+            rowTmp[i] = f;
+            carry = (f < 0) ? 1L : 0L;
+        }
+
+        // Towards lower x: same trick on the bit-reversed words
+        carry = 0;
+        for (int i = words - 1; i >= 0; i--) {
+            long m = open[row + i];
+            long s = (rowTmp[i] | carry) & m;
+            long rm = Long.reverse(m), rs = Long.reverse(s);
+            long f = Long.reverse((((rm + rs) ^ rm) & rm) | rs);
+            rowTmp[i] = f;
+            carry = ((f & 1L) != 0) ? Long.MIN_VALUE : 0L;
+        }
+
+        boolean changed = false;
+        for (int i = 0; i < words; i++) {
+            if (rowTmp[i] != region[row + i]) {
+                region[row + i] = rowTmp[i];
+                changed = true;
+            }
+        }
+        if (changed) {
+            if (y < regionLo) regionLo = y;
+            if (y > regionHi) regionHi = y;
+        }
+        return changed;
+    }
+
+    /** Reload from a finished dungeon: anything the player could stand on (locked doors too) is open. */
+    void loadPassable(Dungeon d) {
+        java.util.Arrays.fill(cur, 0, words * h, 0L);
+        for (int x = 0; x < w; x++) {
+            int i = x >>> 6;
+            long bit = 1L << (x & 63);
+            for (int y = 0; y < h; y++) {
+                if (d.tile(x, y) == Tile.WALL) cur[y * words + i] |= bit;
+            }
+        }
+        applyBorder(cur);
+    }
+
+    /** Fill every open tile that is not 4-connected to (x, y). */
+    void keepRegionAt(int x, int y) {
+        int n = words * h;
+        for (int i = 0; i < n; i++) open[i] = ~cur[i];
+        for (int r = 0; r < h; r++) open[r * words + words - 1] &= lastWordMask;
+
+        java.util.Arrays.fill(region, 0, n, 0L);
+        if (!isWall(x, y)) {
+            region[y * words + (x >>> 6)] = 1L << (x & 63);
+            floodRegion(y);
+        }
+        for (int i = 0; i < n; i++) cur[i] = ~region[i];
+        applyBorder(cur);
+    }
+
+    /** Turn dungeon FLOOR tiles that are wall here into WALL. */
+    void wallOffFloors(Dungeon d) {
+        for (int x = 0; x < w; x++) {
+            int i = x >>> 6;
+            long bit = 1L << (x & 63);
+            for (int y = 0; y < h; y++) {
+                if ((cur[y * words + i] & bit) != 0 && d.tile(x, y) == Tile.FLOOR) d.setTile(x, y, Tile.WALL);
+            }
+        }
+    }
+
+    /** Copy open tiles into the dungeon as FLOOR (the dungeon starts all WALL). */
+    void writeFloors(Dungeon d) {
+        for (int y = 0; y < h; y++) {
+            int row = y * words;
+            for (int i = 0; i < words; i++) {
+                long bits = ~cur[row + i];
+                if (i == words - 1) bits &= lastWordMask;
+                while (bits != 0) {
+                    int x = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    d.setTile(x, y, Tile.FLOOR);
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.world;
+
+import org.example.game.util.RNG;
+
+/**
+ * Cave floors: random rock smoothed by a 4-5 cellular automaton, cut down to the largest open area.
+ *
+ * The automaton and region search run on CaveBits (64 tiles per long), so even 1024x1024 maps take
+ * a few milliseconds before the Dungeon is touched. Clearings stand in for rooms (spawns, key chest),
+ * and the stairs sit in a walled chamber so the usual lock / reconnect / exit-door passes apply as-is.
+ */
+public final class CaveGenerator {
+    private static final int SMOOTH_STEPS = 4;
+    private static final int CHAMBER_TUNNEL_MAX = 24; // straight dig from the chamber opening before we path around
+
+    private CaveGenerator() {}
+
+    public static GenPipeline pipeline() {
+        return new GenPipeline()
+                .add(new NoisePass())
+                .add(new SmoothPass())
+                .add(new RegionPass())
+                .add(new ClearingsPass())
+                .add(new DungeonGenerator.StartAndStairsPass())
+                .add(new StairsChamberPass())
+                .add(new DungeonGenerator.ConnectRoomsPass())
+                .add(new DungeonGenerator.LockStairsRoomPass())
+                .add(new DungeonGenerator.ReconnectSealedRoomsPass())
+                .add(new CullUnreachablePass())
+                .add(new DungeonGenerator.ExitDoorPass());
+    }
+
+    /** Random rock on the bit grid, solid border. */
+    public static final class NoisePass implements GenPass {
+        @Override public String name() { return "cave-noise"; }
+
+        @Override
+        public void apply(GenContext ctx) {
+            CaveBits bits = ctx.ws.caveBits;
+            bits.reset(ctx.params.w, ctx.params.h);
+            bits.randomFill(ctx.rng);
+        }
+    }
+
+    public static final class SmoothPass implements GenPass {
+        @Override public String name() { return "cave-smooth"; }
+
+        @Override
+        public void apply(GenContext ctx) {
+            for (int i = 0; i < SMOOTH_STEPS; i++) ctx.ws.caveBits.smoothStep();
+        }
+    }
+
+    /** Keep the biggest connected area and write it into the dungeon. */
+    public static final class RegionPass implements GenPass {
+        @Override public String name() { return "cave-region"; }
+
+        @Override
+        public void apply(GenContext ctx) {
+            CaveBits bits = ctx.ws.caveBits;
+            bits.keepLargestRegion();
+            bits.writeFloors(ctx.d);
+        }
+    }
+
+    /** Small rectangular clearings centred inside the cave; they act as the floor's rooms. */
+    public static final class ClearingsPass implements GenPass {
+        @Override public String name() { return "cave-rooms"; }
+
+        @Override
+        public void apply(GenContext ctx) {
+            GenParams p = ctx.params;
+            RNG rng = ctx.rng;
+            CaveBits bits = ctx.ws.caveBits;
+            RoomGrid grid = new RoomGrid(p.w, p.h, p.roomMax, 1);
+
+            // Clearings stay small so the cave shape still shows
+            int maxSide = Math.min(p.roomMax, p.roomMin + 2);
+            int attempts = p.placementAttempts * 4;
+
+            for (int i = 0; i < attempts && ctx.rooms.size() < p.maxRooms; i++) {
+                int rw = rng.range(p.roomMin, maxSide);
+                int rh = rng.range(p.roomMin, maxSide);
+
+                int maxRx = (p.w - 2) - rw;
+                int maxRy = (p.h - 2) - rh;
+                if (maxRx < 1 || maxRy < 1) continue;
+
+                int rx = rng.range(1, maxRx);
+                int ry = rng.range(1, maxRy);
+
+                // Centre must be open cave, so the clearing is joined to it
+                if (bits.isWall(rx + rw / 2, ry + rh / 2)) continue;
+                if (grid.overlapsAny(rx, ry, rw, rh)) continue;
+
+                Rect r = new Rect(rx, ry, rw, rh);
+                grid.add(r);
+
+                DungeonGenerator.carveRoom(ctx.d, r);
+                ctx.d.addRoom(r);
+                ctx.rooms.add(r);
+            }
+
+            DungeonGenerator.ensureTwoRooms(ctx);
+        }
+    }
+
+    /**
+     * Wall the stairs clearing off from the open cave and dig a single opening towards the start,
+     * so the lock pass ends up with one door instead of a whole locked rim.
+     */
+    public static final class StairsChamberPass implements GenPass {
+        @Override public String name() { return "cave-chamber"; }
+
+        @Override
+        public void apply(GenContext ctx) {
+            Dungeon d = ctx.d;
+            Rect s = ctx.stairsRoom;
+
+            for (int x = s.x - 1; x <= s.x2() + 1; x++) {
+                d.setTile(x, s.y - 1, Tile.WALL);
+                d.setTile(x, s.y2() + 1, Tile.WALL);
+            }
+            for (int y = s.y; y <= s.y2(); y++) {
+                d.setTile(s.x - 1, y, Tile.WALL);
+                d.setTile(s.x2() + 1, y, Tile.WALL);
+            }
+
+            int dx = ctx.startRoom.cx() - s.cx();
+            int dy = ctx.startRoom.cy() - s.cy();
+
+            int x, y, sx = 0, sy = 0;
+            if (Math.abs(dx) >= Math.abs(dy)) {
+                sx = (dx >= 0) ? 1 : -1;
+                x = (sx > 0) ? s.x2() + 1 : s.x - 1;
+                y = s.cy();
+            } else {
+                sy = (dy >= 0) ? 1 : -1;
+                x = s.cx();
+                y = (sy > 0) ? s.y2() + 1 : s.y - 1;
+            }
+
+            // Dig outwards until we break into the cave
+            int ox = x + sx, oy = y + sy;
+            for (int i = 0; i < CHAMBER_TUNNEL_MAX; i++) {
+                if (x < 1 || y < 1 || x > d.w() - 2 || y > d.h() - 2) break;
+                d.setTile(x, y, Tile.FLOOR);
+                x += sx;
+                y += sy;
+                if (d.tile(x, y) != Tile.WALL) return;
+            }
+
+            // Straight dig ran into solid rock: route from just outside the opening to the start's area
+            if (ox < 1 || oy < 1 || ox > d.w() - 2 || oy > d.h() - 2) return;
+            DungeonGenerator.floodFill(d, ctx.ws, ctx.startRoom.cx(), ctx.startRoom.cy(), false);
+            DungeonGenerator.carveDetourToReachable(d, ctx.ws, ox, oy, s);
+        }
+    }
+
+    /** The chamber walls can cut off bits of cave; fill anything the player can never reach. */
+    public static final class CullUnreachablePass implements GenPass {
+        @Override public String name() { return "cave-cull"; }
+
+        @Override
+        public void apply(GenContext ctx) {
+            // Same bit grid as the automaton: one row-parallel flood instead of a tile BFS
+            CaveBits bits = ctx.ws.caveBits;
+            bits.loadPassable(ctx.d);
+            bits.keepRegionAt(ctx.startRoom.cx(), ctx.startRoom.cy());
+            bits.wallOffFloors(ctx.d);
+        }
+    }
+}
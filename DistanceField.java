@@ -0,0 +1,173 @@
+package org.example.world;
+
+import org.example.game.util.IntList;
+import org.example.game.util.IntQueue;
+
+/**
+ * Dijkstra map ("flow field") over a WorldMap: step distance from one or more source tiles,
+ * bounded to a radius. Built once per enemy turn from the player; every enemy then just steps to
+ * its lowest neighbour, so pursuit is one bounded BFS plus O(1) per enemy instead of a search each.
+ *
+ * Grids are stamped and reused, so rebuilding every turn doesn't allocate once warmed up.
+ */
+public final class DistanceField {
+    public static final int UNREACHED = Integer.MAX_VALUE;
+
+    // Flee maps are the chase map times -1.2, re-relaxed (costs in tenths of a step).
+    // The extra 0.2 makes a long way round toward open space beat hiding in the nearest corner.
+    private static final int FLEE_STEP = 10;
+    private static final int FLEE_WEIGHT = 12;
+
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    /** Checked before stepping onto a lower tile (occupied, player, ...). */
+    public interface StepFilter {
+        boolean allowed(int x, int y);
+    }
+
+    private WorldMap map;
+    private int w, h;
+    private int[] value = new int[0];
+    private int[] marks = new int[0];
+    private int stamp = 0;
+
+    private final IntQueue queue = new IntQueue(256);
+    private final IntQueue keys = new IntQueue(256);
+    private final IntList order = new IntList(256); // settled tiles, nondecreasing value
+
+    /** Single-source shortcut: distances from (sx, sy) out to radius steps. */
+    public void build(WorldMap m, int sx, int sy, int radius) {
+        reset(m);
+        addSource(sx, sy);
+        expand(radius);
+    }
+
+    /** Clear the field for map m; then addSource() any number of tiles and expand(). */
+    public void reset(WorldMap m) {
+        this.map = m;
+        this.w = m.w();
+        this.h = m.h();
+
+        int n = w * h;
+        if (marks.length < n) {
+            value = new int[n];
+            marks = new int[n];
+            stamp = 0;
+        }
+
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(marks, 0);
+            stamp = 1;
+        }
+
+        queue.clear();
+        order.clear();
+    }
+
+    public void addSource(int x, int y) {
+        if (!map.inBounds(x, y)) return;
+        int p = x + y * w;
+        if (marks[p] == stamp) return;
+        marks[p] = stamp;
+        value[p] = 0;
+        queue.add(p);
+        order.add(p);
+    }
+
+    /** BFS out from the sources; tiles further than radius steps stay UNREACHED. */
+    public void expand(int radius) {
+        while (!queue.isEmpty()) {
+            int p = queue.poll();
+            int v = value[p];
+            if (v >= radius) continue;
+
+            int x = p % w, y = p / w;
+            for (int i = 0; i < 4; i++) {
+                int nx = x + DX[i], ny = y + DY[i];
+                if (!map.isWalkable(nx, ny)) continue;
+
+                int np = nx + ny * w;
+                if (marks[np] == stamp) continue;
+                marks[np] = stamp;
+                value[np] = v + 1;
+                queue.add(np);
+                order.add(np);
+            }
+        }
+    }
+
+    /**
+     * Turn a chase field into a flee field over the same tiles: seeds are -1.2 x chase distance,
+     * then a uniform-cost Dijkstra smooths them. The seeds come pre-sorted (the chase field's settle
+     * order, reversed), so a two-queue merge replaces the priority queue.
+     */
+    public void buildFlee(DistanceField chase) {
+        reset(chase.map);
+        keys.clear();
+
+        int seed = chase.order.size() - 1;
+        while (seed >= 0 || !queue.isEmpty()) {
+            int p, key;
+            int sp = (seed >= 0) ? chase.order.get(seed) : -1;
+            int sk = (seed >= 0) ? -FLEE_WEIGHT * chase.value[sp] : 0;
+
+            if (seed >= 0 && (queue.isEmpty() || sk <= keys.peek())) {
+                p = sp;
+                key = sk;
+                seed--;
+            } else {
+                p = queue.poll();
+                key = keys.poll();
+            }
+
+            if (marks[p] == stamp) continue; // already settled at a lower (or equal) value
+            marks[p] = stamp;
+            value[p] = key;
+            order.add(p);
+
+            int x = p % w, y = p / w;
+            for (int i = 0; i < 4; i++) {
+                int nx = x + DX[i], ny = y + DY[i];
+                if (!chase.isReached(nx, ny)) continue;
+
+                int np = nx + ny * w;
+                if (marks[np] == stamp) continue;
+                queue.add(np);
+                keys.add(key + FLEE_STEP);
+            }
+        }
+    }
+
+    public boolean isReached(int x, int y) {
+        return x >= 0 && y >= 0 && x < w && y < h && marks[x + y * w] == stamp;
+    }
+
+    /** Steps from the nearest source (flee fields: scaled, negative), or UNREACHED. */
+    public int value(int x, int y) {
+        return isReached(x, y) ? value[x + y * w] : UNREACHED;
+    }
+
+    /**
+     * Direction (0..3, see dx/dy) to the lowest neighbour that is strictly lower than (x, y) and
+     * passes the filter, or -1 if there is none (at a source, cornered, or all blocked).
+     */
+    public int bestStep(int x, int y, StepFilter filter) {
+        int best = -1;
+        int bestValue = value(x, y);
+
+        for (int i = 0; i < 4; i++) {
+            int nx = x + DX[i], ny = y + DY[i];
+            int v = value(nx, ny);
+            if (v >= bestValue) continue;
+            if (filter != null && !filter.allowed(nx, ny)) continue;
+            best = i;
+            bestValue = v;
+        }
+        return best;
+    }
+
+    public static int dx(int dir) { return DX[dir]; }
+    public static int dy(int dir) { return DY[dir]; }
+}
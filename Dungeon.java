@@ -19,6 +19,9 @@ public final class Dungeon implements WorldMap {
     private boolean fogEnabled = true;
 
     private int startX, startY;
+
+    // Notified on setTile once the map is live (none during generation)
+    private final TileChangeListeners tileListeners = new TileChangeListeners();
     private int stairsX, stairsY;
 
     private int keyX = -1, keyY = -1;
@@ -44,7 +47,20 @@ public final class Dungeon implements WorldMap {
     }
 
     public void setTile(int x, int y, Tile t) {
-        if (inBounds(x, y)) tiles[x][y] = t;
+        if (!inBounds(x, y)) return;
+        Tile before = tiles[x][y];
+        tiles[x][y] = t;
+        tileListeners.fire(this, x, y, before, t);
+    }
+
+    @Override
+    public void addTileChangeListener(TileChangeListener l) {
+        tileListeners.add(l);
+    }
+
+    @Override
+    public void removeTileChangeListener(TileChangeListener l) {
+        tileListeners.remove(l);
     }
 
     public boolean inBounds(int x, int y) {
@@ -152,6 +168,7 @@ public final class Dungeon implements WorldMap {
 
     public void setStairsDown(int x, int y) { stairsX = x; stairsY = y; setTile(x, y, Tile.STAIRS_DOWN); }
     public boolean isStairsDown(int x, int y) { return x == stairsX && y == stairsY; }
+    public int[] getStairsDownPos() { return new int[]{stairsX, stairsY}; }
 
     // Visibility
     public boolean isVisibleNow(int x, int y) {
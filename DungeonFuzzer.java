@@ -0,0 +1,212 @@
+package org.example.world;
+
+import org.example.game.util.RNG;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates floors for a range of seeds on all cores and runs DungeonInvariants on each.
+ * Failures are shrunk (fewer rooms, smaller map) while they keep failing with the same seed,
+ * so the report points at the smallest floor that still shows the bug. Only the params shrink;
+ * the seed is kept, and the report lists the lowest failing seeds.
+ *
+ * Usage: DungeonFuzzer [seedCount=200000] [firstSeed=0] [threads=all cores]
+ * Exit code 1 if any seed failed (so a build step can gate on it).
+ */
+public final class DungeonFuzzer {
+    private static final int CHUNK = 2048;        // seeds per task
+    private static final int MAX_REPORTED = 20;   // failures we keep + shrink
+    private static final int FLOOR_SPREAD = 12;   // seeds cycle through forFloor(1..12)
+
+    public static final class Failure {
+        public final long seed;
+        public final GenParams params;
+        public final String reason;
+
+        Failure(long seed, GenParams params, String reason) {
+            this.seed = seed;
+            this.params = params;
+            this.reason = reason;
+        }
+
+        @Override
+        public String toString() {
+            return "seed=" + seed + " " + params.style + " map=" + params.w + "x" + params.h
+                    + " rooms=" + params.maxRooms + "/" + params.placementAttempts
+                    + " size=" + params.roomMin + ".." + params.roomMax + " : " + reason;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 200_000L;
+        long first = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        long t0 = System.nanoTime();
+        List<Failure> failures = new ArrayList<>();
+        Map<GenParams.Style, GenPipeline> timings = new EnumMap<>(GenParams.Style.class);
+        for (GenParams.Style style : GenParams.Style.values()) timings.put(style, DungeonGenerator.pipelineFor(style));
+        long failed = run(first, count, threads, failures, timings);
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("fuzzed %d seeds on %d threads in %.2fs (%.0f floors/s), %d failed%n",
+                count, threads, secs, count / secs, failed);
+        for (Map.Entry<GenParams.Style, GenPipeline> e : timings.entrySet()) {
+            if (e.getValue().runs() == 0) continue;
+            System.out.println(e.getKey() + ":");
+            System.out.print(e.getValue().report());
+        }
+
+        for (Failure f : failures) {
+            Failure small = shrink(f);
+            System.out.println("  FAIL " + f);
+            System.out.println("   min " + small);
+        }
+
+        if (failed > 0) System.exit(1);
+    }
+
+    /** Params a given seed is fuzzed with (spreads seeds over the per-floor presets). */
+    public static GenParams paramsForSeed(long seed) {
+        return GenParams.forFloor(1 + (int) Math.floorMod(seed, (long) FLOOR_SPREAD));
+    }
+
+    /** Returns the failure reason for one seed, or null if the floor is fine. */
+    public static String checkSeed(long seed, GenParams p) {
+        return checkSeed(seed, p, DungeonGenerator.pipelineFor(p.style));
+    }
+
+    private static String checkSeed(long seed, GenParams p, GenPipeline pipeline) {
+        Dungeon d;
+        try {
+            d = new DungeonGenerator(new RNG(seed), pipeline).generate(p);
+        } catch (RuntimeException e) {
+            return "generator threw " + e;
+        }
+        return DungeonInvariants.check(d);
+    }
+
+    /**
+     * Fuzz [first, first+count) in parallel. Fills out with the lowest failing seeds (up to MAX_REPORTED)
+     * and returns the total number of failures. Per-pass timings are summed into timingsOut if given
+     * (one pipeline per style, each with that style's default pass layout).
+     */
+    public static long run(long first, long count, int threads, List<Failure> out,
+                           Map<GenParams.Style, GenPipeline> timingsOut) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "dungeon-fuzz");
+            t.setDaemon(true);
+            return t;
+        });
+
+        AtomicLong failed = new AtomicLong();
+        // Max-heap on seed holding the MAX_REPORTED lowest failing seeds seen so far
+        PriorityQueue<Failure> lowest = new PriorityQueue<>((a, b) -> Long.compare(b.seed, a.seed));
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // One pipeline set per worker thread (pipelines keep timing state and aren't thread-safe)
+        ConcurrentLinkedQueue<Map<GenParams.Style, GenPipeline>> pipelines = new ConcurrentLinkedQueue<>();
+        ThreadLocal<Map<GenParams.Style, GenPipeline>> local = ThreadLocal.withInitial(() -> {
+            Map<GenParams.Style, GenPipeline> byStyle = new EnumMap<>(GenParams.Style.class);
+            for (GenParams.Style style : GenParams.Style.values()) byStyle.put(style, DungeonGenerator.pipelineFor(style));
+            pipelines.add(byStyle);
+            return byStyle;
+        });
+
+        try {
+            for (long base = first; base < first + count; base += CHUNK) {
+                long lo = base;
+                long hi = Math.min(first + count, base + CHUNK);
+                tasks.add(pool.submit(() -> {
+                    Map<GenParams.Style, GenPipeline> byStyle = local.get();
+                    for (long seed = lo; seed < hi; seed++) {
+                        GenParams p = paramsForSeed(seed);
+                        String reason = checkSeed(seed, p, byStyle.get(p.style));
+                        if (reason == null) continue;
+
+                        failed.incrementAndGet();
+                        synchronized (lowest) { // failures are rare: no contention worth avoiding
+                            if (lowest.size() < MAX_REPORTED) {
+                                lowest.add(new Failure(seed, p, reason));
+                            } else if (seed < lowest.peek().seed) {
+                                lowest.poll();
+                                lowest.add(new Failure(seed, p, reason));
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : tasks) f.get();
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        if (timingsOut != null) {
+            for (Map<GenParams.Style, GenPipeline> byStyle : pipelines) {
+                for (Map.Entry<GenParams.Style, GenPipeline> e : byStyle.entrySet()) {
+                    GenPipeline sum = timingsOut.get(e.getKey());
+                    if (sum != null) sum.addTotals(e.getValue());
+                }
+            }
+        }
+
+        List<Failure> sorted = new ArrayList<>(lowest);
+        sorted.sort((a, b) -> Long.compare(a.seed, b.seed));
+        out.addAll(sorted);
+        return failed.get();
+    }
+
+    /** Greedy shrink: keep cutting rooms, then map size, while the same seed still fails. */
+    public static Failure shrink(Failure f) {
+        GenParams p = f.params;
+        String reason = f.reason;
+
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+
+            for (GenParams cand : smallerThan(p)) {
+                String r = checkSeed(f.seed, cand);
+                if (r != null) {
+                    p = cand;
+                    reason = r;
+                    progress = true;
+                    break;
+                }
+            }
+        }
+        return new Failure(f.seed, p, reason);
+    }
+
+    private static List<GenParams> smallerThan(GenParams p) {
+        List<GenParams> out = new ArrayList<>();
+
+        if (p.maxRooms > 2) {
+            out.add(p.withRooms(Math.max(2, p.maxRooms / 2), Math.max(2, p.placementAttempts / 2)));
+            out.add(p.withRooms(p.maxRooms - 1, Math.max(p.maxRooms - 1, p.placementAttempts - 1)));
+        }
+        if (p.placementAttempts > p.maxRooms) {
+            out.add(p.withRooms(p.maxRooms, p.placementAttempts - 1));
+        }
+
+        int minSide = p.roomMax * 2 + 4;
+        if (p.w > minSide) out.add(p.withSize(Math.max(minSide, p.w - Math.max(1, p.w / 4)), p.h));
+        if (p.h > minSide) out.add(p.withSize(p.w, Math.max(minSide, p.h - Math.max(1, p.h / 4))));
+        if (p.w > minSide) out.add(p.withSize(p.w - 1, p.h));
+        if (p.h > minSide) out.add(p.withSize(p.w, p.h - 1));
+
+        if (p.roomMax > p.roomMin) out.add(p.withRoomSize(p.roomMin, p.roomMax - 1));
+        return out;
+    }
+}
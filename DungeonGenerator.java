@@ -1,6 +1,7 @@
 package org.example.world;
 
-import org.example.game.GameConfig;
+import org.example.game.util.IntList;
+import org.example.game.util.IntQueue;
 import org.example.game.util.RNG;
 
 import java.util.ArrayList;
@@ -8,6 +9,9 @@ import java.util.List;
 
 public final class DungeonGenerator {
     private final RNG rng;
+    private final GenPipeline pipeline;
+
+    private static final int[][] DIRS = { {1,0}, {-1,0}, {0,1}, {0,-1} };
 
     // Minimum Manhattan distance (center-to-center) between start room and stairs room.
     // You can tune this. It scales a bit with dungeon size so larger dungeons spread more.
@@ -16,107 +20,201 @@ public final class DungeonGenerator {
         return Math.max(12, (w + h) / 8);
     }
 
+    // Pipeline used by the last generate() (the fixed one, or the style default)
+    private GenPipeline lastPipeline;
+
+    /** Picks the pipeline from GenParams.style on each generate(). */
     public DungeonGenerator(RNG rng) {
+        this(rng, null);
+    }
+
+    /** Use a custom pass list (alternative room placers / corridor styles, or a shared pipeline for timing). */
+    public DungeonGenerator(RNG rng, GenPipeline pipeline) {
         this.rng = rng;
+        this.pipeline = pipeline;
+        this.lastPipeline = pipeline;
+    }
+
+    /** Rooms-and-corridors: the classic floor layout. */
+    public static GenPipeline defaultPipeline() {
+        return new GenPipeline()
+                .add(new RoomPlacementPass())
+                .add(new ChainCorridorPass())
+                .add(new StartAndStairsPass())
+                .add(new ConnectRoomsPass())
+                .add(new LockStairsRoomPass())
+                .add(new ReconnectSealedRoomsPass())
+                .add(new ExitDoorPass());
+    }
+
+    /** Default pass list for a floor style. */
+    public static GenPipeline pipelineFor(GenParams.Style style) {
+        return switch (style) {
+            case ROOMS -> defaultPipeline();
+            case CAVE -> CaveGenerator.pipeline();
+        };
+    }
+
+    /** The pipeline of the last run (its timings live there too); null before the first generate(). */
+    public GenPipeline pipeline() {
+        return lastPipeline;
     }
 
     /** Convenience: generate using the configured world size (bigger than viewport). */
     public Dungeon generate() {
-        return generate(GameConfig.DUNGEON_W, GameConfig.DUNGEON_H);
+        return generate(GenParams.defaults());
     }
 
     public Dungeon generate(int w, int h) {
-        Dungeon d = new Dungeon(w, h);
-        List<Rect> rooms = new ArrayList<>();
+        return generate(GenParams.defaults().withSize(w, h));
+    }
 
-        for (int i = 0; i < GameConfig.MAX_ROOMS; i++) {
-            int rw = rng.range(GameConfig.ROOM_MIN, GameConfig.ROOM_MAX);
-            int rh = rng.range(GameConfig.ROOM_MIN, GameConfig.ROOM_MAX);
+    public Dungeon generate(GenParams p) {
+        GenContext ctx = new GenContext(new Dungeon(p.w, p.h), rng, p);
+        lastPipeline = (pipeline != null) ? pipeline : pipelineFor(p.style);
+        lastPipeline.run(ctx);
+        return ctx.d;
+    }
 
-            // Max top-left so the room stays inside the dungeon with a 1-tile border.
-            int maxRx = (w - 2) - rw;  // room occupies [rx .. rx+rw-1] <= w-2
-            int maxRy = (h - 2) - rh;
+    // -----------------------------
+    // Passes
+    // -----------------------------
 
-            if (maxRx < 1 || maxRy < 1) continue; // can't fit, try another
+    /** Dart throwing: random candidates, rejected via the spatial grid (no O(n^2) scan). */
+    public static final class RoomPlacementPass implements GenPass {
+        @Override public String name() { return "rooms"; }
 
-            int rx = rng.range(1, maxRx);
-            int ry = rng.range(1, maxRy);
+        @Override
+        public void apply(GenContext ctx) {
+            GenParams p = ctx.params;
+            int w = p.w, h = p.h;
+            RoomGrid grid = new RoomGrid(w, h, p.roomMax, 1);
 
-            Rect r = new Rect(rx, ry, rw, rh);
+            for (int i = 0; i < p.placementAttempts && ctx.rooms.size() < p.maxRooms; i++) {
+                int rw = ctx.rng.range(p.roomMin, p.roomMax);
+                int rh = ctx.rng.range(p.roomMin, p.roomMax);
 
-            boolean ok = true;
-            for (Rect other : rooms) {
-                if (r.intersects(expand(other, 1))) { ok = false; break; }
-            }
-            if (!ok) continue;
+                // Max top-left so the room stays inside the dungeon with a 1-tile border.
+                int maxRx = (w - 2) - rw;  // room occupies [rx .. rx+rw-1] <= w-2
+                int maxRy = (h - 2) - rh;
+
+                if (maxRx < 1 || maxRy < 1) continue; // can't fit, try another
 
-            carveRoom(d, r);
-            d.addRoom(r);
+                int rx = ctx.rng.range(1, maxRx);
+                int ry = ctx.rng.range(1, maxRy);
 
-            if (!rooms.isEmpty()) {
-                Rect prev = rooms.get(rooms.size() - 1);
-                carveCorridor(d, prev.cx(), prev.cy(), r.cx(), r.cy());
+                // Overlap test on raw ints; only allocate the Rect once the spot is accepted.
+                if (grid.overlapsAny(rx, ry, rw, rh)) continue;
+
+                Rect r = new Rect(rx, ry, rw, rh);
+                grid.add(r);
+
+                carveRoom(ctx.d, r);
+                ctx.d.addRoom(r);
+                ctx.rooms.add(r);
             }
 
-            rooms.add(r);
+            ensureTwoRooms(ctx);
         }
+    }
 
-        // Guarantee at least 2 rooms by brute fallback (ALWAYS in-bounds)
-        if (rooms.size() < 2) {
-            Rect a = clampRoom(new Rect(3, 3, 8, 8), w, h);
-            Rect b = clampRoom(new Rect(w - 12, h - 12, 8, 8), w, h);
-
-            carveRoom(d, a);
-            carveRoom(d, b);
-            carveCorridor(d, a.cx(), a.cy(), b.cx(), b.cy());
+    /** Each room gets an L-shaped corridor to the room placed before it. */
+    public static final class ChainCorridorPass implements GenPass {
+        @Override public String name() { return "corridors"; }
 
-            rooms.clear();
-            rooms.add(a);
-            rooms.add(b);
+        @Override
+        public void apply(GenContext ctx) {
+            for (int i = 1; i < ctx.rooms.size(); i++) {
+                Rect prev = ctx.rooms.get(i - 1);
+                Rect r = ctx.rooms.get(i);
+                carveCorridor(ctx.rng, ctx.d, prev.cx(), prev.cy(), r.cx(), r.cy());
+            }
         }
+    }
 
-        // -----------------------------
-        // START + STAIRS placement rule
-        // -----------------------------
-        Rect startRoom = rooms.get(0);
+    // -----------------------------
+    // START + STAIRS placement rule
+    // -----------------------------
+    public static final class StartAndStairsPass implements GenPass {
+        @Override public String name() { return "stairs"; }
 
-        // Pick the room farthest from startRoom, preferring those that satisfy a minimum distance
-        int minDist = minStartToStairsDist(w, h);
-        Rect stairsRoom = pickStairsRoomFarFromStart(rooms, startRoom, minDist);
+        @Override
+        public void apply(GenContext ctx) {
+            List<Rect> rooms = ctx.rooms;
+            Dungeon d = ctx.d;
+            Rect startRoom = rooms.get(0);
 
-        // If something went weird (shouldn't), fall back safely
-        if (stairsRoom == null) stairsRoom = rooms.get(rooms.size() - 1);
-        if (stairsRoom == startRoom && rooms.size() > 1) stairsRoom = rooms.get(1);
+            // Pick the room farthest from startRoom, preferring those that satisfy a minimum distance
+            int minDist = minStartToStairsDist(d.w(), d.h());
+            Rect stairsRoom = pickStairsRoomFarFromStart(rooms, startRoom, minDist);
 
-        d.setStart(startRoom.cx(), startRoom.cy());
-        d.setStairsDown(stairsRoom.cx(), stairsRoom.cy());
+            // If something went weird (shouldn't), fall back safely
+            if (stairsRoom == null) stairsRoom = rooms.get(rooms.size() - 1);
+            if (stairsRoom == startRoom && rooms.size() > 1) stairsRoom = rooms.get(1);
 
-        // store bounds for Game (so key chest can avoid stairs room)
-        d.setStairsRoomBounds(stairsRoom.x, stairsRoom.y, stairsRoom.w, stairsRoom.h);
+            d.setStart(startRoom.cx(), startRoom.cy());
+            d.setStairsDown(stairsRoom.cx(), stairsRoom.cy());
 
-        // Make stairs room have ONE entrance, and lock it.
-        // IMPORTANT: previously you assumed stairsRoom was "last" and used rooms.size()-2 as prev.
-        // Now stairsRoom can be any room, so pick the closest *other* room as the "approach" reference.
-        Rect approach = findClosestOtherRoom(rooms, stairsRoom);
-        int fromX = (approach != null) ? approach.cx() : startRoom.cx();
-        int fromY = (approach != null) ? approach.cy() : startRoom.cy();
+            // store bounds for Game (so key chest can avoid stairs room)
+            d.setStairsRoomBounds(stairsRoom.x, stairsRoom.y, stairsRoom.w, stairsRoom.h);
 
-        ensureAllRoomsConnected(d, rooms);              // ✅ new: hard connectivity guarantee
-        placeLockedDoorsForAllStairsEntrances(d, stairsRoom);  // ✅ new: cannot softlock
+            ctx.startRoom = startRoom;
+            ctx.stairsRoom = stairsRoom;
+        }
+    }
+
+    /** Hard connectivity guarantee: every room center reachable from the start room. */
+    public static final class ConnectRoomsPass implements GenPass {
+        @Override public String name() { return "connect"; }
 
-// Put an exit door on the boundary of the start room (bottom edge here)
-        int exitDoorX = startRoom.cx();
-        int exitDoorY = startRoom.y2();
-        d.setTile(exitDoorX, exitDoorY, Tile.DOOR);
+        @Override
+        public void apply(GenContext ctx) {
+            ensureAllRoomsConnected(ctx.rng, ctx.d, ctx.ws, ctx.rooms);
+        }
+    }
 
-// Ensure the tile just inside the door is walkable and make that the start
-        d.setTile(exitDoorX, exitDoorY - 1, Tile.FLOOR);
-        d.setStart(exitDoorX, exitDoorY - 1);
+    /** Lock every entrance of the stairs room (cannot softlock). */
+    public static final class LockStairsRoomPass implements GenPass {
+        @Override public String name() { return "lock"; }
 
-        return d;
+        @Override
+        public void apply(GenContext ctx) {
+            placeLockedDoorsForAllStairsEntrances(ctx.d, ctx.ws, ctx.stairsRoom);
+        }
     }
 
-    private Rect pickStairsRoomFarFromStart(List<Rect> rooms, Rect startRoom, int minDist) {
+    /** Corridors through the stairs room can strand rooms behind the lock; detour around it. */
+    public static final class ReconnectSealedRoomsPass implements GenPass {
+        @Override public String name() { return "reconnect"; }
+
+        @Override
+        public void apply(GenContext ctx) {
+            reconnectRoomsSealedBehindStairs(ctx.d, ctx.ws, ctx.rooms, ctx.stairsRoom);
+        }
+    }
+
+    /** Put an exit door on the boundary of the start room (bottom edge) and start just inside it. */
+    public static final class ExitDoorPass implements GenPass {
+        @Override public String name() { return "exit-door"; }
+
+        @Override
+        public void apply(GenContext ctx) {
+            Dungeon d = ctx.d;
+            int exitDoorX = ctx.startRoom.cx();
+            int exitDoorY = ctx.startRoom.y2();
+            d.setTile(exitDoorX, exitDoorY, Tile.DOOR);
+
+            // Ensure the tile just inside the door is walkable and make that the start
+            d.setTile(exitDoorX, exitDoorY - 1, Tile.FLOOR);
+            d.setStart(exitDoorX, exitDoorY - 1);
+        }
+    }
+
+    // -----------------------------
+    // Shared helpers (also used by other generator styles in this package)
+    // -----------------------------
+
+    static Rect pickStairsRoomFarFromStart(List<Rect> rooms, Rect startRoom, int minDist) {
         Rect bestMeetingMin = null;
         int bestMeetingMinDist = -1;
 
@@ -146,7 +244,7 @@ public final class DungeonGenerator {
         return (bestMeetingMin != null) ? bestMeetingMin : bestOverall;
     }
 
-    private Rect findClosestOtherRoom(List<Rect> rooms, Rect target) {
+    static Rect findClosestOtherRoom(List<Rect> rooms, Rect target) {
         Rect best = null;
         int bestDist = Integer.MAX_VALUE;
 
@@ -168,6 +266,22 @@ public final class DungeonGenerator {
         return Math.abs(x1 - x2) + Math.abs(y1 - y2);
     }
 
+    /** Guarantee at least 2 rooms by brute fallback (ALWAYS in-bounds). */
+    static void ensureTwoRooms(GenContext ctx) {
+        if (ctx.rooms.size() >= 2) return;
+
+        int w = ctx.params.w, h = ctx.params.h;
+        Rect a = clampRoom(new Rect(3, 3, 8, 8), w, h);
+        Rect b = clampRoom(new Rect(w - 12, h - 12, 8, 8), w, h);
+
+        carveRoom(ctx.d, a);
+        carveRoom(ctx.d, b);
+
+        ctx.rooms.clear();
+        ctx.rooms.add(a);
+        ctx.rooms.add(b);
+    }
+
     // Ensures the room fits inside [1..w-2] / [1..h-2]
     private static Rect clampRoom(Rect r, int w, int h) {
         int minX = 1;
@@ -185,11 +299,7 @@ public final class DungeonGenerator {
         return Math.max(lo, Math.min(v, hi));
     }
 
-    private static Rect expand(Rect r, int pad) {
-        return new Rect(r.x - pad, r.y - pad, r.w + pad * 2, r.h + pad * 2);
-    }
-
-    private void carveRoom(Dungeon d, Rect r) {
+    static void carveRoom(Dungeon d, Rect r) {
         for (int x = r.x; x < r.x + r.w; x++) {
             for (int y = r.y; y < r.y + r.h; y++) {
                 d.setTile(x, y, Tile.FLOOR);
@@ -197,7 +307,7 @@ public final class DungeonGenerator {
         }
     }
 
-    private void carveCorridor(Dungeon d, int x1, int y1, int x2, int y2) {
+    static void carveCorridor(RNG rng, Dungeon d, int x1, int y1, int x2, int y2) {
         if (rng.chance(0.5)) {
             carveH(d, x1, x2, y1);
             carveV(d, y1, y2, x2);
@@ -207,32 +317,31 @@ public final class DungeonGenerator {
         }
     }
 
-    private void carveH(Dungeon d, int x1, int x2, int y) {
+    private static void carveH(Dungeon d, int x1, int x2, int y) {
         int start = Math.min(x1, x2);
         int end = Math.max(x1, x2);
-        for (int x = start; x <= end; x++) d.setTile(x, y, Tile.FLOOR);
+        for (int x = start; x <= end; x++) carveTile(d, x, y);
     }
 
-    private void carveV(Dungeon d, int y1, int y2, int x) {
+    private static void carveV(Dungeon d, int y1, int y2, int x) {
         int start = Math.min(y1, y2);
         int end = Math.max(y1, y2);
-        for (int y = start; y <= end; y++) d.setTile(x, y, Tile.FLOOR);
+        for (int y = start; y <= end; y++) carveTile(d, x, y);
+    }
+
+    // Corridors aimed at the stairs room centre must not erase the stairs
+    private static void carveTile(Dungeon d, int x, int y) {
+        if (!d.isStairsDown(x, y)) d.setTile(x, y, Tile.FLOOR);
     }
 
     // (Keeping your existing door helpers unchanged)
 
-    private void placeLockedDoorsForAllStairsEntrances(Dungeon d, Rect stairsRoom) {
-        java.util.ArrayList<int[]> candidates = new java.util.ArrayList<>();
+    static void placeLockedDoorsForAllStairsEntrances(Dungeon d, GenWorkspace ws, Rect stairsRoom) {
+        ws.resetMarks(d.w(), d.h());
+        IntList candidates = ws.cells;
 
         // Collect all boundary tiles that touch outside FLOOR
-        for (int x = stairsRoom.x; x <= stairsRoom.x2(); x++) {
-            collectIfConnects(d, stairsRoom, x, stairsRoom.y,  candidates);
-            collectIfConnects(d, stairsRoom, x, stairsRoom.y2(), candidates);
-        }
-        for (int y = stairsRoom.y; y <= stairsRoom.y2(); y++) {
-            collectIfConnects(d, stairsRoom, stairsRoom.x,  y, candidates);
-            collectIfConnects(d, stairsRoom, stairsRoom.x2(), y, candidates);
-        }
+        collectRoomEntrances(d, stairsRoom, ws, candidates);
 
         // Safety: if no entrances found, force-create one by carving a corridor from room center outward
         if (candidates.isEmpty()) {
@@ -241,8 +350,7 @@ public final class DungeonGenerator {
             int cy = stairsRoom.cy();
 
             // Try each direction to find a wall to punch through to a non-room tile
-            int[][] dirs = { {1,0}, {-1,0}, {0,1}, {0,-1} };
-            for (int[] dir : dirs) {
+            for (int[] dir : DIRS) {
                 int x = cx, y = cy;
                 for (int steps = 0; steps < 12; steps++) { // short poke
                     x += dir[0];
@@ -262,104 +370,171 @@ public final class DungeonGenerator {
             }
 
             // Re-collect after forcing
-            candidates.clear();
-            for (int x = stairsRoom.x; x <= stairsRoom.x2(); x++) {
-                collectIfConnects(d, stairsRoom, x, stairsRoom.y,  candidates);
-                collectIfConnects(d, stairsRoom, x, stairsRoom.y2(), candidates);
-            }
-            for (int y = stairsRoom.y; y <= stairsRoom.y2(); y++) {
-                collectIfConnects(d, stairsRoom, stairsRoom.x,  y, candidates);
-                collectIfConnects(d, stairsRoom, stairsRoom.x2(), y, candidates);
-            }
+            collectRoomEntrances(d, stairsRoom, ws, candidates);
         }
 
         // Lock every connecting entrance tile (no bypass, no sealing-by-wall)
-        for (int[] p : candidates) {
-            int x = p[0], y = p[1];
+        for (int i = 0; i < candidates.size(); i++) {
+            int p = candidates.get(i);
+            int x = ws.unpackX(p), y = ws.unpackY(p);
             if (d.isStairsDown(x, y)) continue;
             d.setLockedDoor(x, y);
         }
     }
 
-    private void ensureAllRoomsConnected(Dungeon d, java.util.List<Rect> rooms) {
+    private static void collectRoomEntrances(Dungeon d, Rect room, GenWorkspace ws, IntList out) {
+        out.clear();
+        for (int x = room.x; x <= room.x2(); x++) {
+            collectIfConnects(d, room, x, room.y,  ws, out);
+            collectIfConnects(d, room, x, room.y2(), ws, out);
+        }
+        for (int y = room.y; y <= room.y2(); y++) {
+            collectIfConnects(d, room, room.x,  y, ws, out);
+            collectIfConnects(d, room, room.x2(), y, ws, out);
+        }
+    }
+
+    static void ensureAllRoomsConnected(RNG rng, Dungeon d, GenWorkspace ws, List<Rect> rooms) {
         if (rooms == null || rooms.isEmpty()) return;
 
         // Start flood fill from the first room center (start room)
         Rect startRoom = rooms.get(0);
-        boolean[][] reachable = floodFill(d, startRoom.cx(), startRoom.cy(), false);
+        floodFill(d, ws, startRoom.cx(), startRoom.cy(), false);
 
         // If any room center isn't reachable, connect it.
         for (Rect r : rooms) {
             int cx = r.cx();
             int cy = r.cy();
-            if (!inBoundsVis(reachable, cx, cy) || !reachable[cx][cy]) {
+            if (!ws.isMarked(cx, cy)) {
                 // Carve corridor from nearest reachable tile to this room center
-                int[] anchor = findNearestReachableTile(reachable, cx, cy);
-                if (anchor != null) {
-                    carveCorridor(d, anchor[0], anchor[1], cx, cy);
-                    // Recompute reachable after each fix (keeps it simple + safe)
-                    reachable = floodFill(d, startRoom.cx(), startRoom.cy(), false);
+                int anchor = findNearestReachableTile(ws, cx, cy);
+                if (anchor >= 0) {
+                    carveCorridor(rng, d, ws.unpackX(anchor), ws.unpackY(anchor), cx, cy);
                 } else {
                     // Worst-case: just connect from start room
-                    carveCorridor(d, startRoom.cx(), startRoom.cy(), cx, cy);
-                    reachable = floodFill(d, startRoom.cx(), startRoom.cy(), false);
+                    carveCorridor(rng, d, startRoom.cx(), startRoom.cy(), cx, cy);
                 }
+                // The new corridor touches the reachable set, so growing the fill from this
+                // room is enough (no full re-flood per fix; matters with hundreds of rooms).
+                extendFlood(d, ws, cx, cy, false);
             }
         }
     }
 
-    private boolean[][] floodFill(Dungeon d, int sx, int sy, boolean treatLockedDoorAsFloor) {
-        int w = d.w(), h = d.h();
-        boolean[][] vis = new boolean[w][h];
+    /**
+     * Corridors are carved before the stairs room is locked, so a room whose only link ran through
+     * the stairs room ends up behind the locked door (and the key chest may spawn there).
+     * Re-link any such room with a detour that keeps clear of the stairs room.
+     */
+    static void reconnectRoomsSealedBehindStairs(Dungeon d, GenWorkspace ws, List<Rect> rooms, Rect stairsRoom) {
+        Rect startRoom = rooms.get(0);
+        floodFill(d, ws, startRoom.cx(), startRoom.cy(), false);
 
-        if (!d.inBounds(sx, sy)) return vis;
+        for (Rect r : rooms) {
+            if (r == stairsRoom) continue;
+            if (ws.isMarked(r.cx(), r.cy())) continue;
 
-        // Start must be on floor-ish; if not, find nearby floor
-        if (!isPassableForConnectivity(d, sx, sy, treatLockedDoorAsFloor)) {
-            int[] p = findAnyNearbyPassable(d, sx, sy, treatLockedDoorAsFloor);
-            if (p == null) return vis;
-            sx = p[0]; sy = p[1];
+            if (carveDetourToReachable(d, ws, r.cx(), r.cy(), stairsRoom)) {
+                extendFlood(d, ws, r.cx(), r.cy(), false);
+            }
         }
+    }
 
-        java.util.ArrayDeque<int[]> q = new java.util.ArrayDeque<>();
-        vis[sx][sy] = true;
-        q.add(new int[]{sx, sy});
+    /** BFS out from (sx, sy) through rock until a marked tile is hit, never touching the stairs room or its rim. */
+    static boolean carveDetourToReachable(Dungeon d, GenWorkspace ws, int sx, int sy, Rect stairsRoom) {
+        ws.resetParents();
+        IntQueue q = ws.queue2;
+        q.clear();
 
-        int[][] dirs = { {1,0}, {-1,0}, {0,1}, {0,-1} };
+        int src = ws.pack(sx, sy);
+        ws.setParent(src, -1);
+        q.add(src);
 
-        while (!q.isEmpty()) {
-            int[] cur = q.removeFirst();
-            int x = cur[0], y = cur[1];
+        int hit = -1;
+        while (!q.isEmpty() && hit < 0) {
+            int cur = q.poll();
+            int x = ws.unpackX(cur), y = ws.unpackY(cur);
 
-            for (int[] dir : dirs) {
+            for (int[] dir : DIRS) {
                 int nx = x + dir[0];
                 int ny = y + dir[1];
+                if (nx < 1 || ny < 1 || nx > d.w() - 2 || ny > d.h() - 2) continue;
+                if (stairsRoom.intersectsPadded(nx, ny, 1, 1, 1)) continue;
 
-                if (!d.inBounds(nx, ny)) continue;
-                if (vis[nx][ny]) continue;
-                if (!isPassableForConnectivity(d, nx, ny, treatLockedDoorAsFloor)) continue;
+                int np = ws.pack(nx, ny);
+                if (ws.hasParent(np)) continue;
+                ws.setParent(np, cur);
 
-                vis[nx][ny] = true;
-                q.addLast(new int[]{nx, ny});
+                if (ws.isMarked(nx, ny)) { hit = np; break; }
+                q.add(np);
             }
         }
+        if (hit < 0) return false;
 
-        return vis;
+        for (int p = ws.parent(hit); p >= 0; p = ws.parent(p)) {
+            int x = ws.unpackX(p), y = ws.unpackY(p);
+            if (d.tile(x, y) == Tile.WALL) d.setTile(x, y, Tile.FLOOR);
+        }
+        return true;
     }
 
-    private boolean isPassableForConnectivity(Dungeon d, int x, int y, boolean treatLockedDoorAsFloor) {
+    /** BFS from (sx, sy); reachable tiles end up marked in the workspace. */
+    static void floodFill(Dungeon d, GenWorkspace ws, int sx, int sy, boolean treatLockedDoorAsFloor) {
+        ws.resetMarks(d.w(), d.h());
+
+        if (!d.inBounds(sx, sy)) return;
+
+        // Start must be on floor-ish; if not, find nearby floor
+        if (!isPassableForConnectivity(d, sx, sy, treatLockedDoorAsFloor)) {
+            int p = findAnyNearbyPassable(d, sx, sy, treatLockedDoorAsFloor);
+            if (p < 0) return;
+            sx = ws.unpackX(p); sy = ws.unpackY(p);
+        }
+
+        extendFlood(d, ws, sx, sy, treatLockedDoorAsFloor);
+    }
+
+    /** Grow the current marked set by BFS from (sx, sy) without clearing existing marks. */
+    static void extendFlood(Dungeon d, GenWorkspace ws, int sx, int sy, boolean treatLockedDoorAsFloor) {
+        if (!d.inBounds(sx, sy) || ws.isMarked(sx, sy)) return;
+        if (!isPassableForConnectivity(d, sx, sy, treatLockedDoorAsFloor)) return;
+
+        IntQueue q = ws.queue;
+        q.clear();
+        ws.mark(sx, sy);
+        q.add(ws.pack(sx, sy));
+
+        int w = d.w(), h = d.h();
+        while (!q.isEmpty()) {
+            int cur = q.poll();
+            int x = cur % w, y = cur / w;
+
+            // unrolled 4-neighbourhood (this loop is the hot spot of generation)
+            if (x + 1 < w)  floodVisit(d, ws, q, x + 1, y, treatLockedDoorAsFloor);
+            if (x > 0)      floodVisit(d, ws, q, x - 1, y, treatLockedDoorAsFloor);
+            if (y + 1 < h)  floodVisit(d, ws, q, x, y + 1, treatLockedDoorAsFloor);
+            if (y > 0)      floodVisit(d, ws, q, x, y - 1, treatLockedDoorAsFloor);
+        }
+    }
+
+    private static void floodVisit(Dungeon d, GenWorkspace ws, IntQueue q, int x, int y, boolean treatLockedDoorAsFloor) {
+        if (ws.isMarked(x, y)) return;
+        if (!isPassableForConnectivity(d, x, y, treatLockedDoorAsFloor)) return;
+        ws.mark(x, y);
+        q.add(ws.pack(x, y));
+    }
+
+    static boolean isPassableForConnectivity(Dungeon d, int x, int y, boolean treatLockedDoorAsFloor) {
         Tile t = d.tile(x, y);
         if (t == Tile.WALL) return false;
         if (t == Tile.LOCKED_DOOR) return treatLockedDoorAsFloor; // optional mode
         return true; // FLOOR, STAIRS_DOWN, KEY etc.
     }
 
-    private int[] findNearestReachableTile(boolean[][] reachable, int tx, int ty) {
+    /** Nearest marked (reachable) tile as a packed index, or -1. */
+    static int findNearestReachableTile(GenWorkspace ws, int tx, int ty) {
         // Simple expanding ring search (fast enough for your sizes)
-        int w = reachable.length;
-        int h = reachable[0].length;
-
-        int maxR = Math.max(w, h);
+        int maxR = Math.max(ws.w(), ws.h());
 
         for (int r = 0; r <= maxR; r++) {
             for (int dx = -r; dx <= r; dx++) {
@@ -367,39 +542,36 @@ public final class DungeonGenerator {
                 int y1 = ty - r;
                 int y2 = ty + r;
 
-                if (inBoundsVis(reachable, x1, y1) && reachable[x1][y1]) return new int[]{x1, y1};
-                if (inBoundsVis(reachable, x1, y2) && reachable[x1][y2]) return new int[]{x1, y2};
+                if (ws.isMarked(x1, y1)) return ws.pack(x1, y1);
+                if (ws.isMarked(x1, y2)) return ws.pack(x1, y2);
             }
             for (int dy = -r + 1; dy <= r - 1; dy++) {
                 int y1 = ty + dy;
                 int x1 = tx - r;
                 int x2 = tx + r;
 
-                if (inBoundsVis(reachable, x1, y1) && reachable[x1][y1]) return new int[]{x1, y1};
-                if (inBoundsVis(reachable, x2, y1) && reachable[x2][y1]) return new int[]{x2, y1};
+                if (ws.isMarked(x1, y1)) return ws.pack(x1, y1);
+                if (ws.isMarked(x2, y1)) return ws.pack(x2, y1);
             }
         }
 
-        return null;
-    }
-
-    private boolean inBoundsVis(boolean[][] a, int x, int y) {
-        return x >= 0 && y >= 0 && x < a.length && y < a[0].length;
+        return -1;
     }
 
-    private int[] findAnyNearbyPassable(Dungeon d, int sx, int sy, boolean treatLockedDoorAsFloor) {
+    /** Packed index of a passable tile near (sx, sy), or -1. */
+    private static int findAnyNearbyPassable(Dungeon d, int sx, int sy, boolean treatLockedDoorAsFloor) {
         for (int r = 0; r <= 6; r++) {
             for (int x = sx - r; x <= sx + r; x++) {
                 for (int y = sy - r; y <= sy + r; y++) {
                     if (!d.inBounds(x, y)) continue;
-                    if (isPassableForConnectivity(d, x, y, treatLockedDoorAsFloor)) return new int[]{x, y};
+                    if (isPassableForConnectivity(d, x, y, treatLockedDoorAsFloor)) return x + y * d.w();
                 }
             }
         }
-        return null;
+        return -1;
     }
 
-    private boolean tryDoorAt(Dungeon d, Rect room, int x, int y) {
+    private static boolean tryDoorAt(Dungeon d, Rect room, int x, int y) {
         if (d.tile(x, y) != Tile.FLOOR) return false;
         if (d.isStairsDown(x, y)) return false;
         if (connectsOutsideRoomToFloor(d, room, x, y)) {
@@ -409,9 +581,8 @@ public final class DungeonGenerator {
         return false;
     }
 
-    private boolean connectsOutsideRoomToFloor(Dungeon d, Rect room, int x, int y) {
-        int[][] dirs = { {1,0}, {-1,0}, {0,1}, {0,-1} };
-        for (int[] dir : dirs) {
+    private static boolean connectsOutsideRoomToFloor(Dungeon d, Rect room, int x, int y) {
+        for (int[] dir : DIRS) {
             int nx = x + dir[0];
             int ny = y + dir[1];
 
@@ -426,17 +597,11 @@ public final class DungeonGenerator {
         return false;
     }
 
-    private void placeSingleLockedEntranceForStairsRoom(Dungeon d, Rect stairsRoom, int fromX, int fromY) {
-        java.util.ArrayList<int[]> candidates = new java.util.ArrayList<>();
+    private static void placeSingleLockedEntranceForStairsRoom(Dungeon d, GenWorkspace ws, Rect stairsRoom, int fromX, int fromY) {
+        ws.resetMarks(d.w(), d.h());
+        IntList candidates = ws.cells;
 
-        for (int x = stairsRoom.x; x <= stairsRoom.x2(); x++) {
-            collectIfConnects(d, stairsRoom, x, stairsRoom.y,  candidates);
-            collectIfConnects(d, stairsRoom, x, stairsRoom.y2(), candidates);
-        }
-        for (int y = stairsRoom.y; y <= stairsRoom.y2(); y++) {
-            collectIfConnects(d, stairsRoom, stairsRoom.x,  y, candidates);
-            collectIfConnects(d, stairsRoom, stairsRoom.x2(), y, candidates);
-        }
+        collectRoomEntrances(d, stairsRoom, ws, candidates);
 
         if (candidates.isEmpty()) return;
 
@@ -444,22 +609,23 @@ public final class DungeonGenerator {
         int bestDist = Integer.MAX_VALUE;
 
         for (int i = 0; i < candidates.size(); i++) {
-            int[] p = candidates.get(i);
-            int dist = Math.abs(p[0] - fromX) + Math.abs(p[1] - fromY);
+            int p = candidates.get(i);
+            int dist = Math.abs(ws.unpackX(p) - fromX) + Math.abs(ws.unpackY(p) - fromY);
             if (dist < bestDist) {
                 bestDist = dist;
                 bestIdx = i;
             }
         }
 
-        int[] entrance = candidates.get(bestIdx);
-        int ex = entrance[0], ey = entrance[1];
+        int entrance = candidates.get(bestIdx);
+        int ex = ws.unpackX(entrance), ey = ws.unpackY(entrance);
 
         for (int i = 0; i < candidates.size(); i++) {
             if (i == bestIdx) continue;
-            int[] p = candidates.get(i);
-            if (d.isStairsDown(p[0], p[1])) continue;
-            d.setTile(p[0], p[1], Tile.WALL);
+            int p = candidates.get(i);
+            int px = ws.unpackX(p), py = ws.unpackY(p);
+            if (d.isStairsDown(px, py)) continue;
+            d.setTile(px, py, Tile.WALL);
         }
 
         if (!d.isStairsDown(ex, ey) && d.tile(ex, ey) == Tile.FLOOR) {
@@ -467,12 +633,12 @@ public final class DungeonGenerator {
         }
     }
 
-    private void collectIfConnects(Dungeon d, Rect room, int x, int y, java.util.List<int[]> out) {
+    private static void collectIfConnects(Dungeon d, Rect room, int x, int y, GenWorkspace ws, IntList out) {
         if (d.tile(x, y) != Tile.FLOOR) return;
         if (d.isStairsDown(x, y)) return;
 
         if (connectsOutsideRoomToFloor(d, room, x, y)) {
-            out.add(new int[]{x, y});
+            out.add(ws.pack(x, y));
         }
     }
 
@@ -0,0 +1,94 @@
+package org.example.world;
+
+import org.example.game.util.IntQueue;
+
+/**
+ * Structural checks for a freshly generated floor (before Game stamps stairs-up / chests).
+ * Mirrors the promises Game relies on: one stairs down, a walkable start, every possible
+ * key spot reachable from the start, and the locked door being the only way to the stairs.
+ */
+public final class DungeonInvariants {
+    private DungeonInvariants() {}
+
+    private static final int[][] DIRS = { {1,0}, {-1,0}, {0,1}, {0,-1} };
+
+    /** Returns null if the floor is fine, otherwise a short description of the first broken rule. */
+    public static String check(Dungeon d) {
+        GenWorkspace ws = GenWorkspace.get();
+        int w = d.w(), h = d.h();
+
+        // 1) exactly one stairs-down
+        int stairs = 0, stairsX = -1, stairsY = -1;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                if (d.tile(x, y) == Tile.STAIRS_DOWN) {
+                    stairs++;
+                    stairsX = x;
+                    stairsY = y;
+                }
+            }
+        }
+        if (stairs != 1) return "stairs-down count is " + stairs;
+
+        // 2) start is walkable
+        int[] start = d.getStart();
+        int sx = start[0], sy = start[1];
+        if (!d.isWalkable(sx, sy)) return "start " + sx + "," + sy + " is not walkable (" + d.tile(sx, sy) + ")";
+
+        // 3) start reaches every tile the key chest may spawn on (locked doors closed)
+        flood(d, ws, sx, sy, false);
+        int keySpots = 0;
+        for (Rect r : d.rooms()) {
+            for (int y = r.y; y <= r.y2(); y++) {
+                for (int x = r.x; x <= r.x2(); x++) {
+                    if (d.tile(x, y) != Tile.FLOOR) continue;
+                    if (d.isInsideStairsRoom(x, y)) continue;
+                    if (!ws.isMarked(x, y)) return "key spot " + x + "," + y + " unreachable from start";
+                    keySpots++;
+                }
+            }
+        }
+        if (keySpots == 0) return "no key spot outside the stairs room";
+        if (ws.isMarked(stairsX, stairsY)) return "stairs reachable without passing a locked door";
+
+        // 4) the key side reaches a locked door
+        boolean doorReachable = false;
+        for (int y = 0; y < h && !doorReachable; y++) {
+            for (int x = 0; x < w && !doorReachable; x++) {
+                if (d.tile(x, y) != Tile.LOCKED_DOOR) continue;
+                for (int[] dir : DIRS) {
+                    if (ws.isMarked(x + dir[0], y + dir[1])) { doorReachable = true; break; }
+                }
+            }
+        }
+        if (!doorReachable) return "no locked door reachable from start";
+
+        // 5) through the door(s) we reach the stairs
+        flood(d, ws, sx, sy, true);
+        if (!ws.isMarked(stairsX, stairsY)) return "stairs unreachable even with doors unlocked";
+
+        return null;
+    }
+
+    private static void flood(Dungeon d, GenWorkspace ws, int sx, int sy, boolean lockedAsFloor) {
+        ws.resetMarks(d.w(), d.h());
+        IntQueue q = ws.queue;
+        q.clear();
+        ws.mark(sx, sy);
+        q.add(ws.pack(sx, sy));
+
+        while (!q.isEmpty()) {
+            int cur = q.poll();
+            int x = ws.unpackX(cur), y = ws.unpackY(cur);
+            for (int[] dir : DIRS) {
+                int nx = x + dir[0], ny = y + dir[1];
+                if (!d.inBounds(nx, ny) || ws.isMarked(nx, ny)) continue;
+                Tile t = d.tile(nx, ny);
+                if (t == Tile.WALL) continue;
+                if (t == Tile.LOCKED_DOOR && !lockedAsFloor) continue;
+                ws.mark(nx, ny);
+                q.add(ws.pack(nx, ny));
+            }
+        }
+    }
+}
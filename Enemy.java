@@ -5,144 +5,36 @@ import org.example.game.util.RNG;
 
 public final class Enemy extends Actor {
 
+    /** Built-in looks (battle sprite, map glyph colour). Archetypes themselves are data, see EnemyDefs. */
     public enum Type { GOBLIN, SKELETON, CULTIST, SLIME, ZOMBIE }
     private static final int ENEMY_BASE_ACC = 85; // generic baseline for enemy moves
     private final int xpValue;
-    public final Type type;
-
-    private Enemy(Type type, String name, int x, int y, int maxHp, int atkMin, int atkMax, int xpValue,
-                  int speed, int intelligence, int will) {
-        super(name, x, y, maxHp, 0, atkMin, atkMax, speed, intelligence, will);
-        this.type = type;
-        this.xpValue = xpValue;
+    public final EnemyDef def;
+    public final Type type; // def.sprite
+
+    private Enemy(EnemyDef def, int x, int y, int floor) {
+        super(def.name, x, y, def.stat(floor, EnemyDef.HP), 0,
+                def.stat(floor, EnemyDef.ATK_MIN), def.stat(floor, EnemyDef.ATK_MAX),
+                def.stat(floor, EnemyDef.SPEED), def.stat(floor, EnemyDef.INT), def.stat(floor, EnemyDef.WILL));
+        this.def = def;
+        this.type = def.sprite;
+        this.xpValue = def.stat(floor, EnemyDef.XP);
     }
 
     // ----------------------------
-    // SPAWNING (weighted by floor)
+    // SPAWNING (weighted by floor, weights and stats from EnemyDefs)
     // ----------------------------
     public static Enemy spawnForFloor(int x, int y, int floor, RNG rng) {
-
-        // Weights increase as floor rises
-        // (You can tune these numbers freely.)
-        int wGoblin  = Math.max(10, 40 - floor * 3);          // fades out slowly
-        int wSlime   = Math.min(35,  5 + floor * 2);          // ramps early
-        int wZombie  = (floor >= 3) ? Math.min(30, floor * 2) : 0;
-        int wSkeleton= (floor >= 4) ? Math.min(35, 5 + floor * 2) : 0;
-        int wCultist = (floor >= 6) ? Math.min(40, (floor - 5) * 4) : 0;
-
-        int total = wGoblin + wSlime + wZombie + wSkeleton + wCultist;
-        int r = rng.nextInt(total);
-
-        Type t;
-        if ((r -= wGoblin) < 0) t = Type.GOBLIN;
-        else if ((r -= wSlime) < 0) t = Type.SLIME;
-        else if ((r -= wZombie) < 0) t = Type.ZOMBIE;
-        else if ((r -= wSkeleton) < 0) t = Type.SKELETON;
-        else t = Type.CULTIST;
-
-        return build(t, x, y, floor, rng);
+        return new Enemy(EnemyDefs.pick(floor, rng), x, y, floor);
     }
 
-    // ----------------------------
-    // STAT BUILD PER TYPE
-    // ----------------------------
-    private static Enemy build(Type t, int x, int y, int floor, RNG rng) {
-
-        int tier = Math.max(1, (floor + 1) / 2); // floors 1-2 => 1, 3-4 => 2, ...
-        int baseHp = 7 + Math.min(14, tier * 2);
-        int baseA1 = 2 + Math.min(4, floor / 2);
-        int baseA2 = 4 + Math.min(5, floor / 2);
-
-        // defaults (will be overwritten)
-        int hp = baseHp;
-        int a1 = baseA1;
-        int a2 = baseA2;
-        int xp = 3 + tier; // baseline XP; tune freely
-        String name;
-
-        int spd = 8, intel = 6, wil = 6;
-
-        int floorBoost = Math.min(6, floor / 2); // 0..6
-
-        switch (t) {
-            case SLIME -> {
-                name = "Slime";
-                hp = baseHp + 2 + tier;          // tanky-ish
-                a1 = Math.max(1, baseA1 - 1);
-                a2 = Math.max(a1, baseA2 - 1);
-                xp = 3 + tier;
-
-                spd = 6 + floorBoost;
-                intel = 4 + floorBoost / 2;
-                wil = 10 + floorBoost;
-            }
-            case ZOMBIE -> {
-                name = "Zombie";
-                hp = baseHp + 4 + tier;
-                a1 = baseA1;
-                a2 = baseA2;
-                xp = 4 + tier;
-
-                spd = 5 + floorBoost;
-                intel = 4 + floorBoost / 2;
-                wil = 12 + floorBoost;
-            }
-            case SKELETON -> {
-                name = "Skeleton";
-                hp = baseHp;
-                a1 = baseA1 + 1;
-                a2 = baseA2 + 1;
-                xp = 5 + tier;
-
-                spd = 9 + floorBoost;
-                intel = 6 + floorBoost / 2;
-                wil = 8 + floorBoost / 2;
-            }
-            case CULTIST -> {
-                name = "Cultist";
-                hp = baseHp - 1;
-                a1 = baseA1;
-                a2 = baseA2;
-                xp = 6 + tier;
-
-                spd = 8 + floorBoost;
-                intel = 12 + floorBoost;
-                wil = 9 + floorBoost / 2;
-            }
-            case GOBLIN -> {
-                name = "Goblin";
-                hp = baseHp;
-                a1 = baseA1;
-                a2 = baseA2;
-                xp = 4 + tier;
-
-                spd = 10 + floorBoost;
-                intel = 6 + floorBoost / 2;
-                wil = 7 + floorBoost / 2;
-            }
-            default -> {
-                name = "Foe";
-            }
-        }
-
-        // final sanity (prevents weird negatives if you tune offsets later)
-        hp = Math.max(1, hp);
-        a1 = Math.max(1, a1);
-        a2 = Math.max(a1, a2);
-        xp = Math.max(1, xp);
-
-        return new Enemy(t, name, x, y, hp, a1, a2, xp, spd, intel, wil);
+    /** A given archetype with the stats it would spawn with on this floor. */
+    public static Enemy spawnOfType(EnemyDef def, int x, int y, int floor) {
+        return new Enemy(def, x, y, floor);
     }
 
-    public int goldDrop() {
-        // 2-5 gold based on type
-        return switch (type) {
-            case GOBLIN -> 2 + (int)(Math.random() * 4); // 2-5
-            case SKELETON -> 3 + (int)(Math.random() * 3); // 3-5
-            case SLIME -> 2 + (int)(Math.random() * 3); // 2-4
-            case ZOMBIE -> 3 + (int)(Math.random() * 3); // 3-5
-            case CULTIST -> 4 + (int)(Math.random() * 2); // 4-5
-        };
+    public int goldDrop(RNG rng) {
+        return rng.range(def.goldMin, def.goldMax);
     }
 
     public int rollDamage(RNG rng) {
@@ -155,12 +47,8 @@ public final class Enemy extends Actor {
         return rng.nextInt(100) < finalAcc;
     }
 
-    private String missLine(String moveName) {
-        return name + " uses " + moveName + "... MISS!";
-    }
-
     private void trigEnemyAttack(Battle battle) {
-        battle.enemyAtkFrames = 10;
+        battle.startEnemyAttack(10);
     }
 
     private void trigPlayerHit(Battle battle) {
@@ -173,61 +61,84 @@ public final class Enemy extends Actor {
 
     // ----------------------------
     // BATTLE MOVESET
-    // returns log string; applies damage/heal/flags itself
+    // resolveBattleMove() applies damage/flags and returns an outcome code (no strings, used headless too);
+    // the log line is built from it by EventLog only when shown
     // ----------------------------
-    public String performBattleMove(RNG rng, Player player, Battle battle) {
+    public static final int MOVE_PARRIED = 0;
+    public static final int MOVE_DODGED = 1;
+    public static final int MOVE_MISSED = 2;
+    public static final int MOVE_SLOWED = 3;
+    public static final int MOVE_RESISTED = 4;
+    public static final int MOVE_HIT = 5;
+
+    public static final int PLAYER_BASE_DODGE_PCT = 12;
+    public static final int SLOW_ACC_PENALTY_PCT = 30;
+    public static final int SLOW_DODGE_PENALTY_PCT = 20;
+
+    /** One move of a battle moveset; a set's chances add up to 100. */
+    public static final class BattleMove {
+        public final String name;
+        public final int chancePct;
+        public final int accuracy;
+        public final int dmgBonus;  // added to the damage roll (result at least 1)
+        public final int slowTurns; // > 0: a curse that slows instead of dealing damage
+
+        BattleMove(String name, int chancePct, int accuracy, int dmgBonus, int slowTurns) {
+            this.name = name;
+            this.chancePct = chancePct;
+            this.accuracy = accuracy;
+            this.dmgBonus = dmgBonus;
+            this.slowTurns = slowTurns;
+        }
+    }
+
+    public static BattleMove[] battleMoves(EnemyDef def) {
+        return def.moves;
+    }
+
+    /** Turns of slow a landed curse gives. */
+    public int slowDuration(BattleMove move) {
+        return move.slowTurns + intelligence() / 10; // tiny scaling
+    }
+
+    private String lastMoveName = "";
+    private int lastMoveDamage = 0;
+
+    /** Name of the last move used. */
+    public String lastMoveName() {
+        return lastMoveName;
+    }
+
+    /** Damage dealt by the last move that hit. */
+    public int lastMoveDamage() {
+        return lastMoveDamage;
+    }
+
+    // Single-move sets take no draw; otherwise one draw over the cumulative chances
+    private BattleMove pickMove(RNG rng) {
+        BattleMove[] moves = def.moves;
+        if (moves.length == 1) return moves[0];
+        int r = rng.nextInt(100);
+        for (int i = 0; i < moves.length - 1; i++) {
+            if ((r -= moves[i].chancePct) < 0) return moves[i];
+        }
+        return moves[moves.length - 1];
+    }
+
+    public int resolveBattleMove(RNG rng, Player player, Battle battle) {
+        lastMoveDamage = 0;
 
         // ✅ NEW: Check if player is parrying
         if (battle.parryActive) {
             battle.parryActive = false;
-            return "The " + name + " attacks... but you parry it perfectly!";
+            return MOVE_PARRIED;
         }
-        // Decide move per type
-        String moveName;
-        int acc;
-        boolean appliesSlow = false;
-        int slowTurns = 0;
-
+        // Decide move
         int dmg = rollDamage(rng);
 
-        switch (type) {
-            case GOBLIN -> {
-                // Mostly reliable
-                moveName = rng.nextInt(100) < 70 ? "Slash" : "Lunge";
-                acc = (moveName.equals("Slash")) ? 88 : 80;
-            }
-            case SLIME -> {
-                moveName = rng.nextInt(100) < 60 ? "Slam" : "Splash";
-                acc = (moveName.equals("Slam")) ? 82 : 90;
-                dmg = Math.max(1, dmg - 1);
-            }
-            case ZOMBIE -> {
-                moveName = "Claw";
-                acc = 84;
-            }
-            case SKELETON -> {
-                moveName = rng.nextInt(100) < 50 ? "Thrust" : "Skewer";
-                acc = (moveName.equals("Thrust")) ? 86 : 76;
-                dmg += (moveName.equals("Skewer")) ? 2 : 0;
-            }
-            case CULTIST -> {
-                if (rng.nextInt(100) < 35) {
-                    moveName = "Ice Curse";
-                    acc = 78;
-                    appliesSlow = true;
-                    slowTurns = 3;
-                    dmg = 0;
-                } else {
-                    moveName = "Hex Bolt";
-                    acc = 82;
-                    dmg = Math.max(1, dmg - 1);
-                }
-            }
-            default -> { // fallback (shouldn't happen)
-                moveName = "Slash";
-                acc = 85;
-            }
-        }
+        BattleMove move = pickMove(rng);
+        dmg = Math.max(1, dmg + move.dmgBonus);
+        lastMoveName = move.name;
 
         // Attacker animation
         trigEnemyAttack(battle);
@@ -237,12 +148,12 @@ public final class Enemy extends Actor {
 
         if (Battle.rollDodge(
                 rng,
-                12,
+                PLAYER_BASE_DODGE_PCT,
                 this.speed(),      // attacker speed
                 player.speed(),    // defender speed
                 dodgePen
         )) {
-            return name + " uses " + moveName + "... but you DODGE!";
+            return MOVE_DODGED;
         }
 
         // 2) Miss check (enemy moves can miss)
@@ -250,24 +161,23 @@ public final class Enemy extends Actor {
 
         if (!Battle.rollPhysicalHit(
                 rng,
-                acc,
+                move.accuracy,
                 this.speed(),
                 player.speed(),
                 accPen
         )) {
-            return missLine(moveName);
+            return MOVE_MISSED;
         }
 
         // 3) Apply effect / damage
-        if (appliesSlow) {
+        if (move.slowTurns > 0) {
             boolean resisted = Battle.rollStatusResist(rng, this.intelligence(), player.will());
 
             if (!resisted) {
-                int dur = slowTurns + (this.intelligence() / 10); // tiny scaling
-                battle.applyPlayerSlow(dur, 30, 20);
-                return name + " casts " + moveName + "! You are SLOWED!";
+                battle.applyPlayerSlow(slowDuration(move), SLOW_ACC_PENALTY_PCT, SLOW_DODGE_PENALTY_PCT);
+                return MOVE_SLOWED;
             } else {
-                return name + " casts " + moveName + "... but you resist the curse!";
+                return MOVE_RESISTED;
             }
         }
 
@@ -275,6 +185,7 @@ public final class Enemy extends Actor {
         trigPlayerHit(battle);
 
         player.hp = Math.max(0, player.hp - dmg);
-        return name + " uses " + moveName + " and hits for " + dmg + "!";
+        lastMoveDamage = dmg;
+        return MOVE_HIT;
     }
-}
\ No newline at end of file
+}
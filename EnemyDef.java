@@ -0,0 +1,114 @@
+package org.example.entity;
+
+import java.util.Map;
+
+/**
+ * One enemy archetype as loaded by EnemyDefs: name, look, moveset, gold, spawn weight and per-floor scaling.
+ * Stats for every floor below EnemyDefs.TABLE_FLOORS are computed once here, so building an enemy is a
+ * row lookup.
+ */
+public final class EnemyDef {
+    // Columns of a per-floor stat block
+    public static final int HP = 0, ATK_MIN = 1, ATK_MAX = 2, XP = 3, SPEED = 4, INT = 5, WILL = 6;
+    private static final int STAT_COUNT = 7;
+
+    public final int id; // index in EnemyDefs
+    public final String key;
+    public final String name;
+    public final Enemy.Type sprite; // built-in look this archetype borrows
+    public final Enemy.BattleMove[] moves;
+    public final int goldMin, goldMax;
+
+    // Scaling knobs (see EnemyDefs for the formulas)
+    private final int hp, hpPerTier, atkMin, atkMax, xp;
+    private final int speed, speedBoost, intel, intBoost, will, willBoost;
+    private final int spawnFrom, spawnBase, spawnPerFloor, spawnMin, spawnMax;
+
+    private final int[] blocks; // STAT_COUNT ints per floor
+
+    EnemyDef(int id, String key, Map<String, String> f, Enemy.BattleMove[] moves) {
+        this.id = id;
+        this.key = key;
+        this.name = f.getOrDefault("name", key);
+        this.sprite = Enemy.Type.valueOf(f.getOrDefault("sprite", "GOBLIN").toUpperCase());
+        this.moves = moves;
+
+        int[] gold = range(f.getOrDefault("gold", "2-5"));
+        goldMin = gold[0];
+        goldMax = Math.max(gold[0], gold[1]);
+
+        hp = num(f, "hp", 0);
+        hpPerTier = num(f, "hpPerTier", 0);
+        atkMin = num(f, "atkMin", 0);
+        atkMax = num(f, "atkMax", 0);
+        xp = num(f, "xp", 4);
+        speed = num(f, "speed", 8);
+        speedBoost = num(f, "speedBoost", 2);
+        intel = num(f, "int", 6);
+        intBoost = num(f, "intBoost", 1);
+        will = num(f, "will", 6);
+        willBoost = num(f, "willBoost", 1);
+
+        spawnFrom = num(f, "spawnFrom", 1);
+        spawnBase = num(f, "spawnBase", 0);
+        spawnPerFloor = num(f, "spawnPerFloor", 0);
+        spawnMin = num(f, "spawnMin", 0);
+        spawnMax = num(f, "spawnMax", Integer.MAX_VALUE);
+
+        blocks = new int[EnemyDefs.TABLE_FLOORS * STAT_COUNT];
+        for (int floor = 0; floor < EnemyDefs.TABLE_FLOORS; floor++) computeBlock(floor, blocks, floor * STAT_COUNT);
+    }
+
+    /** One stat (HP, ATK_MIN, ...) of this archetype on a floor. */
+    public int stat(int floor, int which) {
+        if (floor >= 0 && floor < EnemyDefs.TABLE_FLOORS) return blocks[floor * STAT_COUNT + which];
+        int[] b = new int[STAT_COUNT]; // deeper than the table: rare, just compute it
+        computeBlock(floor, b, 0);
+        return b[which];
+    }
+
+    public int spawnWeight(int floor) {
+        if (floor < spawnFrom) return 0;
+        long w = spawnBase + (long) spawnPerFloor * floor;
+        return (int) Math.max(spawnMin, Math.min(spawnMax, w));
+    }
+
+    private void computeBlock(int floor, int[] out, int o) {
+        int tier = Math.max(1, (floor + 1) / 2); // floors 1-2 => 1, 3-4 => 2, ...
+        int baseHp = 7 + Math.min(14, tier * 2);
+        int baseA1 = 2 + Math.min(4, floor / 2);
+        int baseA2 = 4 + Math.min(5, floor / 2);
+        int floorBoost = Math.min(6, floor / 2); // 0..6
+
+        // final sanity (prevents weird negatives from odd data)
+        int a1 = Math.max(1, baseA1 + atkMin);
+        out[o + HP] = Math.max(1, baseHp + hp + hpPerTier * tier);
+        out[o + ATK_MIN] = a1;
+        out[o + ATK_MAX] = Math.max(a1, baseA2 + atkMax);
+        out[o + XP] = Math.max(1, xp + tier);
+        out[o + SPEED] = speed + floorBoost * speedBoost / 2;
+        out[o + INT] = intel + floorBoost * intBoost / 2;
+        out[o + WILL] = will + floorBoost * willBoost / 2;
+    }
+
+    private int num(Map<String, String> f, String k, int def) {
+        String v = f.get(k);
+        if (v == null) return def;
+        try {
+            return Integer.parseInt(v.startsWith("+") ? v.substring(1) : v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("enemy '" + key + "': " + k + " = " + v + " is not a number");
+        }
+    }
+
+    private int[] range(String v) {
+        String[] parts = v.split("-");
+        try {
+            int lo = Integer.parseInt(parts[0].trim());
+            int hi = (parts.length > 1) ? Integer.parseInt(parts[1].trim()) : lo;
+            return new int[] { lo, hi };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("enemy '" + key + "': bad range " + v);
+        }
+    }
+}
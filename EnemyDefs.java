@@ -0,0 +1,258 @@
+package org.example.entity;
+
+import org.example.game.util.RNG;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The enemy archetypes, loaded once at startup into id-indexed tables.
+ *
+ * Definitions come from the file named by the "enemies.file" system property, else the classpath resource
+ * /data/enemies.txt, else the built-in DEFAULTS below (which also document the format). So a designer can
+ * add or tune enemies without recompiling; a new archetype borrows one of the built-in sprites.
+ *
+ * Spawn weights are cumulated per floor up front, so a spawn is one rng draw and a short scan.
+ */
+public final class EnemyDefs {
+    public static final int TABLE_FLOORS = 64; // floors with precomputed stats and spawn tables
+
+    private static final String FILE_PROPERTY = "enemies.file";
+    private static final String RESOURCE = "/data/enemies.txt";
+
+    static final String DEFAULTS = """
+            # Enemy archetypes. Order matters: it is the spawn roll order, so reordering changes seeded runs.
+            #
+            # On floor f, with tier = max(1, (f+1)/2) and boost = min(6, f/2):
+            #   hp    = 7 + min(14, 2*tier) + hp + hpPerTier*tier
+            #   atk   = 2 + min(4, f/2) + atkMin  ..  4 + min(5, f/2) + atkMax
+            #   xp    = xp + tier
+            #   speed = speed + boost*speedBoost/2     (int and will the same way)
+            # spawn weight (0 below spawnFrom) = clamp(spawnBase + spawnPerFloor*f, spawnMin, spawnMax)
+            # move = name, chance %, accuracy %, damage bonus [, slow turns]   (chances add up to 100)
+
+            [goblin]
+            name = Goblin
+            sprite = GOBLIN
+            xp = 4
+            speed = 10
+            int = 6
+            will = 7
+            gold = 2-5
+            spawnBase = 40
+            spawnPerFloor = -3
+            spawnMin = 10
+            move = Slash, 70, 88, 0
+            move = Lunge, 30, 80, 0
+
+            [slime]
+            name = Slime
+            sprite = SLIME
+            hp = 2
+            hpPerTier = 1
+            atkMin = -1
+            atkMax = -1
+            xp = 3
+            speed = 6
+            int = 4
+            will = 10
+            willBoost = 2
+            gold = 2-4
+            spawnBase = 5
+            spawnPerFloor = 2
+            spawnMax = 35
+            move = Slam, 60, 82, -1
+            move = Splash, 40, 90, -1
+
+            [zombie]
+            name = Zombie
+            sprite = ZOMBIE
+            hp = 4
+            hpPerTier = 1
+            xp = 4
+            speed = 5
+            int = 4
+            will = 12
+            willBoost = 2
+            gold = 3-5
+            spawnFrom = 3
+            spawnPerFloor = 2
+            spawnMax = 30
+            move = Claw, 100, 84, 0
+
+            [skeleton]
+            name = Skeleton
+            sprite = SKELETON
+            atkMin = 1
+            atkMax = 1
+            xp = 5
+            speed = 9
+            int = 6
+            will = 8
+            gold = 3-5
+            spawnFrom = 4
+            spawnBase = 5
+            spawnPerFloor = 2
+            spawnMax = 35
+            move = Thrust, 50, 86, 0
+            move = Skewer, 50, 76, 2
+
+            [cultist]
+            name = Cultist
+            sprite = CULTIST
+            hp = -1
+            xp = 6
+            speed = 8
+            int = 12
+            intBoost = 2
+            will = 9
+            gold = 4-5
+            spawnFrom = 6
+            spawnBase = -20
+            spawnPerFloor = 4
+            spawnMax = 40
+            move = Ice Curse, 35, 78, 0, 3
+            move = Hex Bolt, 65, 82, -1
+            """;
+
+    private static final EnemyDef[] DEFS = parse(loadText());
+    private static final int[] SPAWN_CUM = buildSpawnTable(); // TABLE_FLOORS rows of DEFS.length running totals
+
+    private EnemyDefs() {}
+
+    public static int count() {
+        return DEFS.length;
+    }
+
+    public static EnemyDef get(int id) {
+        return DEFS[id];
+    }
+
+    /** The archetype with this [key], or null. */
+    public static EnemyDef byKey(String key) {
+        for (EnemyDef d : DEFS) if (d.key.equals(key)) return d;
+        return null;
+    }
+
+    /** Weighted pick for a floor: one rng draw. */
+    public static EnemyDef pick(int floor, RNG rng) {
+        int n = DEFS.length;
+        if (floor >= 0 && floor < TABLE_FLOORS) {
+            int row = floor * n;
+            int total = SPAWN_CUM[row + n - 1];
+            if (total <= 0) return DEFS[0];
+            int r = rng.nextInt(total);
+            for (int i = 0; i < n - 1; i++) if (r < SPAWN_CUM[row + i]) return DEFS[i];
+            return DEFS[n - 1];
+        }
+
+        int total = 0;
+        for (EnemyDef d : DEFS) total += d.spawnWeight(floor);
+        if (total <= 0) return DEFS[0];
+        int r = rng.nextInt(total);
+        for (EnemyDef d : DEFS) if ((r -= d.spawnWeight(floor)) < 0) return d;
+        return DEFS[n - 1];
+    }
+
+    private static int[] buildSpawnTable() {
+        int n = DEFS.length;
+        int[] cum = new int[TABLE_FLOORS * n];
+        for (int floor = 0; floor < TABLE_FLOORS; floor++) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += DEFS[i].spawnWeight(floor);
+                cum[floor * n + i] = sum;
+            }
+        }
+        return cum;
+    }
+
+    private static String loadText() {
+        String file = System.getProperty(FILE_PROPERTY);
+        try {
+            if (file != null) return Files.readString(Path.of(file), StandardCharsets.UTF_8);
+            try (InputStream in = EnemyDefs.class.getResourceAsStream(RESOURCE)) {
+                if (in != null) return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read enemy definitions: " + e.getMessage(), e);
+        }
+        return DEFAULTS;
+    }
+
+    /** Parses the definition text; errors name the offending line. */
+    static EnemyDef[] parse(String text) {
+        List<EnemyDef> out = new ArrayList<>();
+        String key = null;
+        Map<String, String> fields = new HashMap<>();
+        List<Enemy.BattleMove> moves = new ArrayList<>();
+        int moveLine = 0; // line of the section's last move, for the chance check
+
+        String[] lines = text.split("\n");
+        for (int ln = 0; ln < lines.length; ln++) {
+            String line = lines[ln].strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            if (line.startsWith("[") && line.endsWith("]")) {
+                if (key != null) out.add(finish(out.size(), key, fields, moves, moveLine));
+                key = line.substring(1, line.length() - 1).strip();
+                fields = new HashMap<>();
+                moves = new ArrayList<>();
+                continue;
+            }
+
+            int eq = line.indexOf('=');
+            if (key == null || eq < 0) {
+                throw new IllegalArgumentException("enemies line " + (ln + 1) + ": expected [name] or key = value");
+            }
+            String k = line.substring(0, eq).strip();
+            String v = line.substring(eq + 1).strip();
+            if (k.equals("move")) {
+                moves.add(parseMove(v, ln + 1));
+                moveLine = ln + 1;
+            } else fields.put(k, v);
+        }
+        if (key != null) out.add(finish(out.size(), key, fields, moves, moveLine));
+
+        if (out.isEmpty()) throw new IllegalArgumentException("enemies: no definitions");
+        return out.toArray(new EnemyDef[0]);
+    }
+
+    private static EnemyDef finish(int id, String key, Map<String, String> fields, List<Enemy.BattleMove> moves,
+                                   int moveLine) {
+        if (moves.isEmpty()) throw new IllegalArgumentException("enemy '" + key + "' has no moves");
+        // Enemy.pickMove hands the last move whatever is left, so any other total silently skews the odds
+        int sum = 0;
+        for (Enemy.BattleMove m : moves) sum += m.chancePct;
+        if (sum != 100) {
+            throw new IllegalArgumentException("enemies line " + moveLine + ": move chances of '" + key
+                    + "' add up to " + sum + ", not 100");
+        }
+        return new EnemyDef(id, key, fields, moves.toArray(new Enemy.BattleMove[0]));
+    }
+
+    private static Enemy.BattleMove parseMove(String v, int lineNo) {
+        String[] p = v.split(",");
+        if (p.length < 4 || p.length > 5) {
+            throw new IllegalArgumentException("enemies line " + lineNo + ": move = name, chance, accuracy, dmgBonus[, slowTurns]");
+        }
+        try {
+            int slow = (p.length == 5) ? Integer.parseInt(p[4].strip()) : 0;
+            int chance = Integer.parseInt(p[1].strip());
+            if (chance < 0 || chance > 100) {
+                throw new IllegalArgumentException("enemies line " + lineNo + ": move chance " + chance + " is not 0..100");
+            }
+            return new Enemy.BattleMove(p[0].strip(), chance,
+                    Integer.parseInt(p[2].strip()), Integer.parseInt(p[3].strip()), slow);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("enemies line " + lineNo + ": bad number in move " + v);
+        }
+    }
+}
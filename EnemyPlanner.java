@@ -0,0 +1,116 @@
+package org.example.game;
+
+import org.example.game.util.IntList;
+import org.example.game.util.RNG;
+import org.example.world.DistanceField;
+import org.example.world.Dungeon;
+import org.example.world.NoiseMap;
+
+import java.util.stream.IntStream;
+
+/**
+ * Decide phase of an enemy turn: picks an action for every near enemy without changing anything.
+ *
+ * Each decision only reads the turn-start state (store positions, player, noise and distance fields) and draws from
+ * its own RNG stream (turn seed + enemy handle), so decisions can run on any number of threads and still
+ * come out bit-identical. Game then resolves them one by one in near() order.
+ */
+public final class EnemyPlanner {
+    public static final int STAY = -1;   // 0..3 = step in DistanceField direction
+    public static final int ATTACK = 4;
+
+    private static final int PARALLEL_MIN = 256; // below this the fork/join overhead isn't worth it
+
+    private int[] action = new int[64];
+    private byte[] state = new byte[64];
+
+    // Inputs of the running plan; read-only while deciding
+    private Dungeon map;
+    private EnemyStore store;
+    private EnemyScheduler scheduler;
+    private IntList near;
+    private DistanceField chase, flee;
+    private NoiseMap noise;
+    private int px, py;
+    private long turnSeed;
+    private final DistanceField.StepFilter free = this::isFree;
+
+    /** Fill action(i) / state(i) for every handle in near; flee may be null if nobody near is wounded. */
+    public void plan(Dungeon d, EnemyStore enemies, EnemyScheduler sched, IntList nearHandles, NoiseMap noiseMap,
+                     DistanceField chaseField, DistanceField fleeField, int playerX, int playerY, long seed) {
+        map = d;
+        store = enemies;
+        scheduler = sched;
+        near = nearHandles;
+        noise = noiseMap;
+        chase = chaseField;
+        flee = fleeField;
+        px = playerX;
+        py = playerY;
+        turnSeed = seed;
+
+        int n = near.size();
+        if (action.length < n) {
+            action = new int[Math.max(n, action.length << 1)];
+            state = new byte[action.length];
+        }
+
+        if (n >= PARALLEL_MIN) IntStream.range(0, n).parallel().forEach(this::decide);
+        else for (int i = 0; i < n; i++) decide(i);
+    }
+
+    public int action(int i) { return action[i]; }
+    public byte state(int i) { return state[i]; }
+
+    /** Mark action i as carried out (resolve phase). */
+    public void settle(int i) { action[i] = STAY; }
+
+    private void decide(int i) {
+        int handle = near.get(i);
+        int s = store.slot(handle);
+        int ex = store.x(s), ey = store.y(s), hp = store.hp(s);
+        action[i] = STAY;
+        state[i] = EnemyStore.STATE_WANDER;
+        if (hp <= 0) return;
+
+        // Only enemies that hear or smell the player react to it; close ones then use the exact chase map
+        boolean aware = noise.isAware(ex, ey);
+        boolean inRange = aware && chase.isReached(ex, ey);
+
+        // Badly hurt: run; cornered ones fight back below
+        if (inRange && flee != null && hp * 100 <= store.maxHp(s) * GameConfig.ENEMY_FLEE_HP_PCT) {
+            state[i] = EnemyStore.STATE_FLEE;
+            int dir = flee.bestStep(ex, ey, free);
+            if (dir >= 0) {
+                action[i] = dir;
+                return;
+            }
+        } else if (aware) {
+            state[i] = EnemyStore.STATE_CHASE;
+        }
+
+        if (Math.abs(px - ex) + Math.abs(py - ey) == 1) {
+            action[i] = ATTACK;
+            return;
+        }
+
+        if (inRange) {
+            action[i] = chase.bestStep(ex, ey, free);
+            return;
+        }
+        if (aware) {
+            // further out: toward the louder noise, or along the fresher scent
+            action[i] = noise.bestStep(ex, ey, free);
+            return;
+        }
+
+        // wander: one of four directions, or stand still (1 in 5)
+        int r = RNG.streamInt(turnSeed, handle, 5);
+        if (r < 4 && isFree(ex + DistanceField.dx(r), ey + DistanceField.dy(r))) action[i] = r;
+    }
+
+    // Against turn-start positions; the resolve phase re-checks against the live ones
+    private boolean isFree(int x, int y) {
+        return map.isWalkable(x, y) && (x != px || y != py) && scheduler.slotAt(x, y) < 0;
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.game;
+
+import org.example.game.util.IntList;
+import org.example.game.util.RNG;
+import org.example.world.Dungeon;
+
+/**
+ * Level-of-detail scheduling for the enemies on the current floor.
+ *
+ * Enemies (EnemyStore handles) are bucketed into 16x16 tile cells. Each turn the cells around the player are
+ * "near" and their enemies get the full AI in Game. The remaining cells are split into ENEMY_FAR_BATCHES
+ * round-robin batches; one batch per turn gets a coarse wander covering every turn it missed. An enemy that
+ * ends up near (it drifted in, or the player walked up) is caught up first, so nothing shows up in view
+ * with stale state.
+ *
+ * Turn cost is the near enemies plus a cheap step for a slice of the far ones, not full AI for the floor.
+ */
+public final class EnemyScheduler {
+    private static final int CELL_SHIFT = 4;
+    private static final int CATCHUP_MAX_STEPS = 8; // a long absence is still a short walk
+
+    private Dungeon map;
+    private EnemyStore store;
+    private int indexedVersion;
+    private int cw, ch;
+    private IntList[] cells;
+
+    private int turn = 0;
+    private final IntList near = new IntList(64);
+    private final IntList scratch = new IntList(64);
+    private int playerX, playerY;
+
+    /** Drop the index; the next beginTurn() rebuilds it from the store. */
+    public void invalidate() {
+        map = null;
+    }
+
+    /**
+     * Start an enemy turn: catch up enemies around (px, py), advance one far batch, and collect the
+     * near enemies (see near()). Re-indexes when the floor changed or enemies were added / removed.
+     */
+    public void beginTurn(Dungeon d, EnemyStore enemies, int px, int py, RNG rng) {
+        sync(d, enemies);
+        turn++;
+        playerX = px;
+        playerY = py;
+
+        int r = GameConfig.ENEMY_SIM_RADIUS;
+        int cx0 = Math.max(0, (px - r) >> CELL_SHIFT), cx1 = Math.min(cw - 1, (px + r) >> CELL_SHIFT);
+        int cy0 = Math.max(0, (py - r) >> CELL_SHIFT), cy1 = Math.min(ch - 1, (py + r) >> CELL_SHIFT);
+
+        // Far batch first: its enemies may wander into the window and then get their full turn below
+        int batch = turn % GameConfig.ENEMY_FAR_BATCHES;
+        for (int c = batch; c < cells.length; c += GameConfig.ENEMY_FAR_BATCHES) {
+            int cx = c % cw, cy = c / cw;
+            if (cx >= cx0 && cx <= cx1 && cy >= cy0 && cy <= cy1) continue;
+            if (cells[c].isEmpty()) continue;
+
+            scratch.clear();
+            for (int i = 0; i < cells[c].size(); i++) scratch.add(cells[c].get(i)); // wandering moves enemies between cells
+            for (int i = 0; i < scratch.size(); i++) {
+                int s = store.slot(scratch.get(i));
+                catchUp(s, turn - store.lastSimTurn(s), rng);
+                store.setLastSimTurn(s, turn);
+            }
+        }
+
+        near.clear();
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                IntList cell = cells[cx + cy * cw];
+                for (int i = 0; i < cell.size(); i++) near.add(cell.get(i));
+            }
+        }
+        for (int i = 0; i < near.size(); i++) {
+            // Full AI runs for this turn; coarse-walk the ones before it
+            int s = store.slot(near.get(i));
+            catchUp(s, turn - 1 - store.lastSimTurn(s), rng);
+            store.setLastSimTurn(s, turn);
+        }
+    }
+
+    /** Handles of the enemies that get full AI this turn (valid until the next beginTurn). */
+    public IntList near() {
+        return near;
+    }
+
+    /** Move the enemy in slot s to (nx, ny), keeping the cell index in sync. */
+    public void move(int s, int nx, int ny) {
+        int from = cellOf(store.x(s), store.y(s)), to = cellOf(nx, ny);
+        store.setPos(s, nx, ny);
+        if (from != to) {
+            IntList cell = cells[from];
+            int handle = store.handle(s);
+            for (int i = 0; i < cell.size(); i++) {
+                if (cell.get(i) == handle) {
+                    cell.swapRemove(i);
+                    break;
+                }
+            }
+            cells[to].add(handle);
+        }
+    }
+
+    /**
+     * Slot of the living enemy on (x, y), or -1, for callers outside the enemy turn (player moves, placing
+     * items): re-indexes first if the floor changed or enemies were added / removed since the last turn.
+     */
+    public int slotAt(Dungeon d, EnemyStore enemies, int x, int y) {
+        sync(d, enemies);
+        return slotAt(x, y);
+    }
+
+    /** Handles of the enemies in the cells covering the tile box [x0, x1] x [y0, y1] into out (a superset of the box). */
+    public void collectAround(Dungeon d, EnemyStore enemies, int x0, int y0, int x1, int y1, IntList out) {
+        sync(d, enemies);
+        out.clear();
+        int cx0 = Math.max(0, x0 >> CELL_SHIFT), cx1 = Math.min(cw - 1, x1 >> CELL_SHIFT);
+        int cy0 = Math.max(0, y0 >> CELL_SHIFT), cy1 = Math.min(ch - 1, y1 >> CELL_SHIFT);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                IntList cell = cells[cx + cy * cw];
+                for (int i = 0; i < cell.size(); i++) out.add(cell.get(i));
+            }
+        }
+    }
+
+    /** Slot of the living enemy on (x, y), or -1, looking only at that tile's cell. */
+    public int slotAt(int x, int y) {
+        if (!map.inBounds(x, y)) return -1;
+        IntList cell = cells[cellOf(x, y)];
+        for (int i = 0; i < cell.size(); i++) {
+            int s = store.slot(cell.get(i));
+            if (store.x(s) == x && store.y(s) == y && store.hp(s) > 0) return s;
+        }
+        return -1;
+    }
+
+    private void sync(Dungeon d, EnemyStore enemies) {
+        if (d != map || enemies != store || enemies.version() != indexedVersion) rebuild(d, enemies);
+    }
+
+    private void rebuild(Dungeon d, EnemyStore enemies) {
+        map = d;
+        store = enemies;
+        indexedVersion = enemies.version();
+
+        cw = (d.w() + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        ch = (d.h() + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        if (cells == null || cells.length != cw * ch) {
+            cells = new IntList[cw * ch];
+            for (int i = 0; i < cells.length; i++) cells[i] = new IntList(4);
+        } else {
+            for (IntList c : cells) c.clear();
+        }
+
+        for (int s = 0; s < enemies.size(); s++) {
+            int x = enemies.x(s), y = enemies.y(s);
+            if (enemies.hp(s) <= 0 || !d.inBounds(x, y)) continue;
+            // Just added (new floor, reload): nothing to catch up. Others keep what they owe.
+            if (enemies.lastSimTurn(s) == 0) enemies.setLastSimTurn(s, turn);
+            cells[cellOf(x, y)].add(enemies.handle(s));
+        }
+    }
+
+    /*
+     * Coarse stand-in for `turns` wander turns: a random walk that far ends up ~sqrt(4/5 * turns) tiles away,
+     * so take one straight run of about that length in a random direction instead of every step.
+     */
+    private void catchUp(int s, int turns, RNG rng) {
+        if (turns <= 0) return;
+        int dist = Math.min(CATCHUP_MAX_STEPS, (int) Math.round(Math.sqrt(turns * 0.8)));
+
+        int dir = rng.nextInt(4);
+        int dx = (dir == 0) ? -1 : (dir == 1) ? 1 : 0;
+        int dy = (dir == 2) ? -1 : (dir == 3) ? 1 : 0;
+        for (int i = 0; i < dist; i++) {
+            int nx = store.x(s) + dx, ny = store.y(s) + dy;
+            if (!canStep(nx, ny)) break;
+            move(s, nx, ny);
+        }
+    }
+
+    private boolean canStep(int x, int y) {
+        return map.isWalkable(x, y) && (x != playerX || y != playerY) && slotAt(x, y) < 0;
+    }
+
+    private int cellOf(int x, int y) {
+        return (x >> CELL_SHIFT) + (y >> CELL_SHIFT) * cw;
+    }
+}
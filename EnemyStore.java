@@ -0,0 +1,170 @@
+package org.example.game;
+
+import org.example.entity.Enemy;
+import org.example.game.util.IntList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enemies of the current floor, struct-of-arrays: the fields the turn loop touches (position, hp, type,
+ * speed, AI state) live in parallel primitive arrays indexed by a dense slot, so a turn is a few passes
+ * over ints instead of a walk over scattered objects.
+ *
+ * Slots move on removal (the last enemy is swapped into the hole); handles don't, so the scheduler and
+ * battle code hold handles. The Enemy object is kept alongside for the cold data (name, attacks, battle
+ * moves) and is only brought up to date by enemy(slot), i.e. when a battle or floor save needs it.
+ * While on the floor the arrays are authoritative for x, y and hp.
+ */
+public final class EnemyStore {
+    public static final byte STATE_WANDER = 0;
+    public static final byte STATE_CHASE = 1;
+    public static final byte STATE_FLEE = 2;
+
+    private static final Enemy.Type[] TYPES = Enemy.Type.values();
+
+    private int size = 0;
+    private int version = 0;
+
+    // By slot
+    private int[] x = new int[16];
+    private int[] y = new int[16];
+    private int[] hp = new int[16];
+    private int[] maxHp = new int[16];
+    private int[] speed = new int[16];
+    private int[] lastSimTurn = new int[16];
+    private byte[] type = new byte[16];
+    private byte[] state = new byte[16];
+    private int[] handleOf = new int[16];
+    private Enemy[] objects = new Enemy[16];
+
+    // By handle (-1 = free)
+    private int[] slotOf = new int[16];
+    private int handleCount = 0;
+    private final IntList freeHandles = new IntList(16);
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    /** Bumped on add / remove / clear; anything indexing slots or handles rebuilds when it changes. */
+    public int version() { return version; }
+
+    /** Adds e (its current x, y, hp) and returns its handle. */
+    public int add(Enemy e) {
+        if (size == x.length) grow();
+
+        int handle;
+        if (!freeHandles.isEmpty()) {
+            handle = freeHandles.swapRemove(freeHandles.size() - 1);
+        } else {
+            if (handleCount == slotOf.length) slotOf = java.util.Arrays.copyOf(slotOf, handleCount << 1);
+            handle = handleCount++;
+        }
+
+        int s = size++;
+        x[s] = e.x;
+        y[s] = e.y;
+        hp[s] = e.hp;
+        maxHp[s] = e.maxHp;
+        speed[s] = e.speed();
+        lastSimTurn[s] = 0;
+        type[s] = (byte) e.type.ordinal();
+        state[s] = STATE_WANDER;
+        objects[s] = e;
+        handleOf[s] = handle;
+        slotOf[handle] = s;
+        version++;
+        return handle;
+    }
+
+    /** Swap-remove: the last slot moves into the removed one (its handle stays valid). */
+    public void remove(int handle) {
+        int s = slotOf[handle];
+        int last = --size;
+        if (s != last) {
+            x[s] = x[last];
+            y[s] = y[last];
+            hp[s] = hp[last];
+            maxHp[s] = maxHp[last];
+            speed[s] = speed[last];
+            lastSimTurn[s] = lastSimTurn[last];
+            type[s] = type[last];
+            state[s] = state[last];
+            objects[s] = objects[last];
+            handleOf[s] = handleOf[last];
+            slotOf[handleOf[s]] = s;
+        }
+        objects[last] = null;
+        slotOf[handle] = -1;
+        freeHandles.add(handle);
+        version++;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(objects, 0, size, null);
+        size = 0;
+        handleCount = 0;
+        freeHandles.clear();
+        version++;
+    }
+
+    public int slot(int handle) { return slotOf[handle]; }
+    public int handle(int slot) { return handleOf[slot]; }
+
+    public int x(int slot) { return x[slot]; }
+    public int y(int slot) { return y[slot]; }
+    public int hp(int slot) { return hp[slot]; }
+    public int maxHp(int slot) { return maxHp[slot]; }
+    public int speed(int slot) { return speed[slot]; }
+    public Enemy.Type type(int slot) { return TYPES[type[slot]]; }
+    public byte state(int slot) { return state[slot]; }
+    public int lastSimTurn(int slot) { return lastSimTurn[slot]; }
+
+    public void setPos(int slot, int nx, int ny) {
+        x[slot] = nx;
+        y[slot] = ny;
+    }
+
+    public void setState(int slot, byte s) { state[slot] = s; }
+    public void setLastSimTurn(int slot, int turn) { lastSimTurn[slot] = turn; }
+
+    /** Name, damage rolls and battle moves still come from the object; x/y/hp there may be stale. */
+    public Enemy object(int slot) {
+        return objects[slot];
+    }
+
+    /** The Enemy with x, y and hp copied in from the arrays (battle, floor save). */
+    public Enemy enemy(int slot) {
+        Enemy e = objects[slot];
+        e.x = x[slot];
+        e.y = y[slot];
+        e.hp = hp[slot];
+        return e;
+    }
+
+    /** Copy hp back from the object after a battle changed it. */
+    public void pullHp(int slot) {
+        hp[slot] = objects[slot].hp;
+    }
+
+    /** Fresh list of up-to-date Enemy objects (for floor caching). */
+    public List<Enemy> toList() {
+        List<Enemy> out = new ArrayList<>(size);
+        for (int s = 0; s < size; s++) out.add(enemy(s));
+        return out;
+    }
+
+    private void grow() {
+        int n = x.length << 1;
+        x = java.util.Arrays.copyOf(x, n);
+        y = java.util.Arrays.copyOf(y, n);
+        hp = java.util.Arrays.copyOf(hp, n);
+        maxHp = java.util.Arrays.copyOf(maxHp, n);
+        speed = java.util.Arrays.copyOf(speed, n);
+        lastSimTurn = java.util.Arrays.copyOf(lastSimTurn, n);
+        type = java.util.Arrays.copyOf(type, n);
+        state = java.util.Arrays.copyOf(state, n);
+        handleOf = java.util.Arrays.copyOf(handleOf, n);
+        objects = java.util.Arrays.copyOf(objects, n);
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.game;
+
+import org.example.entity.Enemy;
+
+/**
+ * Ring buffer of typed game events: what happened (kind), who did it (actor), with what (what) and the
+ * numbers involved (a, b). Recording an event stores references and ints only; the text is built by
+ * text(seq) when a line is actually shown, so simulations and fast turns don't churn strings.
+ *
+ * Events are addressed by sequence number; once CAPACITY newer events are in, old ones are overwritten
+ * (text() then returns null).
+ */
+public final class EventLog {
+    public enum Kind {
+        TEXT,                 // what: the whole line
+        CHALLENGE,            // actor challenges you
+        FOE_MOVE,             // actor uses what; b: Enemy.MOVE_* outcome, a: damage
+        FOE_FROZEN,
+        FOE_DEFEATED,
+        FOE_HITS_YOU,         // dungeon attack, a: damage
+        MOVE_GUARD,           // Parry
+        MOVE_DODGED,          // player move what, dodged by actor
+        MOVE_MISSED,          // b: 1 = off-balance
+        MOVE_BLOCKED,
+        MOVE_HIT,             // a: damage, b: 1 = crit
+        SPELL_DODGED,         // spells: what = spell name, a: damage, b: MP cost (0 = not shown)
+        SPELL_MISSED,
+        SPELL_HIT,
+        SPELL_HIT_THROUGH_GUARD,
+        SPELL_BLOCKED,
+        SPELL_SLOWS,
+        SPELL_SLOW_RESISTED,
+        SPELL_FREEZES,
+        SPELL_FREEZE_RESISTED,
+        FIRE_SWORD,           // b: cost
+        HEAL,                 // a: hp, b: cost
+        HP_POTION,            // a: hp
+        MP_POTION,            // a: mp
+        REWARD                // a: exp, b: gold
+    }
+
+    public static final int CAPACITY = 256; // power of two
+    private static final int MASK = CAPACITY - 1;
+
+    private final Kind[] kind = new Kind[CAPACITY];
+    private final String[] actor = new String[CAPACITY];
+    private final String[] what = new String[CAPACITY];
+    private final int[] a = new int[CAPACITY];
+    private final int[] b = new int[CAPACITY];
+    private long next = 0; // sequence number of the next event
+
+    /** Record an event; returns its sequence number. */
+    public long add(Kind k, String actorOf, String whatOf, int aOf, int bOf) {
+        int i = (int) (next & MASK);
+        kind[i] = k;
+        actor[i] = actorOf;
+        what[i] = whatOf;
+        a[i] = aOf;
+        b[i] = bOf;
+        return next++;
+    }
+
+    public long text(String line) {
+        return add(Kind.TEXT, null, line, 0, 0);
+    }
+
+    /** Sequence number the next event will get (so the newest is next() - 1). */
+    public long next() {
+        return next;
+    }
+
+    /** Oldest sequence number still held. */
+    public long oldest() {
+        return Math.max(0, next - CAPACITY);
+    }
+
+    public boolean holds(long seq) {
+        return seq >= oldest() && seq < next;
+    }
+
+    // Raw fields, for analytics over the stream
+    public Kind kind(long seq) { return holds(seq) ? kind[(int) (seq & MASK)] : null; }
+    public String actor(long seq) { return holds(seq) ? actor[(int) (seq & MASK)] : null; }
+    public String what(long seq) { return holds(seq) ? what[(int) (seq & MASK)] : null; }
+    public int a(long seq) { return holds(seq) ? a[(int) (seq & MASK)] : 0; }
+    public int b(long seq) { return holds(seq) ? b[(int) (seq & MASK)] : 0; }
+
+    /** The event as a log line, or null if it has been overwritten. */
+    public String text(long seq) {
+        if (!holds(seq)) return null;
+        int i = (int) (seq & MASK);
+        return format(kind[i], actor[i], what[i], a[i], b[i]);
+    }
+
+    private static String format(Kind k, String actor, String what, int a, int b) {
+        return switch (k) {
+            case TEXT -> what;
+            case CHALLENGE -> "A " + actor + " challenges you!";
+            case FOE_MOVE -> switch (b) {
+                case Enemy.MOVE_PARRIED -> "The " + actor + " attacks... but you parry it perfectly!";
+                case Enemy.MOVE_DODGED -> actor + " uses " + what + "... but you DODGE!";
+                case Enemy.MOVE_MISSED -> actor + " uses " + what + "... MISS!";
+                case Enemy.MOVE_SLOWED -> actor + " casts " + what + "! You are SLOWED!";
+                case Enemy.MOVE_RESISTED -> actor + " casts " + what + "... but you resist the curse!";
+                default -> actor + " uses " + what + " and hits for " + a + "!";
+            };
+            case FOE_FROZEN -> "The " + actor + " is frozen and can't move!";
+            case FOE_DEFEATED -> "The " + actor + " was defeated!";
+            case FOE_HITS_YOU -> actor + " hits you for " + a + ".";
+            case MOVE_GUARD -> "You ready your guard!";
+            case MOVE_DODGED -> "The " + actor + " dodges your " + what + "!";
+            case MOVE_MISSED -> (b != 0) ? what + " missed! You're off-balance and lose your next turn!"
+                    : what + " missed!";
+            case MOVE_BLOCKED -> "The " + actor + " blocks your " + what + "! (reduced damage)";
+            case MOVE_HIT -> what + " hits for " + a + "!" + ((b != 0) ? " CRITICAL HIT!" : "");
+            case SPELL_DODGED -> what + "... but the " + actor + " dodges!" + cost(b);
+            case SPELL_MISSED -> what + "... MISS!" + cost(b);
+            case SPELL_HIT -> what + " hits for " + a + "!" + cost(b);
+            case SPELL_HIT_THROUGH_GUARD -> what + " hits through guard! (" + a + ")" + cost(b);
+            case SPELL_BLOCKED -> what + " hits, but the foe blocks! (" + a + ")" + cost(b);
+            case SPELL_SLOWS -> what + " hits for " + a + " and slows the foe!" + cost(b);
+            case SPELL_SLOW_RESISTED -> what + " hits for " + a + " but the foe resists the slow!" + cost(b);
+            case SPELL_FREEZES -> what + " hits for " + a + "! The foe is frozen solid!" + cost(b);
+            case SPELL_FREEZE_RESISTED -> what + " hits for " + a + ", but the foe resists being frozen!" + cost(b);
+            case FIRE_SWORD -> "Fire Sword! Your blade ignites for the rest of the battle." + cost(b);
+            case HEAL -> "Heal restores +" + a + " HP." + cost(b);
+            case HP_POTION -> "You drink an HP Potion. +" + a + " HP.";
+            case MP_POTION -> "You drink an MP Potion. +" + a + " MP.";
+            case REWARD -> "You gained " + a + " EXP and " + b + " gold.";
+        };
+    }
+
+    private static String cost(int mp) {
+        return (mp > 0) ? "  (-" + mp + " MP)" : "";
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.game;
+
+import org.example.entity.Chest;
+import org.example.entity.Enemy;
+import org.example.game.util.RNG;
+import org.example.world.Dungeon;
+
+import java.util.List;
+
+/**
+ * Catch-up for cached dungeon floors. Nothing runs while a floor sits in the cache; when the player comes
+ * back it is advanced once by the number of turns it was away:
+ *  - regeneration in closed form (1 hp per REGEN_TURNS_PER_HP),
+ *  - wandering as one coarse straight run per enemy (a random walk of n turns ends ~sqrt(n) away),
+ *  - one respawn per RESPAWN_TURNS, up to the floor's original population, out of sight of the arrival tile.
+ *
+ * Cost is per enemy on that floor, once per visit, whatever the time away.
+ */
+final class FloorSimulator {
+    static final int REGEN_TURNS_PER_HP = 10;
+    static final int RESPAWN_TURNS = 150;
+    private static final int WANDER_MAX_STEPS = 24;
+
+    private FloorSimulator() {}
+
+    static void advance(Dungeon d, List<Enemy> enemies, List<Chest> chests, int floor, int population,
+                        long turns, int arriveX, int arriveY, RNG rng) {
+        if (turns <= 0) return;
+
+        int w = d.w();
+        boolean[] occupied = new boolean[w * d.h()];
+        for (Enemy e : enemies) {
+            if (d.inBounds(e.x, e.y)) occupied[e.x + e.y * w] = true;
+        }
+
+        int regen = (int) Math.min(Integer.MAX_VALUE, turns / REGEN_TURNS_PER_HP);
+        int dist = (int) Math.min(WANDER_MAX_STEPS, Math.round(Math.sqrt(turns * 0.8)));
+
+        for (Enemy e : enemies) {
+            e.hp = (int) Math.min(e.maxHp, (long) e.hp + regen);
+
+            int dir = rng.nextInt(4);
+            int dx = (dir == 0) ? -1 : (dir == 1) ? 1 : 0;
+            int dy = (dir == 2) ? -1 : (dir == 3) ? 1 : 0;
+            for (int i = 0; i < dist; i++) {
+                int nx = e.x + dx, ny = e.y + dy;
+                if (!d.isWalkable(nx, ny) || occupied[nx + ny * w] || (nx == arriveX && ny == arriveY)) break;
+                occupied[e.x + e.y * w] = false;
+                occupied[nx + ny * w] = true;
+                e.x = nx;
+                e.y = ny;
+            }
+        }
+
+        long respawns = Math.min(population - enemies.size(), turns / RESPAWN_TURNS);
+        for (int i = 0; i < respawns; i++) {
+            int[] p = d.findRandomRoomFloor(rng, true);
+            int far = Math.max(Math.abs(p[0] - arriveX), Math.abs(p[1] - arriveY));
+            if (far <= GameConfig.PLAYER_FOV_RADIUS || occupied[p[0] + p[1] * w] || isChestAt(chests, p[0], p[1])) {
+                continue; // skip this one rather than retry; a spot in view would be a visible pop-in
+            }
+            occupied[p[0] + p[1] * w] = true;
+            enemies.add(Enemy.spawnForFloor(p[0], p[1], floor, rng));
+        }
+    }
+
+    private static boolean isChestAt(List<Chest> chests, int x, int y) {
+        for (Chest c : chests) {
+            if (c.x == x && c.y == y) return true;
+        }
+        return false;
+    }
+}
@@ -3,17 +3,18 @@ package org.example.game;
 import org.example.item.GroundItem;
 import org.example.entity.Enemy;
 import org.example.entity.Player;
+import org.example.game.util.IntList;
 import org.example.game.util.RNG;
 import org.example.world.*;
 import org.example.entity.Chest;
 import org.example.item.ItemType;
 
 
-import java.awt.event.KeyEvent;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 public final class Game {
     public enum State {MAIN_MENU, DUNGEON, BATTLE, LEVEL_UP, INVENTORY, GAME_OVER, NPC_DIALOGUE}
@@ -23,6 +24,24 @@ public final class Game {
     private final TurnSystem turn = new TurnSystem();
     private final Fov fov = new Fov();
 
+    // Rebuilt from the player each enemy turn; enemies walk downhill (or uphill on the flee map)
+    private final DistanceField chaseField = new DistanceField();
+    private final DistanceField fleeField = new DistanceField();
+    private final NoiseMap noiseMap = new NoiseMap(); // what enemies hear / smell; decides who is aware
+    private int playerNoise = GameConfig.NOISE_STEP;  // loudness of the player's last action
+    private final EnemyScheduler enemyScheduler = new EnemyScheduler(); // full AI near the player only
+    private final EnemyPlanner enemyPlanner = new EnemyPlanner();
+    private final IntList enemyRound = new IntList(64);
+
+    // Auto-travel (G): route from the path finder, walked one step per TRAVEL_STEP_FRAMES
+    private static final int TRAVEL_STEP_FRAMES = 4;
+    private final PathFinder pathFinder = new PathFinder();
+    private final IntList travelPath = new IntList(64);
+    private final IntList inViewScratch = new IntList(16); // enemyInView candidates
+    private WorldMap travelMap = null;
+    private int travelIndex = 0;
+    private int travelTimer = 0;
+
     private final List<Chest> chests = new ArrayList<>();
 
     public List<Chest> chests() {
@@ -53,19 +72,25 @@ public final class Game {
         final List<Chest> chests;
         final List<GroundItem> groundItems;
         final boolean floorKeyObtained;
+        final int population;   // enemies the floor was generated with (respawn cap)
+        final long savedAtTurn; // worldTurn when the player left; the gap is simulated on return
 
         DungeonFloorState(
                 Dungeon dungeon,
                 List<Enemy> enemies,
                 List<Chest> chests,
                 List<GroundItem> groundItems,
-                boolean floorKeyObtained
+                boolean floorKeyObtained,
+                int population,
+                long savedAtTurn
         ) {
             this.dungeon = dungeon;
             this.enemies = enemies;
             this.chests = chests;
             this.groundItems = groundItems;
             this.floorKeyObtained = floorKeyObtained;
+            this.population = population;
+            this.savedAtTurn = savedAtTurn;
         }
     }
 
@@ -82,6 +107,8 @@ public final class Game {
     private int pendingDungeonSpawnX = 0, pendingDungeonSpawnY = 0;
 
     private final Map<Integer, DungeonFloorState> dungeonFloorCache = new HashMap<>();
+    private long worldTurn = 0;      // enemy phases so far this run (cached floors catch up by the difference)
+    private int floorPopulation = 0; // enemies the current floor was generated with
 
     // Remember where to return when leaving a building
     private int returnX = 0, returnY = 0;
@@ -147,9 +174,15 @@ public final class Game {
 
     private Dungeon dungeon;
     private Player player;
-    private final List<Enemy> enemies = new ArrayList<>();
+    private final EnemyStore enemies = new EnemyStore();
+
+    private String lastLog = "Find the stairs (>) and press Enter."; // null: format lastLogSeq when shown
+    private long lastLogSeq = -1;
 
-    private String lastLog = "Find the stairs (>) and press Enter.";
+    // Everything said in the dungeon and in battles, newest last (L shows it)
+    private final EventLog eventLog = new EventLog();
+    private boolean historyOpen = false;
+    private int historyScroll = 0; // lines up from the newest
 
     private String lastLogBeforeInventory = "";
 
@@ -200,10 +233,11 @@ public final class Game {
     // Battle-start transition
     private boolean battleStartPending = false;
     private Enemy battleStartFoe = null;
+    private int battleFoeHandle = -1; // EnemyStore handle of the enemy being fought
 
     // ---- Battle tuning ----
     private static final int PLAYER_BASE_DODGE_PCT = 12;
-    private static final int FOE_BASE_DODGE_PCT = 8;
+    static final int FOE_BASE_DODGE_PCT = 8;
     // ---- Battle message pacing (60fps) ----
     private static final int BATTLE_ENEMY_DELAY_FRAMES = 50;   // was 30 (~0.83s)
     private static final int BATTLE_ENEMY_MESSAGE_FRAMES = 75; // was 45 (~1.25s)
@@ -220,6 +254,11 @@ public final class Game {
     // Gate fade progression so it can't advance multiple steps before a repaint
     private boolean fadeAwaitingPresent = false;
 
+    // Replay: where new runs get their seed, and what gets recorded (see Replay)
+    private LongSupplier seedSource = System::currentTimeMillis;
+    private Replay.Recorder recorder;
+    private boolean replaying = false; // presents come from the replay, not the renderer
+
     private State state = State.DUNGEON;
 
     private Battle battle;
@@ -328,6 +367,7 @@ public final class Game {
         this.groundItems.clear();
         this.buildingInteriorCache.clear();
         this.dungeonFloorCache.clear();
+        this.worldTurn = 0;
 
         // Create player and put them in Town
         this.player = null;
@@ -345,6 +385,44 @@ public final class Game {
         turn.reset();
     }
 
+    /**
+     * Stress setup for HordeBench: a new run dropped onto a fresh w x h dungeon floor with enemyCount
+     * enemies. The player can't realistically die, so a run measures the turn loop and not the game over screen.
+     */
+    public void startStressFloor(long seed, int w, int h, int enemyCount) {
+        newRun(seed);
+
+        zone = Zone.DUNGEON;
+        floor = 1;
+        dungeon = new DungeonGenerator(rng).generate(GenParams.large(w, h));
+        pathFinder.prepare(dungeon); // big maps: start the path hierarchy build now, off this thread
+        enemies.clear();
+        chests.clear();
+        groundItems.clear();
+
+        int[] start = dungeon.getStart();
+        player.x = start[0];
+        player.y = start[1];
+        player.maxHp = Integer.MAX_VALUE / 4;
+        player.hp = player.maxHp;
+
+        boolean[] taken = new boolean[w * h];
+        taken[start[0] + start[1] * w] = true;
+        for (int placed = 0, tries = 0; placed < enemyCount && tries < enemyCount * 20; tries++) {
+            int[] p = dungeon.findRandomFloor(rng);
+            if (taken[p[0] + p[1] * w]) continue;
+            taken[p[0] + p[1] * w] = true;
+            enemies.add(Enemy.spawnForFloor(p[0], p[1], 1 + placed % 12, rng));
+            placed++;
+        }
+        floorPopulation = enemies.size();
+
+        state = State.DUNGEON;
+        battle = null;
+        recomputeFov();
+        turn.reset();
+    }
+
     public void goToMainMenu() {
         state = State.MAIN_MENU;
         battle = null;
@@ -428,7 +506,7 @@ public final class Game {
         floorKeyObtained = false;
 
         DungeonGenerator gen = new DungeonGenerator(rng);
-        this.dungeon = gen.generate(); // uses GameConfig.DUNGEON_W/H
+        this.dungeon = gen.generate(GenParams.forFloor(floor)); // per-floor room budget (every 4th floor a cave), GameConfig.DUNGEON_W/H
 
         // ✅ REMOVE EXIT DOOR ON FLOORS 2+
         removeDungeonExitDoorsIfNotFloor1();
@@ -464,6 +542,7 @@ public final class Game {
 
         // Place enemies
         int n = rng.range(GameConfig.START_ENEMIES_MIN, GameConfig.START_ENEMIES_MAX) + (floor - 1) / 2;
+        floorPopulation = n;
         for (int i = 0; i < n; i++) {
             int[] p = dungeon.findRandomRoomFloor(rng, true); // ✅ rooms only (can be in stairs room for normal loot if you want)
 
@@ -487,7 +566,7 @@ public final class Game {
                 p = dungeon.findRandomRoomFloor(rng, true);
 
                 if ((p[0] == player.x && p[1] == player.y) ||
-                        getEnemyAt(p[0], p[1]) != null ||
+                        isEnemyAt(p[0], p[1]) ||
                         getChestAt(p[0], p[1]) != null) continue;
 
                 break;
@@ -500,7 +579,7 @@ public final class Game {
             int[] p = dungeon.findRandomRoomFloor(rng, true);
 
             if ((p[0] == player.x && p[1] == player.y) ||
-                    getEnemyAt(p[0], p[1]) != null ||
+                    isEnemyAt(p[0], p[1]) ||
                     getChestAt(p[0], p[1]) != null) {
                 i--;
                 continue;
@@ -546,8 +625,8 @@ public final class Game {
         if (deathWipeActive) return; // freeze game during death transition
 
         // --- Global restart (R) with fade (works on ALL screens, including Main Menu) ---
-        if (!isFading() && input.wasTapped(KeyEvent.VK_R)) {
-            startNewGameFade(System.currentTimeMillis());
+        if (!isFading() && input.wasTapped(Action.RESTART)) {
+            startNewGameFade(newRunSeed());
             return;
         }
 
@@ -557,6 +636,19 @@ public final class Game {
             updateMainMenu(input);
             return;
         }
+        // Message history (L) over the dungeon or a battle; modal while open
+        if (state == State.DUNGEON || state == State.BATTLE) {
+            if (historyOpen) {
+                updateHistory(input);
+                return;
+            }
+            if (input.wasTapped(Action.LOG)) {
+                historyOpen = true;
+                historyScroll = 0;
+                return;
+            }
+        }
+
         if (state == State.INVENTORY) {
 
             // ✅ If the player spent a turn from inventory (ex: drank potion),
@@ -602,15 +694,26 @@ public final class Game {
         }
 
         // Player turn
+
+        // Auto-travel keeps walking until arrival; any key cancels it
+        if (isTraveling()) {
+            if (input.anyTapped()) {
+                stopTravel("Travel stopped.");
+            } else {
+                stepTravel();
+                return;
+            }
+        }
+
         int dx = 0, dy = 0;
 
         // Movement taps
-        if (input.wasTapped(KeyEvent.VK_LEFT) || input.wasTapped(KeyEvent.VK_A)) dx = -1;
-        else if (input.wasTapped(KeyEvent.VK_RIGHT) || input.wasTapped(KeyEvent.VK_D))
+        if (input.wasTapped(Action.LEFT)) dx = -1;
+        else if (input.wasTapped(Action.RIGHT))
             dx = 1;
-        else if (input.wasTapped(KeyEvent.VK_UP) || input.wasTapped(KeyEvent.VK_W))
+        else if (input.wasTapped(Action.UP))
             dy = -1;
-        else if (input.wasTapped(KeyEvent.VK_DOWN) || input.wasTapped(KeyEvent.VK_S))
+        else if (input.wasTapped(Action.DOWN))
             dy = 1;
 
         if (dx != 0 || dy != 0) {
@@ -623,16 +726,22 @@ public final class Game {
         }
 
         // Wait
-        if (input.wasTapped(KeyEvent.VK_SPACE)) {
+        if (input.wasTapped(Action.WAIT)) {
             setLog("You wait.", 1.5);
             turn.endPlayerTurn();
             recomputeFov();
             return;
         }
 
+        // Travel to the stairs (dungeon, once seen) or the crypt (town)
+        if (input.wasTapped(Action.TRAVEL)) {
+            startTravel();
+            return;
+        }
+
         // Open inventory
-        if (input.wasTapped(KeyEvent.VK_I)) {
-            lastLogBeforeInventory = lastLog;
+        if (input.wasTapped(Action.INVENTORY)) {
+            lastLogBeforeInventory = lastLog();
             state = State.INVENTORY;
             lastLog = "Inventory: ←/→ tabs   ↑/↓ select   ENTER use/equip/cast   ESC close";
             invPage = 0; // Items
@@ -646,7 +755,7 @@ public final class Game {
         }
 
         // Stairs
-        if (input.wasTapped(KeyEvent.VK_ENTER)) {
+        if (input.wasTapped(Action.INTERACT)) {
 
             WorldMap map = activeMap();
             if (map == null) return;
@@ -987,9 +1096,10 @@ public final class Game {
 
         // Only allow enemies/battles in DUNGEON for now
         if (zone == Zone.DUNGEON) {
-            Enemy e = getEnemyAt(nx, ny);
-            if (e != null) {
-                startBattle(e);
+            int s = enemyScheduler.slotAt(dungeon, enemies, nx, ny);
+            if (s >= 0) {
+                battleFoeHandle = enemies.handle(s);
+                startBattle(enemies.enemy(s));
                 return true;
             }
         }
@@ -1001,6 +1111,7 @@ public final class Game {
 
             if (player.useKey()) {
                 dungeon.setTile(nx, ny, Tile.FLOOR);
+                playerNoise = GameConfig.NOISE_LOUD;
                 setLog("You unlock the door. (Keys: " + player.keyCount() + ")", 2.5);
 
                 player.x = nx;
@@ -1014,7 +1125,7 @@ public final class Game {
         }
 
         // Normal move if passable
-        if (map.isWalkable(nx, ny) && (zone != Zone.DUNGEON || getEnemyAt(nx, ny) == null)) {
+        if (map.isWalkable(nx, ny) && (zone != Zone.DUNGEON || !isEnemyAt(nx, ny))) {
             player.x = nx;
             player.y = ny;
 
@@ -1094,53 +1205,183 @@ public final class Game {
     }
 
     private void enemyTurn() {
-        // Simple: each enemy moves 1 step toward player if in “awareness” range, else random wander.
-        for (Enemy e : new ArrayList<>(enemies)) {
-            if (e.hp <= 0) continue;
-
-            int dist = Math.abs(player.x - e.x) + Math.abs(player.y - e.y);
-
-            // Attack if adjacent
-            if (dist == 1) {
-                int dmg = e.rollDamage(rng);
-                player.hp -= dmg;
-                setLog(e.name + " hits you for " + dmg + ".", 2.5);
-                if (player.hp <= 0) {
-                    player.hp = 0;
-                    startDeathWipeToGameOver();
-                }
-                continue;
+        worldTurn++;
+        if (zone != Zone.DUNGEON || dungeon == null) return; // town and buildings have no enemies
+
+        // The player's action is heard (and its trail smelled) before anyone decides anything
+        noiseMap.beginTurn(dungeon, (int) worldTurn);
+        noiseMap.depositScent(player.x, player.y);
+        noiseMap.emit(player.x, player.y, playerNoise);
+        playerNoise = GameConfig.NOISE_STEP;
+
+        // One Dijkstra map from the player per turn; aware enemies in range just step downhill on it.
+        chaseField.build(dungeon, player.x, player.y, GameConfig.ENEMY_AWARE_RADIUS);
+
+        // Distant enemies get batched coarse updates in here; only the ones around the player run below
+        enemyScheduler.beginTurn(dungeon, enemies, player.x, player.y, rng);
+        IntList near = enemyScheduler.near();
+
+        // Flee map is only built if someone needs it
+        DistanceField flee = null;
+        for (int i = 0; i < near.size(); i++) {
+            int s = enemies.slot(near.get(i));
+            if (enemies.hp(s) > 0 && enemies.hp(s) * 100 <= enemies.maxHp(s) * GameConfig.ENEMY_FLEE_HP_PCT
+                    && chaseField.isReached(enemies.x(s), enemies.y(s))) {
+                fleeField.buildFlee(chaseField);
+                flee = fleeField;
+                break;
             }
+        }
 
-            int dx = 0, dy = 0;
+        // Near enemies are on the clock; faster ones may get several rounds before the player's next action
+        turn.setActive(near);
+        turn.beginEnemyPhase(player.speed());
+        while (turn.nextRound(enemyRound)) {
+            enemyRound(enemyRound, flee);
+            for (int i = 0; i < enemyRound.size(); i++) {
+                int h = enemyRound.get(i);
+                turn.actionDone(h, enemies.speed(enemies.slot(h)));
+            }
+        }
+    }
 
-            if (dist <= 8) {
-                // chase (Manhattan step)
-                if (player.x < e.x) dx = -1;
-                else if (player.x > e.x) dx = 1;
-                else if (player.y < e.y) dy = -1;
-                else if (player.y > e.y) dy = 1;
-            } else {
-                // wander
-                int r = rng.nextInt(5);
-                if (r == 0) dx = -1;
-                else if (r == 1) dx = 1;
-                else if (r == 2) dy = -1;
-                else if (r == 3) dy = 1;
-                // r == 4: stand still
+    // One action for each enemy in round: decide (possibly in parallel, nothing changes), then resolve in order
+    private void enemyRound(IntList round, DistanceField flee) {
+        enemyPlanner.plan(dungeon, enemies, enemyScheduler, round, noiseMap, chaseField, flee,
+                player.x, player.y, rng.nextLong());
+
+        for (int i = 0; i < round.size(); i++) {
+            int s = enemies.slot(round.get(i));
+            enemies.setState(s, enemyPlanner.state(i));
+            if (enemyPlanner.action(i) != EnemyPlanner.ATTACK) continue;
+
+            Enemy e = enemies.object(s); // cold data: name, damage range
+            int dmg = e.rollDamage(rng);
+            player.hp -= dmg;
+            setLog(EventLog.Kind.FOE_HITS_YOU, e.name, dmg, 0, 2.5);
+            if (player.hp <= 0) {
+                player.hp = 0;
+                startDeathWipeToGameOver();
             }
+        }
+
+        // Moves: a step blocked by someone who hasn't moved yet gets another try after them
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int i = 0; i < round.size(); i++) {
+                int dir = enemyPlanner.action(i);
+                if (dir < 0 || dir == EnemyPlanner.ATTACK) continue;
 
-            int nx = e.x + dx;
-            int ny = e.y + dy;
+                int s = enemies.slot(round.get(i));
+                int nx = enemies.x(s) + DistanceField.dx(dir);
+                int ny = enemies.y(s) + DistanceField.dy(dir);
 
-            // Don’t step onto player/enemy; only walkable tiles.
-            if (dungeon.isWalkable(nx, ny) && (nx != player.x || ny != player.y) && getEnemyAt(nx, ny) == null) {
-                e.x = nx;
-                e.y = ny;
+                // Don’t step onto player/enemy; only walkable tiles.
+                if (canEnemyStepTo(nx, ny)) {
+                    enemyScheduler.move(s, nx, ny);
+                    enemyPlanner.settle(i);
+                    progress = true;
+                }
             }
         }
     }
 
+    private void startTravel() {
+        WorldMap map = activeMap();
+        int[] target = travelTarget();
+        if (map == null || target == null) {
+            setLog("Nowhere to travel to.", 1.5);
+            return;
+        }
+        if (target[0] == player.x && target[1] == player.y) {
+            setLog("You're already there.", 1.5);
+            return;
+        }
+
+        // Jump points pay off on dungeon floors; the open town is faster with plain A*
+        pathFinder.setJumpPoints(zone == Zone.DUNGEON);
+        if (!pathFinder.findPath(map, player.x, player.y, target[0], target[1], travelPath)) {
+            stopTravel("You can't find a way there.");
+            return;
+        }
+
+        travelMap = map;
+        travelIndex = 0;
+        travelTimer = 0;
+        setLog("Travelling... (any key stops)", 1.5);
+    }
+
+    private int[] travelTarget() {
+        if (zone == Zone.DUNGEON && dungeon != null) {
+            int[] s = dungeon.getStairsDownPos();
+            return dungeon.wasSeenEver(s[0], s[1]) ? s : null;
+        }
+        if (zone == Zone.TOWN && town != null) {
+            int[] c = town.getCryptDoorPos();
+            return (c[0] >= 0) ? c : null;
+        }
+        return null;
+    }
+
+    private boolean isTraveling() {
+        return travelIndex < travelPath.size();
+    }
+
+    private void stepTravel() {
+        if (travelTimer > 0) {
+            travelTimer--;
+            return;
+        }
+        travelTimer = TRAVEL_STEP_FRAMES;
+
+        WorldMap map = activeMap();
+        if (map != travelMap) {
+            stopTravel(null);
+            return;
+        }
+        if (zone == Zone.DUNGEON && enemyInView()) {
+            stopTravel("You stop: an enemy is in sight.");
+            return;
+        }
+
+        int p = travelPath.get(travelIndex++);
+        int nx = p % map.w(), ny = p / map.w();
+        int dx = nx - player.x, dy = ny - player.y;
+
+        // Off the route (door stayed locked, someone in the way...): give up instead of bumping
+        if (Math.abs(dx) + Math.abs(dy) != 1 || !tryPlayerMoveOrAttack(dx, dy) || player.x != nx || player.y != ny) {
+            stopTravel(null);
+            return;
+        }
+
+        turn.endPlayerTurn();
+        recomputeFov();
+        if (!isTraveling()) stopTravel("You arrive.");
+    }
+
+    private void stopTravel(String msg) {
+        travelPath.clear();
+        travelIndex = 0;
+        travelMap = null;
+        if (msg != null) setLog(msg, 1.5);
+    }
+
+    // Only the cells around the FOV box can hold a visible enemy; a travel step shouldn't cost the whole floor
+    private boolean enemyInView() {
+        int r = GameConfig.PLAYER_FOV_RADIUS;
+        enemyScheduler.collectAround(dungeon, enemies, player.x - r, player.y - r, player.x + r, player.y + r, inViewScratch);
+        for (int i = 0; i < inViewScratch.size(); i++) {
+            int s = enemies.slot(inViewScratch.get(i));
+            if (enemies.hp(s) > 0 && fov.visible(enemies.x(s), enemies.y(s))) return true;
+        }
+        return false;
+    }
+
+    private boolean canEnemyStepTo(int x, int y) {
+        return dungeon.isWalkable(x, y) && (x != player.x || y != player.y) && enemyScheduler.slotAt(x, y) < 0;
+    }
+
     private void recomputeFov() {
         WorldMap map = activeMap();
         if (map == null || player == null) return;
@@ -1176,10 +1417,12 @@ public final class Game {
                 floor,
                 new DungeonFloorState(
                         dungeon,
-                        new ArrayList<>(enemies),
+                        enemies.toList(),
                         new ArrayList<>(chests),
                         new ArrayList<>(groundItems),
-                        floorKeyObtained
+                        floorKeyObtained,
+                        floorPopulation,
+                        worldTurn
                 )
         );
     }
@@ -1196,7 +1439,15 @@ public final class Game {
         chests.clear();
         groundItems.clear();
 
-        enemies.addAll(st.enemies);
+        // The floor kept living while we were away: regen, wander and respawns, computed now in one go
+        int[] arrive = hasPendingDungeonSpawn
+                ? new int[]{ pendingDungeonSpawnX, pendingDungeonSpawnY }
+                : st.dungeon.getStart();
+        FloorSimulator.advance(st.dungeon, st.enemies, st.chests, targetFloor, st.population,
+                worldTurn - st.savedAtTurn, arrive[0], arrive[1], rng);
+        floorPopulation = st.population;
+
+        for (Enemy e : st.enemies) enemies.add(e);
         chests.addAll(st.chests);
         groundItems.addAll(st.groundItems);
 
@@ -1215,7 +1466,7 @@ public final class Game {
             p = dungeon.findRandomRoomFloor(rng, true);
 
             if (p[0] == player.x && p[1] == player.y) continue;
-            if (getEnemyAt(p[0], p[1]) != null) continue;
+            if (isEnemyAt(p[0], p[1])) continue;
             if (getChestAt(p[0], p[1]) != null) continue;
             if (getGroundItemAt(p[0], p[1]) != null) continue;
 
@@ -1227,11 +1478,9 @@ public final class Game {
         setLog("WARNING: stairs missing; forced spawn. seed=" + seed + " floor=" + floor, 4.0);
     }
 
-    private Enemy getEnemyAt(int x, int y) {
-        for (Enemy e : enemies) {
-            if (e.x == x && e.y == y && e.hp > 0) return e;
-        }
-        return null;
+    // Through the scheduler's cell index: one 16x16 cell instead of every enemy on the floor
+    boolean isEnemyAt(int x, int y) {
+        return dungeon != null && enemyScheduler.slotAt(dungeon, enemies, x, y) >= 0;
     }
 
     private boolean isAnyKeyOnGround() {
@@ -1278,21 +1527,22 @@ public final class Game {
     }
 
     private void endBattleVictory() {
+        playerNoise = GameConfig.NOISE_LOUD; // the fight carries
         // Remove the defeated enemy from the dungeon
-        enemies.remove(battle.foe);
+        enemies.remove(battleFoeHandle);
 
         // Drop items (15% chance)
         maybeDropEnemyLoot(battle.foe.x, battle.foe.y);
 
         // Gold drop
-        int goldDropped = battle.foe.goldDrop();
+        int goldDropped = battle.foe.goldDrop(rng);
         player.earnGold(goldDropped);
 
         // EXP
         int gained = battle.foe.xpValue();
         player.gainExp(gained);
 
-        setLog("You gained " + gained + " EXP and " + goldDropped + " gold.", 2.5);
+        setLog(EventLog.Kind.REWARD, null, gained, goldDropped, 2.5);
 
         // Tear down battle first
         battle = null;
@@ -1355,6 +1605,7 @@ public final class Game {
     }
 
     private void endBattleRun() {
+        enemies.pullHp(enemies.slot(battleFoeHandle)); // it keeps its wounds
         setLog("You fled!", 2.5);
         battle = null;
         state = State.DUNGEON;
@@ -1373,7 +1624,7 @@ public final class Game {
                 int n = sellItems.size();
 
                 // Close sell menu
-                if (input.wasTapped(KeyEvent.VK_ESCAPE)) {
+                if (input.wasTapped(Action.CANCEL)) {
                     closeSellMenu();
                     return;
                 }
@@ -1384,12 +1635,10 @@ public final class Game {
                 }
 
                 // Navigate
-                if (input.wasTapped(KeyEvent.VK_UP) ||
-                        input.wasTapped(KeyEvent.VK_W)) {
+                if (input.wasTapped(Action.UP)) {
                     sellCursorIndex--;
                     if (sellCursorIndex < 0) sellCursorIndex = 0;
-                } else if (input.wasTapped(KeyEvent.VK_DOWN) ||
-                        input.wasTapped(KeyEvent.VK_S)) {
+                } else if (input.wasTapped(Action.DOWN)) {
                     sellCursorIndex++;
                     if (sellCursorIndex >= n) sellCursorIndex = n - 1;
                 }
@@ -1403,8 +1652,7 @@ public final class Game {
                 }
 
                 // Sell item (ENTER)
-                if (input.wasTapped(KeyEvent.VK_ENTER) ||
-                        input.wasTapped(KeyEvent.VK_SPACE)) {
+                if (input.wasTapped(Action.CONFIRM)) {
 
                     ItemType item = sellItems.get(sellCursorIndex);
                     int sellPrice = getItemSellPrice(item);
@@ -1432,7 +1680,7 @@ public final class Game {
             }
 
             // Close shop
-            if (input.wasTapped(KeyEvent.VK_ESCAPE)) {
+            if (input.wasTapped(Action.CANCEL)) {
                 state = State.DUNGEON;  // ✅ Changed from NPC_DIALOGUE
                 invPage = 0;
 
@@ -1445,12 +1693,10 @@ public final class Game {
             }
 
             // Navigate
-            if (input.wasTapped(KeyEvent.VK_UP) ||
-                    input.wasTapped(KeyEvent.VK_W)) {
+            if (input.wasTapped(Action.UP)) {
                 shopCursorIndex--;
                 if (shopCursorIndex < 0) shopCursorIndex = 0;
-            } else if (input.wasTapped(KeyEvent.VK_DOWN) ||
-                    input.wasTapped(KeyEvent.VK_S)) {
+            } else if (input.wasTapped(Action.DOWN)) {
                 shopCursorIndex++;
                 if (shopCursorIndex >= n) shopCursorIndex = n - 1;
             }
@@ -1464,8 +1710,7 @@ public final class Game {
             }
 
             // Buy item (ENTER)
-            if (input.wasTapped(KeyEvent.VK_ENTER) ||
-                    input.wasTapped(KeyEvent.VK_SPACE)) {
+            if (input.wasTapped(Action.CONFIRM)) {
 
                 ShopItem item = items.get(shopCursorIndex);
 
@@ -1480,7 +1725,7 @@ public final class Game {
             }
 
             // Sell item (S key)
-            if (input.wasTapped(KeyEvent.VK_S)) {
+            if (input.wasTapped(Action.SELL)) {
                 openSellMenu();
             }
 
@@ -1488,7 +1733,7 @@ public final class Game {
         }
 
         // close
-        if (input.wasTapped(KeyEvent.VK_ESCAPE) || input.wasTapped(KeyEvent.VK_I)) {
+        if (input.wasTapped(Action.CANCEL) || input.wasTapped(Action.INVENTORY)) {
             state = State.DUNGEON;  // ✅ CRITICAL: Actually close the inventory!
 
             // Only restore if we're still showing the generic inventory help text
@@ -1501,9 +1746,9 @@ public final class Game {
         }
 
         // switch tabs (left/right)
-        if (input.wasTapped(java.awt.event.KeyEvent.VK_LEFT) || input.wasTapped(java.awt.event.KeyEvent.VK_A)) {
+        if (input.wasTapped(Action.LEFT)) {
             invPage = (invPage + 4 - 1) % 4; // ✅ Changed: 0<->1<->2<->3
-        } else if (input.wasTapped(java.awt.event.KeyEvent.VK_RIGHT) || input.wasTapped(java.awt.event.KeyEvent.VK_D)) {
+        } else if (input.wasTapped(Action.RIGHT)) {
             invPage = (invPage + 1) % 4;     // ✅ Changed: 0<->1<->2<->3
         }
 
@@ -1526,9 +1771,9 @@ public final class Game {
 
             // nav up/down
             int dir = 0;
-            if (input.wasTapped(KeyEvent.VK_UP) || input.wasTapped(KeyEvent.VK_W))
+            if (input.wasTapped(Action.UP))
                 dir = -1;
-            else if (input.wasTapped(KeyEvent.VK_DOWN) || input.wasTapped(KeyEvent.VK_S))
+            else if (input.wasTapped(Action.DOWN))
                 dir = +1;
 
             if (dir != 0) {
@@ -1544,7 +1789,7 @@ public final class Game {
             if (invScroll > Math.max(0, n - INV_VISIBLE_ROWS)) invScroll = Math.max(0, n - INV_VISIBLE_ROWS);
 
             // use / equip
-            if (input.wasTapped(KeyEvent.VK_ENTER) || input.wasTapped(KeyEvent.VK_SPACE)) {
+            if (input.wasTapped(Action.CONFIRM)) {
 
                 ItemType chosen = items.get(invIndex);
 
@@ -1667,7 +1912,7 @@ public final class Game {
                             return;
                         }
                         int healed = player.healHp(8);
-                        setLog("You drink an HP Potion. +" + healed + " HP.", 2.5);
+                        setLog(EventLog.Kind.HP_POTION, null, healed, 0, 2.5);
 
 
                         turn.endPlayerTurn();
@@ -1680,7 +1925,7 @@ public final class Game {
                             return;
                         }
                         int restored = player.healMp(6);
-                        setLog("You drink an MP Potion. +" + restored + " MP.", 2.5);
+                        setLog(EventLog.Kind.MP_POTION, null, restored, 0, 2.5);
 
 
                         turn.endPlayerTurn();
@@ -1726,9 +1971,9 @@ public final class Game {
 
             // nav up/down
             int dir = 0;
-            if (input.wasTapped(KeyEvent.VK_UP) || input.wasTapped(KeyEvent.VK_W))
+            if (input.wasTapped(Action.UP))
                 dir = -1;
-            else if (input.wasTapped(KeyEvent.VK_DOWN) || input.wasTapped(KeyEvent.VK_S))
+            else if (input.wasTapped(Action.DOWN))
                 dir = +1;
 
             if (dir != 0) {
@@ -1744,7 +1989,7 @@ public final class Game {
             if (spellScroll > Math.max(0, n - INV_VISIBLE_ROWS)) spellScroll = Math.max(0, n - INV_VISIBLE_ROWS);
 
             // ✅ Cast from inventory (outside battle) — Heal only
-            if (input.wasTapped(KeyEvent.VK_ENTER) || input.wasTapped(KeyEvent.VK_SPACE)) {
+            if (input.wasTapped(Action.CONFIRM)) {
 
                 Player.SpellType chosen = spells.get(spellIndex);
 
@@ -1769,7 +2014,7 @@ public final class Game {
                 // Pay MP + heal
                 player.mp -= cost;
                 int healed = player.healHp(15);
-                setLog("Heal restores +" + healed + " HP.  (-" + cost + " MP)", 2.5);
+                setLog(EventLog.Kind.HEAL, null, healed, cost, 2.5);
 
                 // Casting outside battle should cost a turn (like potions)
                 turn.endPlayerTurn();
@@ -1797,9 +2042,9 @@ public final class Game {
 
             // nav up/down
             int dir = 0;
-            if (input.wasTapped(java.awt.event.KeyEvent.VK_UP) || input.wasTapped(java.awt.event.KeyEvent.VK_W))
+            if (input.wasTapped(Action.UP))
                 dir = -1;
-            else if (input.wasTapped(java.awt.event.KeyEvent.VK_DOWN) || input.wasTapped(java.awt.event.KeyEvent.VK_S))
+            else if (input.wasTapped(Action.DOWN))
                 dir = +1;
 
             if (dir != 0) {
@@ -1900,9 +2145,8 @@ public final class Game {
             state = State.DUNGEON;
             return;
         }
-        // Tick sprite anim timers (runs every frame while in battle)
-        battle.tickAnims();
-        battle.tickDamage(player);
+        // Battle clock: lands whatever damage / hit reactions / phase changes are due this frame
+        battle.advanceFrame(player);
 
         // If a fade is running, ignore inputs/menus until it finishes
         if (isFading()) return;
@@ -1910,20 +2154,20 @@ public final class Game {
         // Simple 3-option menu: Fight / Spell / Run
         if (battle.phase == Battle.Phase.PLAYER_MENU) {
             // menu navigation
-            if (input.wasTapped(java.awt.event.KeyEvent.VK_UP) || input.wasTapped(java.awt.event.KeyEvent.VK_W)) {
+            if (input.wasTapped(Action.UP)) {
                 battle.menuIndex = (battle.menuIndex + 3) % 4;  // ✅ Changed to 4 options
-            } else if (input.wasTapped(java.awt.event.KeyEvent.VK_DOWN) || input.wasTapped(java.awt.event.KeyEvent.VK_S)) {
+            } else if (input.wasTapped(Action.DOWN)) {
                 battle.menuIndex = (battle.menuIndex + 1) % 4;  // ✅ Changed to 4 options
             }
 
             // confirm
-            if (input.wasTapped(java.awt.event.KeyEvent.VK_ENTER) || input.wasTapped(java.awt.event.KeyEvent.VK_SPACE)) {
+            if (input.wasTapped(Action.CONFIRM)) {
 
                 // 0 = MOVE (open physical move submenu)
                 if (battle.menuIndex == 0) {
                     battle.phase = Battle.Phase.MOVE_MENU;
                     battle.moveIndex = 0;
-                    battle.log = "Choose a move.";
+                    battle.prompt("Choose a move.");
                     return;
                 }
 
@@ -1931,7 +2175,7 @@ public final class Game {
                 if (battle.menuIndex == 1) {
                     battle.phase = Battle.Phase.SPELL_MENU;
                     battle.spellIndex = 0;
-                    battle.log = "Choose a spell.";
+                    battle.prompt("Choose a spell.");
                     return;
                 }
 
@@ -1939,13 +2183,13 @@ public final class Game {
                 if (battle.menuIndex == 2) {
                     battle.phase = Battle.Phase.ITEM_MENU;
                     battle.itemIndex = 0;
-                    battle.log = "Choose an item.";
+                    battle.prompt("Choose an item.");
                     return;
                 }
 
                 // 3 = RUN
                 if (battle.menuIndex == 3) {
-                    battle.log = "You ran away!";
+                    battle.say("You ran away!");
                     startBattleExitFade(false);
                     return;
                 }
@@ -1954,16 +2198,9 @@ public final class Game {
 
         if (battle.phase == Battle.Phase.ENEMY_MESSAGE) {
 
-            // Let the player dismiss early
-            if (input.wasTapped(KeyEvent.VK_ENTER) ||
-                    input.wasTapped(KeyEvent.VK_SPACE)) {
-                battle.timerFrames = 0;
-            }
-
-            battle.timerFrames--;
-            if (battle.timerFrames <= 0) {
-                battle.phase = Battle.Phase.PLAYER_MENU;
-                battle.log = "Choose an action.";
+            // Let the player dismiss early; otherwise the timeline switches to the menu
+            if (input.wasTapped(Action.CONFIRM)) {
+                battle.skipWait();
             }
             return;
         }
@@ -1978,14 +2215,11 @@ public final class Game {
             if (itemCount == 0) {
                 // Renderer will show "No usable items." once in the menu area.
                 // Keep the log line empty so it doesn't duplicate.
-                battle.log = "";
+                battle.say("");
 
-                if (input.wasTapped(KeyEvent.VK_ESCAPE) ||
-                        input.wasTapped(KeyEvent.VK_BACK_SPACE) ||
-                        input.wasTapped(KeyEvent.VK_ENTER) ||
-                        input.wasTapped(KeyEvent.VK_SPACE)) {
+                if (input.wasTapped(Action.BACK) || input.wasTapped(Action.CONFIRM)) {
                     battle.phase = Battle.Phase.PLAYER_MENU;
-                    battle.log = "Choose an action.";
+                    battle.prompt("Choose an action.");
                 }
                 return;
             }
@@ -1995,23 +2229,20 @@ public final class Game {
             if (battle.itemIndex >= itemCount) battle.itemIndex = itemCount - 1;
 
             // Back out
-            if (input.wasTapped(KeyEvent.VK_ESCAPE) ||
-                    input.wasTapped(KeyEvent.VK_BACK_SPACE)) {
+            if (input.wasTapped(Action.BACK)) {
                 battle.phase = Battle.Phase.PLAYER_MENU;
-                battle.log = "Choose an action.";
+                battle.prompt("Choose an action.");
                 return;
             }
 
             // Navigation: Left/Up prev, Right/Down next
             int dir = 0;
 
-            if (input.wasTapped(KeyEvent.VK_LEFT) || input.wasTapped(KeyEvent.VK_A) ||
-                    input.wasTapped(KeyEvent.VK_UP) || input.wasTapped(KeyEvent.VK_W)) {
+            if (input.wasTapped(Action.LEFT) || input.wasTapped(Action.UP)) {
                 dir = -1;
             }
 
-            if (input.wasTapped(KeyEvent.VK_RIGHT) || input.wasTapped(KeyEvent.VK_D) ||
-                    input.wasTapped(KeyEvent.VK_DOWN) || input.wasTapped(KeyEvent.VK_S)) {
+            if (input.wasTapped(Action.RIGHT) || input.wasTapped(Action.DOWN)) {
                 dir = +1;
             }
 
@@ -2021,13 +2252,13 @@ public final class Game {
             }
 
             // Use selected item
-            if (input.wasTapped(KeyEvent.VK_ENTER) || input.wasTapped(KeyEvent.VK_SPACE)) {
+            if (input.wasTapped(Action.CONFIRM)) {
 
                 ItemType chosen = items.get(battle.itemIndex);
 
                 // Consume
                 if (!player.useItem(chosen)) {
-                    battle.log = "You don't have that.";
+                    battle.say("You don't have that.");
                     return; // doesn't consume turn
                 }
 
@@ -2035,18 +2266,18 @@ public final class Game {
                 switch (chosen) {
                     case HP_POTION -> {
                         int healed = player.healHp(8);
-                        battle.log = "You drink an HP Potion. +" + healed + " HP.";
+                        battle.say(EventLog.Kind.HP_POTION, null, healed, 0);
                     }
                     case MP_POTION -> {
                         int restored = player.healMp(6);
-                        battle.log = "You drink an MP Potion. +" + restored + " MP.";
+                        battle.say(EventLog.Kind.MP_POTION, null, restored, 0);
                     }
-                    default -> battle.log = "Nothing happens.";
+                    default -> battle.say("Nothing happens.");
                 }
 
                 // Consumes turn -> enemy after delay
                 battle.phase = Battle.Phase.ENEMY_DELAY;
-                battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                 return;
             }
 
@@ -2060,13 +2291,10 @@ public final class Game {
             int n = spells.size();
 
             if (n == 0) {
-                battle.log = "You know no spells.";
-                if (input.wasTapped(KeyEvent.VK_ESCAPE) ||
-                        input.wasTapped(KeyEvent.VK_BACK_SPACE) ||
-                        input.wasTapped(KeyEvent.VK_ENTER) ||
-                        input.wasTapped(KeyEvent.VK_SPACE)) {
+                battle.prompt("You know no spells."); // every frame the menu is open: not recorded
+                if (input.wasTapped(Action.BACK) || input.wasTapped(Action.CONFIRM)) {
                     battle.phase = Battle.Phase.PLAYER_MENU;
-                    battle.log = "Choose an action.";
+                    battle.prompt("Choose an action.");
                 }
                 return;
             }
@@ -2076,20 +2304,17 @@ public final class Game {
             if (battle.spellIndex >= n) battle.spellIndex = n - 1;
 
             // back
-            if (input.wasTapped(KeyEvent.VK_ESCAPE) ||
-                    input.wasTapped(KeyEvent.VK_BACK_SPACE)) {
+            if (input.wasTapped(Action.BACK)) {
                 battle.phase = Battle.Phase.PLAYER_MENU;
-                battle.log = "Choose an action.";
+                battle.prompt("Choose an action.");
                 return;
             }
 
             // nav
             int dir = 0;
-            if (input.wasTapped(KeyEvent.VK_UP) || input.wasTapped(KeyEvent.VK_W) ||
-                    input.wasTapped(KeyEvent.VK_LEFT) || input.wasTapped(KeyEvent.VK_A))
+            if (input.wasTapped(Action.UP) || input.wasTapped(Action.LEFT))
                 dir = -1;
-            else if (input.wasTapped(KeyEvent.VK_DOWN) || input.wasTapped(KeyEvent.VK_S) ||
-                    input.wasTapped(KeyEvent.VK_RIGHT) || input.wasTapped(KeyEvent.VK_D))
+            else if (input.wasTapped(Action.DOWN) || input.wasTapped(Action.RIGHT))
                 dir = +1;
 
             if (dir != 0) {
@@ -2098,7 +2323,7 @@ public final class Game {
             }
 
             // cast
-            if (input.wasTapped(KeyEvent.VK_ENTER) || input.wasTapped(KeyEvent.VK_SPACE)) {
+            if (input.wasTapped(Action.CONFIRM)) {
 
                 Player.SpellType chosen = spells.get(battle.spellIndex);
 
@@ -2106,7 +2331,7 @@ public final class Game {
                 int cost = spellCost(chosen);
 
                 if (player.mp < cost) {
-                    battle.log = "Not enough MP!";
+                    battle.say("Not enough MP!");
                     return;
                 }
 
@@ -2118,11 +2343,11 @@ public final class Game {
                     case MAGIC_STAB -> {
                         // Defender dodge
                         if (foeDodgedAttack()) {
-                            battle.playerAtkFrames = 10;
-                            battle.log = "Magic Stab... but the " + battle.foe.name + " dodges!";
+                            battle.startPlayerAttack(10);
+                            battle.say(EventLog.Kind.SPELL_DODGED, "Magic Stab", 0, 0);
                             tickPlayerBattleStatusesOnAction();
                             battle.phase = Battle.Phase.ENEMY_DELAY;
-                            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                             return;
                         }
 
@@ -2141,24 +2366,24 @@ public final class Game {
                                 battle.foe.speed(),
                                 pen
                         )) {
-                            battle.playerAtkFrames = 10;
-                            battle.log = "Magic Stab... MISS!  (-" + cost + " MP)";
+                            battle.startPlayerAttack(10);
+                            battle.say(EventLog.Kind.SPELL_MISSED, "Magic Stab", 0, cost);
                             tickPlayerBattleStatusesOnAction();
                             battle.phase = Battle.Phase.ENEMY_DELAY;
-                            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                             return;
                         }
                         // Magic Stab = weapon damage + extra 3..5 (NO INT scaling)
                         int dmg = player.rollBaseWeaponDamage(rng) + rng.range(3, 5);
-                        battle.playerAtkFrames = 10;
+                        battle.startPlayerAttack(10);
                         battle.queueEnemyHit(Battle.HIT_LAG_FRAMES, 8);
 
                         if (battle.foeGuarded) {
                             dmg = Math.max(1, dmg / 2);
                             battle.foeGuarded = false;
-                            battle.log = "Magic Stab hits through guard! (" + dmg + ")  (-" + cost + " MP)";
+                            battle.say(EventLog.Kind.SPELL_HIT_THROUGH_GUARD, "Magic Stab", dmg, cost);
                         } else {
-                            battle.log = "Magic Stab hits for " + dmg + "!  (-" + cost + " MP)";
+                            battle.say(EventLog.Kind.SPELL_HIT, "Magic Stab", dmg, cost);
                         }
 
                         tickPlayerBattleStatusesOnAction();
@@ -2167,8 +2392,7 @@ public final class Game {
                         battle.queueFoeDamage(
                                 Battle.HIT_LAG_FRAMES,
                                 dmg,
-                                willKill,
-                                "The " + battle.foe.name + " was defeated!"
+                                willKill
                         );
                     }
 
@@ -2178,11 +2402,11 @@ public final class Game {
                         boolean canDodge = battle.foe.speed() >= player.speed() * 2;
 
                         if (canDodge && foeDodgedAttack()) {
-                            battle.playerAtkFrames = 10;
-                            battle.log = "Slow Poke... but the " + battle.foe.name + " dodges!  (-" + cost + " MP)";
+                            battle.startPlayerAttack(10);
+                            battle.say(EventLog.Kind.SPELL_DODGED, "Slow Poke", 0, cost);
                             tickPlayerBattleStatusesOnAction();
                             battle.phase = Battle.Phase.ENEMY_DELAY;
-                            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                             return;
                         }
 
@@ -2199,26 +2423,26 @@ public final class Game {
                                 battle.foe.speed(),
                                 pen
                         )) {
-                            battle.playerAtkFrames = 10;
-                            battle.log = "Slow Poke... MISS!  (-" + cost + " MP)";
+                            battle.startPlayerAttack(10);
+                            battle.say(EventLog.Kind.SPELL_MISSED, "Slow Poke", 0, cost);
                             tickPlayerBattleStatusesOnAction();
                             battle.phase = Battle.Phase.ENEMY_DELAY;
-                            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                             return;
                         }
 
                         // Damage: half weapon roll (still scales with ATK)
                         int dmg = Math.max(1, player.rollBaseWeaponDamage(rng) / 2);
 
-                        battle.playerAtkFrames = 10;
+                        battle.startPlayerAttack(10);
                         battle.queueEnemyHit(Battle.HIT_LAG_FRAMES, 8);
 
                         if (battle.foeGuarded) {
                             dmg = Math.max(1, dmg / 2);
                             battle.foeGuarded = false;
-                            battle.log = "Slow Poke hits, but the foe blocks! (" + dmg + ")  (-" + cost + " MP)";
+                            battle.say(EventLog.Kind.SPELL_BLOCKED, "Slow Poke", dmg, cost);
                         } else {
-                            battle.log = "Slow Poke hits for " + dmg + " and slows the foe!  (-" + cost + " MP)";
+                            battle.say(EventLog.Kind.SPELL_SLOWS, "Slow Poke", dmg, cost);
                         }
 
                         // Apply slow effect (guaranteed)
@@ -2233,35 +2457,34 @@ public final class Game {
                         battle.queueFoeDamage(
                                 Battle.HIT_LAG_FRAMES,
                                 dmg,
-                                willKill,
-                                "The " + battle.foe.name + " was defeated!"
+                                willKill
                         );
                     }
 
                     case ICE_SHARD -> {
                         if (foeDodgedAttack()) {
-                            battle.playerAtkFrames = 10;
-                            battle.log = "Ice Shard... but the " + battle.foe.name + " dodges!";
+                            battle.startPlayerAttack(10);
+                            battle.say(EventLog.Kind.SPELL_DODGED, "Ice Shard", 0, 0);
                             tickPlayerBattleStatusesOnAction();
                             battle.phase = Battle.Phase.ENEMY_DELAY;
-                            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                             return;
                         }
 
                         int spellAcc = 80; // tune (ice shard a bit less reliable)
                         if (!Battle.rollHit(rng, spellAcc, battle.playerAccuracyPenaltyPct)) {
-                            battle.playerAtkFrames = 10;
-                            battle.log = "Ice Shard... MISS!  (-" + cost + " MP)";
+                            battle.startPlayerAttack(10);
+                            battle.say(EventLog.Kind.SPELL_MISSED, "Ice Shard", 0, cost);
                             tickPlayerBattleStatusesOnAction();
                             battle.phase = Battle.Phase.ENEMY_DELAY;
-                            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                             return;
                         }
                         int dmg = rng.range(spellDamageMin(Player.SpellType.ICE_SHARD),
                                 spellDamageMax(Player.SpellType.ICE_SHARD));
                         dmg = Math.max(1, dmg);
 
-                        battle.playerAtkFrames = 10;
+                        battle.startPlayerAttack(10);
                         battle.queueEnemyHit(Battle.HIT_LAG_FRAMES, 8);
 
                         // Slow: increase enemy miss chance for 3 enemy actions
@@ -2271,7 +2494,7 @@ public final class Game {
                         battle.foeAccuracyPenaltyPct = SLOW_ACC_PENALTY_PCT;
                         battle.foeDodgePenaltyPct = SLOW_DODGE_PENALTY_PCT;
 
-                        battle.log = "Ice Shard hits for " + dmg + " and slows the foe!  (-" + cost + " MP)";
+                        battle.say(EventLog.Kind.SPELL_SLOWS, "Ice Shard", dmg, cost);
                         tickPlayerBattleStatusesOnAction();
 
                         boolean resisted = Battle.rollStatusResist(rng, player.intelligence(), battle.foe.will());
@@ -2279,17 +2502,16 @@ public final class Game {
                             battle.foeSlowTurns = Math.max(battle.foeSlowTurns, slowTurns);
                             battle.foeAccuracyPenaltyPct = SLOW_ACC_PENALTY_PCT;
                             battle.foeDodgePenaltyPct = SLOW_DODGE_PENALTY_PCT;
-                            battle.log = "Ice Shard hits for " + dmg + " and slows the foe!  (-" + cost + " MP)";
+                            battle.say(EventLog.Kind.SPELL_SLOWS, "Ice Shard", dmg, cost);
                         } else {
-                            battle.log = "Ice Shard hits for " + dmg + " but the foe resists the slow!  (-" + cost + " MP)";
+                            battle.say(EventLog.Kind.SPELL_SLOW_RESISTED, "Ice Shard", dmg, cost);
                         }
 
                         boolean willKill = (battle.foe.hp - dmg) <= 0;
                         battle.queueFoeDamage(
                                 Battle.HIT_LAG_FRAMES,
                                 dmg,
-                                willKill,
-                                "The " + battle.foe.name + " was defeated!"
+                                willKill
                         );
                     }
 
@@ -2297,24 +2519,24 @@ public final class Game {
                         // Freeze: enemy misses 2 turns, no damage
 
                         if (foeDodgedAttack()) {
-                            battle.playerAtkFrames = 10;
-                            battle.log = "Flash Freeze... but the " + battle.foe.name + " dodges!";
+                            battle.startPlayerAttack(10);
+                            battle.say(EventLog.Kind.SPELL_DODGED, "Flash Freeze", 0, 0);
                             tickPlayerBattleStatusesOnAction();
                             battle.phase = Battle.Phase.ENEMY_DELAY;
-                            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                             return;
                         }
 
                         int spellAcc = 75; // tune (strong effect, less reliable)
                         if (!Battle.rollHit(rng, spellAcc, battle.playerAccuracyPenaltyPct)) {
-                            battle.playerAtkFrames = 10;
-                            battle.log = "Flash Freeze... MISS!  (-" + cost + " MP)";
+                            battle.startPlayerAttack(10);
+                            battle.say(EventLog.Kind.SPELL_MISSED, "Flash Freeze", 0, cost);
                             tickPlayerBattleStatusesOnAction();
                             battle.phase = Battle.Phase.ENEMY_DELAY;
-                            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                             return;
                         }
-                        battle.playerAtkFrames = 10;
+                        battle.startPlayerAttack(10);
                         battle.queueEnemyHit(Battle.HIT_LAG_FRAMES, 6);
 
                         int dmg = rng.range(spellDamageMin(Player.SpellType.FLASH_FREEZE),
@@ -2323,14 +2545,14 @@ public final class Game {
 
                         boolean resisted = Battle.rollStatusResist(rng, player.intelligence(), battle.foe.will());
                         if (resisted) {
-                            battle.log = "Flash Freeze hits for " + dmg + ", but the foe resists being frozen!  (-" + cost + " MP)";
+                            battle.say(EventLog.Kind.SPELL_FREEZE_RESISTED, "Flash Freeze", dmg, cost);
                         } else {
                             int freezeBase = 2;
                             int freezeBonus = player.intelligence() / 12; // small scaling
                             int freezeTurns = freezeBase + freezeBonus;
 
                             battle.foeFrozenTurns = Math.max(battle.foeFrozenTurns, freezeTurns);
-                            battle.log = "Flash Freeze hits for " + dmg + "! The foe is frozen solid!  (-" + cost + " MP)";
+                            battle.say(EventLog.Kind.SPELL_FREEZES, "Flash Freeze", dmg, cost);
                         }
 
 // queue damage like other spells
@@ -2338,8 +2560,7 @@ public final class Game {
                         battle.queueFoeDamage(
                                 Battle.HIT_LAG_FRAMES,
                                 dmg,
-                                willKill,
-                                "The " + battle.foe.name + " was defeated!"
+                                willKill
                         );
 
                         tickPlayerBattleStatusesOnAction();
@@ -2347,13 +2568,13 @@ public final class Game {
 
                     case FIRE_SWORD -> {
                         battle.fireSwordActive = true;
-                        battle.log = "Fire Sword! Your blade ignites for the rest of the battle.  (-" + cost + " MP)";
+                        battle.say(EventLog.Kind.FIRE_SWORD, null, 0, cost);
                         tickPlayerBattleStatusesOnAction();
                     }
 
                     case HEAL -> {
                         int healed = player.healHp(15);
-                        battle.log = "Heal restores +" + healed + " HP.  (-" + cost + " MP)";
+                        battle.say(EventLog.Kind.HEAL, null, healed, cost);
                         tickPlayerBattleStatusesOnAction();
                     }
                 }
@@ -2362,7 +2583,7 @@ public final class Game {
 
                 // Enemy turn next
                 battle.phase = Battle.Phase.ENEMY_DELAY;
-                battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+                battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
                 return;
             }
 
@@ -2375,13 +2596,10 @@ public final class Game {
             int n = moves.size();
 
             if (n == 0) {
-                battle.log = "You know no moves.";
-                if (input.wasTapped(KeyEvent.VK_ESCAPE) ||
-                        input.wasTapped(KeyEvent.VK_BACK_SPACE) ||
-                        input.wasTapped(KeyEvent.VK_ENTER) ||
-                        input.wasTapped(KeyEvent.VK_SPACE)) {
+                battle.prompt("You know no moves."); // every frame the menu is open: not recorded
+                if (input.wasTapped(Action.BACK) || input.wasTapped(Action.CONFIRM)) {
                     battle.phase = Battle.Phase.PLAYER_MENU;
-                    battle.log = "Choose an action.";
+                    battle.prompt("Choose an action.");
                 }
                 return;
             }
@@ -2391,20 +2609,17 @@ public final class Game {
             if (battle.moveIndex >= n) battle.moveIndex = n - 1;
 
             // back
-            if (input.wasTapped(KeyEvent.VK_ESCAPE) ||
-                    input.wasTapped(KeyEvent.VK_BACK_SPACE)) {
+            if (input.wasTapped(Action.BACK)) {
                 battle.phase = Battle.Phase.PLAYER_MENU;
-                battle.log = "Choose an action.";
+                battle.prompt("Choose an action.");
                 return;
             }
 
             // nav
             int dir = 0;
-            if (input.wasTapped(KeyEvent.VK_UP) || input.wasTapped(KeyEvent.VK_W) ||
-                    input.wasTapped(KeyEvent.VK_LEFT) || input.wasTapped(KeyEvent.VK_A))
+            if (input.wasTapped(Action.UP) || input.wasTapped(Action.LEFT))
                 dir = -1;
-            else if (input.wasTapped(KeyEvent.VK_DOWN) || input.wasTapped(KeyEvent.VK_S) ||
-                    input.wasTapped(KeyEvent.VK_RIGHT) || input.wasTapped(KeyEvent.VK_D))
+            else if (input.wasTapped(Action.DOWN) || input.wasTapped(Action.RIGHT))
                 dir = +1;
 
             if (dir != 0) {
@@ -2413,7 +2628,7 @@ public final class Game {
             }
 
             // execute move
-            if (input.wasTapped(KeyEvent.VK_ENTER) || input.wasTapped(KeyEvent.VK_SPACE)) {
+            if (input.wasTapped(Action.CONFIRM)) {
                 Player.PhysicalMove chosen = moves.get(battle.moveIndex);
                 executePhysicalMove(chosen);
                 return;
@@ -2427,7 +2642,7 @@ public final class Game {
             // Frozen: enemy loses turns
             if (battle.foeFrozenTurns > 0) {
                 battle.foeFrozenTurns--;
-                battle.log = "The " + battle.foe.name + " is frozen and can't move!";
+                battle.say(EventLog.Kind.FOE_FROZEN);
 
                 // decrement slow duration per enemy action too
                 if (battle.foeSlowTurns > 0) {
@@ -2439,12 +2654,13 @@ public final class Game {
                 }
 
                 battle.phase = Battle.Phase.ENEMY_MESSAGE;
-                battle.timerFrames = BATTLE_ENEMY_MESSAGE_FRAMES;
+                battle.waitThen(Battle.Phase.PLAYER_MENU, BATTLE_ENEMY_MESSAGE_FRAMES, "Choose an action.");
                 return;
             }
 
             // Normal enemy act
-            battle.log = battle.foe.performBattleMove(rng, player, battle);
+            int outcome = battle.foe.resolveBattleMove(rng, player, battle);
+            battle.say(EventLog.Kind.FOE_MOVE, battle.foe.lastMoveName(), battle.foe.lastMoveDamage(), outcome);
 
             // Slow duration counts down on each enemy action
             if (battle.foeSlowTurns > 0) {
@@ -2461,7 +2677,7 @@ public final class Game {
                 battle.phase = Battle.Phase.LOST;
             } else {
                 battle.phase = Battle.Phase.ENEMY_MESSAGE;
-                battle.timerFrames = BATTLE_ENEMY_MESSAGE_FRAMES;
+                battle.waitThen(Battle.Phase.PLAYER_MENU, BATTLE_ENEMY_MESSAGE_FRAMES, "Choose an action.");
             }
             return;
         }
@@ -2469,28 +2685,27 @@ public final class Game {
         if (battle.phase == Battle.Phase.WON) {
 
             // Wait for your enemy defeat split/fade to finish
-            if (battle.enemyDefeatFrames > 0) return;
+            if (battle.enemyDefeatFrames() > 0) return;
 
             // Small hold after the defeat animation finishes (optional but feels nice)
-            if (battle.timerFrames <= 0) battle.timerFrames = BATTLE_WIN_HOLD_FRAMES;
-            battle.timerFrames--;
+            if (battle.winHoldUntil < 0) battle.winHoldUntil = battle.frame() + BATTLE_WIN_HOLD_FRAMES;
 
-            if (battle.timerFrames <= 0) {
+            if (battle.frame() >= battle.winHoldUntil) {
                 startBattleExitFade(true); // victory -> fade out, switch to dungeon at black, fade in
             }
             return;
         }
 
         if (battle.phase == Battle.Phase.LOST) {
-            battle.log = "You were defeated...";
+            battle.say("You were defeated...");
             player.hp = 0;
             startDeathWipeToGameOver();
             return;
         }
         if (battle.phase == Battle.Phase.ENEMY_DELAY) {
-            battle.timerFrames--;
-            if (battle.timerFrames <= 0) {
-                battle.phase = Battle.Phase.ENEMY_ACT;
+            // The timeline moves on to ENEMY_ACT; Enter/Space skips the animations
+            if (input.wasTapped(Action.CONFIRM)) {
+                battle.fastForward(player);
             }
             return;
         }
@@ -2530,14 +2745,13 @@ public final class Game {
         List<String> lines = activeNpc.dialogueLines();
 
         // Close dialogue
-        if (input.wasTapped(KeyEvent.VK_ESCAPE) ||
-                input.wasTapped(KeyEvent.VK_ENTER)) {
+        if (input.wasTapped(Action.CANCEL) || input.wasTapped(Action.INTERACT)) {
             closeNpcDialogue();
             return;
         }
 
         // Z key for action (shop/rest)
-        if (input.wasTapped(KeyEvent.VK_Z)) {
+        if (input.wasTapped(Action.TALK)) {
             performNpcAction(activeNpc);
             return;
         }
@@ -2645,7 +2859,7 @@ public final class Game {
             // Must be walkable and not already occupied
             if (!dungeon.inBounds(cx, cy)) continue;
             if (!dungeon.isWalkable(cx, cy)) continue;
-            if (getEnemyAt(cx, cy) != null) continue;
+            if (isEnemyAt(cx, cy)) continue;
             if (getChestAt(cx, cy) != null) continue;
             if (cx == player.x && cy == player.y) continue;
 
@@ -2683,6 +2897,17 @@ public final class Game {
         };
     }
 
+    private void updateHistory(Input input) {
+        int held = (int) (eventLog.next() - eventLog.oldest());
+        if (input.wasTapped(Action.UP)) {
+            historyScroll = Math.min(Math.max(0, held - 1), historyScroll + 1);
+        } else if (input.wasTapped(Action.DOWN)) {
+            historyScroll = Math.max(0, historyScroll - 1);
+        } else if (input.wasTapped(Action.CANCEL) || input.wasTapped(Action.LOG)) {
+            historyOpen = false;
+        }
+    }
+
     private void tickLogTimer() {
         // Only count down timed messages
         if (logFramesLeft > 0) {
@@ -2766,8 +2991,8 @@ public final class Game {
                     if (player != null && player.hp <= 0) player.hp = 1;
 
                     state = State.BATTLE;
-                    battle = new Battle(battleStartFoe);
-                    battle.log = "A " + battleStartFoe.name + " challenges you!";
+                    battle = new Battle(battleStartFoe, eventLog);
+                    battle.say(EventLog.Kind.CHALLENGE);
 
                     battleStartPending = false;
                     battleStartFoe = null;
@@ -2807,6 +3032,18 @@ public final class Game {
     // Temporary message (seconds can be 1.5, 2, 3, etc.)
     private void setLog(String msg, double seconds) {
         lastLog = (msg == null) ? "" : msg;
+        if (seconds > 0 && !lastLog.isEmpty()) eventLog.text(lastLog);
+        startLogTimer(seconds);
+    }
+
+    // Temporary message from an event: recorded now, turned into text only if the UI bar shows it
+    private void setLog(EventLog.Kind kind, String actor, int a, int b, double seconds) {
+        lastLogSeq = eventLog.add(kind, actor, null, a, b);
+        lastLog = null;
+        startLogTimer(seconds);
+    }
+
+    private void startLogTimer(double seconds) {
         if (seconds <= 0) {
             logFramesLeft = 0;
             lastLog = "";
@@ -2824,91 +3061,48 @@ public final class Game {
     private void executePhysicalMove(Player.PhysicalMove move) {
         if (battle == null) return;
 
-        battle.playerAtkFrames = 10;
-
-        int baseAcc, dmgMultiplier;
-        boolean canBeDodged, critOnHit, loseTurnOnMiss, isParry;
-        int speedBonus = 0;
-
-        switch (move) {
-            case SLASH -> {
-                baseAcc = 90;
-                dmgMultiplier = 100;
-                canBeDodged = true;
-                critOnHit = false;
-                loseTurnOnMiss = false;
-                isParry = false;
-            }
-            case SMASH -> {
-                baseAcc = 75;
-                dmgMultiplier = 140;
-                canBeDodged = true;
-                critOnHit = false;
-                loseTurnOnMiss = false;
-                isParry = false;
-                // Speed bonus: +2% acc per speed point over 10
-                speedBonus = Math.max(0, player.speed() - 10) * 2;
-            }
-            case LUNGE -> {
-                baseAcc = 85;
-                dmgMultiplier = 110;
-                canBeDodged = true;
-                critOnHit = true;
-                loseTurnOnMiss = true;
-                isParry = false;
-            }
-            case PARRY -> {
-                battle.parryActive = true;
-                battle.log = "You ready your guard!";
-                tickPlayerBattleStatusesOnAction();
-                battle.phase = Battle.Phase.ENEMY_DELAY;
-                battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
-                return;
-            }
-            case SWEEP -> {
-                baseAcc = 100;
-                dmgMultiplier = 80;
-                canBeDodged = false;  // Can't be dodged!
-                critOnHit = false;
-                loseTurnOnMiss = false;
-                isParry = false;
-            }
-            default -> {
-                baseAcc = 90;
-                dmgMultiplier = 100;
-                canBeDodged = true;
-                critOnHit = false;
-                loseTurnOnMiss = false;
-                isParry = false;
-            }
+        battle.startPlayerAttack(10);
+
+        if (move == Player.PhysicalMove.PARRY) {
+            battle.parryActive = true;
+            battle.say(EventLog.Kind.MOVE_GUARD);
+            tickPlayerBattleStatusesOnAction();
+            battle.phase = Battle.Phase.ENEMY_DELAY;
+            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
+            return;
         }
 
+        int baseAcc = Battle.moveAccuracy(move, player.speed()); // Smash: speed bonus included
+        int dmgMultiplier = Battle.moveDamagePct(move);
+        boolean canBeDodged = Battle.moveCanBeDodged(move);
+        boolean critOnHit = Battle.moveCritsOnHit(move);
+        boolean loseTurnOnMiss = critOnHit;
+
         // Check dodge (if applicable)
         if (canBeDodged && foeDodgedAttack()) {
             if (loseTurnOnMiss) {
-                battle.log = move.name() + " missed! You're off-balance and lose your next turn!";
+                battle.say(EventLog.Kind.MOVE_MISSED, move.name(), 0, 1);
                 // Enemy gets TWO actions (implement this as a flag if you want)
             } else {
-                battle.log = "The " + battle.foe.name + " dodges your " + move.name() + "!";
+                battle.say(EventLog.Kind.MOVE_DODGED, move.name(), 0, 0);
             }
             battle.phase = Battle.Phase.ENEMY_DELAY;
-            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
             tickPlayerBattleStatusesOnAction();
             return;
         }
 
         // Check hit (accuracy)
-        int finalAcc = baseAcc + speedBonus;
         int pen = Battle.applyWillVsSlowPenalty(rng, battle.playerAccuracyPenaltyPct, player.will(), battle.playerSlowTurns);
 
-        if (!Battle.rollPhysicalHit(rng, finalAcc, player.speed(), battle.foe.speed(), pen)) {
+        if (!Battle.rollPhysicalHit(rng, baseAcc, player.speed(), battle.foe.speed(), pen)) {
             if (loseTurnOnMiss) {
-                battle.log = move.name() + " missed! You're off-balance and lose your next turn!";
+                battle.say(EventLog.Kind.MOVE_MISSED, move.name(), 0, 1);
             } else {
-                battle.log = move.name() + " missed!";
+                battle.say(EventLog.Kind.MOVE_MISSED, move.name(), 0, 0);
             }
             battle.phase = Battle.Phase.ENEMY_DELAY;
-            battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+            battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
             tickPlayerBattleStatusesOnAction();
             return;
         }
@@ -2932,10 +3126,9 @@ public final class Game {
         if (battle.foeGuarded) {
             dmg = Math.max(1, dmg / 2);
             battle.foeGuarded = false;
-            battle.log = "The " + battle.foe.name + " blocks your " + move.name() + "! (reduced damage)";
+            battle.say(EventLog.Kind.MOVE_BLOCKED, move.name(), dmg, 0);
         } else {
-            String critText = critOnHit ? " CRITICAL HIT!" : "";
-            battle.log = move.name() + " hits for " + dmg + "!" + critText;
+            battle.say(EventLog.Kind.MOVE_HIT, move.name(), dmg, critOnHit ? 1 : 0);
         }
 
         tickPlayerBattleStatusesOnAction();
@@ -2946,18 +3139,16 @@ public final class Game {
         battle.queueFoeDamage(
                 Battle.HIT_LAG_FRAMES,
                 dmg,
-                willKill,
-                "The " + battle.foe.name + " was defeated!"
+                willKill
         );
 
         battle.phase = Battle.Phase.ENEMY_DELAY;
-        battle.timerFrames = BATTLE_ENEMY_DELAY_FRAMES;
+        battle.waitThen(Battle.Phase.ENEMY_ACT, BATTLE_ENEMY_DELAY_FRAMES);
     }
 
     private void updateLevelUp(Input input) {
         // ESC acts like "No" on confirm screen, or "Back" on stat screen
-        boolean esc = input.wasTapped(KeyEvent.VK_ESCAPE) ||
-                input.wasTapped(KeyEvent.VK_BACK_SPACE);
+        boolean esc = input.wasTapped(Action.BACK);
 
         // -----------------
         // Stage 0: Confirm
@@ -2965,14 +3156,12 @@ public final class Game {
         if (levelUpStage == 0) {
 
             // toggle YES/NO with up/down
-            if (input.wasTapped(KeyEvent.VK_UP) || input.wasTapped(KeyEvent.VK_W) ||
-                    input.wasTapped(KeyEvent.VK_DOWN) || input.wasTapped(KeyEvent.VK_S)) {
+            if (input.wasTapped(Action.UP) || input.wasTapped(Action.DOWN)) {
                 levelUpYesNoIndex = 1 - levelUpYesNoIndex; // 0<->1
             }
 
             // confirm
-            if (input.wasTapped(KeyEvent.VK_ENTER) ||
-                    input.wasTapped(KeyEvent.VK_SPACE)) {
+            if (input.wasTapped(Action.CONFIRM)) {
 
                 if (levelUpYesNoIndex == 0) {
                     // YES -> go to stat pick
@@ -3014,9 +3203,9 @@ public final class Game {
 
             // nav stats (HP/MP/ATK)
             int dir = 0;
-            if (input.wasTapped(KeyEvent.VK_UP) || input.wasTapped(KeyEvent.VK_W))
+            if (input.wasTapped(Action.UP))
                 dir = -1;
-            else if (input.wasTapped(KeyEvent.VK_DOWN) || input.wasTapped(KeyEvent.VK_S))
+            else if (input.wasTapped(Action.DOWN))
                 dir = +1;
 
             if (dir != 0) {
@@ -3025,8 +3214,7 @@ public final class Game {
             }
 
             // confirm stat
-            if (input.wasTapped(KeyEvent.VK_ENTER) ||
-                    input.wasTapped(KeyEvent.VK_SPACE)) {
+            if (input.wasTapped(Action.CONFIRM)) {
 
                 Player.Stat chosen = switch (levelUpStatIndex) {
                     case 0 -> Player.Stat.HP;
@@ -3158,10 +3346,9 @@ public final class Game {
         // If a fade is running, ignore menu inputs
         if (isFading()) return;
 
-        if (input.wasTapped(KeyEvent.VK_ENTER) ||
-                input.wasTapped(KeyEvent.VK_SPACE)) {
+        if (input.wasTapped(Action.CONFIRM)) {
 
-            startNewGameFade(System.currentTimeMillis());
+            startNewGameFade(newRunSeed());
         }
     }
 
@@ -3170,15 +3357,13 @@ public final class Game {
         // If a fade is running, ignore inputs
         if (isFading()) return;
 
-        if (input.wasTapped(KeyEvent.VK_Y) ||
-                input.wasTapped(KeyEvent.VK_ENTER) ||
-                input.wasTapped(KeyEvent.VK_SPACE)) {
+        if (input.wasTapped(Action.YES) || input.wasTapped(Action.CONFIRM)) {
 
-            startNewGameFade(System.currentTimeMillis());
+            startNewGameFade(newRunSeed());
             return;
         }
 
-        if (input.wasTapped(KeyEvent.VK_N)) {
+        if (input.wasTapped(Action.NO)) {
             goToMainMenu();
         }
     }
@@ -3302,9 +3487,60 @@ public final class Game {
 
     // Call once per rendered frame (after drawing)
     public void onFramePresented() {
+        if (replaying) return;
+        presentFrame();
+    }
+
+    void presentFrame() {
+        if (fadeAwaitingPresent && recorder != null) recorder.present(); // only presents a fade waits on matter
         fadeAwaitingPresent = false;
     }
 
+    // ----------------------------
+    // Replay hooks
+    // ----------------------------
+
+    /** Record new-run seeds and fade presents to r (keys are recorded by Input). */
+    public void record(Replay.Recorder r) {
+        recorder = r;
+    }
+
+    void startReplay(LongSupplier seeds) {
+        seedSource = seeds;
+        replaying = true;
+    }
+
+    void endReplay() {
+        seedSource = System::currentTimeMillis;
+        replaying = false;
+    }
+
+    private long newRunSeed() {
+        long s = seedSource.getAsLong();
+        if (recorder != null) recorder.seed(s);
+        return s;
+    }
+
+    public long playerTurns() {
+        return turn.playerTurns();
+    }
+
+    /** One line of where the game is, with a checksum (compare two replays of the same file). */
+    public String replaySummary() {
+        long h = state.ordinal();
+        h = h * 31 + floor;
+        h = h * 31 + turn.playerTurns();
+        String who = "no player";
+        if (player != null) {
+            int[] v = { player.x, player.y, player.hp, player.maxHp, player.mp, player.level, player.exp, player.gold };
+            for (int x : v) h = h * 31 + x;
+            who = String.format("player (%d,%d) hp %d/%d mp %d lvl %d exp %d gold %d",
+                    v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7]);
+        }
+        if (rng != null) for (long x : rng.state()) h = h * 31 + x;
+        return String.format("%s floor %d, %s, checksum %016x", state, floor, who, h);
+    }
+
     public int spellCost(Player.SpellType s) {
         return switch (s) {
             case MAGIC_STAB -> 3;
@@ -3398,14 +3634,30 @@ public final class Game {
         return player;
     }
 
-    public List<Enemy> enemies() {
+    public EnemyStore enemies() {
         return enemies;
     }
 
     public String lastLog() {
+        if (lastLog == null) {
+            String t = eventLog.text(lastLogSeq);
+            lastLog = (t == null) ? "" : t;
+        }
         return lastLog;
     }
 
+    public EventLog eventLog() {
+        return eventLog;
+    }
+
+    public boolean historyOpen() {
+        return historyOpen;
+    }
+
+    public int historyScroll() {
+        return historyScroll;
+    }
+
     public int floor() {
         return floor;
     }
@@ -3434,6 +3686,19 @@ public final class Game {
         return deathWipeActive;
     }
 
+    /**
+     * True while a key can be handled by an extra update() right away instead of waiting for the next tick:
+     * walking the map, where an update only advances the log timer, not animations or fades.
+     */
+    public boolean acceptsImmediateInput() {
+        return state == State.DUNGEON && !historyOpen && !isFading() && !deathWipeActive && turn.isPlayerTurn();
+    }
+
+    /** True when the next update() runs the enemies' turn (the player has just acted on the map). */
+    public boolean enemyTurnPending() {
+        return state == State.DUNGEON && !isFading() && !deathWipeActive && !turn.isPlayerTurn();
+    }
+
     public float deathWipeProgress() {
         return deathWipeProgress;
     }
@@ -25,6 +25,12 @@ public final class GameConfig {
     public static final int PLAYER_FOV_RADIUS = 10;
     public static final int START_ENEMIES_MIN = 6;
     public static final int START_ENEMIES_MAX = 10;
+    public static final int ENEMY_AWARE_RADIUS = 10;  // path steps of the exact chase map; further out aware enemies follow noise
+    public static final int NOISE_STEP = 10;          // loudness of an ordinary turn (heard NOISE_STEP - 1 steps away)
+    public static final int ENEMY_FLEE_HP_PCT = 25;   // wounded enemies at/below this run away
+    public static final int ENEMY_SIM_RADIUS = 14;    // full AI inside this (tiles); coarse, batched updates outside
+    public static final int NOISE_LOUD = ENEMY_SIM_RADIUS + 1; // fights and forced doors; heard out to the full-AI radius, no further
+    public static final int ENEMY_FAR_BATCHES = 8;    // distant enemies are updated every Nth turn
 
     public static final int VIEW_W_TILES = MAP_W;
     public static final int VIEW_H_TILES = MAP_H; // map-only (no UI)
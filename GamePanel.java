@@ -5,11 +5,14 @@ package org.example.ui;
 import org.example.game.Game;
 import org.example.game.GameConfig;
 import org.example.game.Input;
+import org.example.game.Replay;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public final class GamePanel extends JPanel {
     private final Game game = new Game();
@@ -18,6 +21,19 @@ public final class GamePanel extends JPanel {
 
     private Timer timer;
 
+    // -Dinput.immediate=false: keys wait for the next timer tick, as before. Otherwise a key on the map is
+    // handled (turn, enemies, FOV) and painted straight away, not up to a tick plus a repaint later.
+    private final boolean immediate = !"false".equals(System.getProperty("input.immediate"));
+    private boolean stepQueued = false; // coalesces a burst of key events into one immediate step
+
+    private final PerfOverlay perf = new PerfOverlay();
+    private long keyNanos = 0;   // first key event not yet applied by an update
+    private long shownNanos = 0; // key event whose effect the next paint shows
+
+    // -Dreplay.record=file records the session; -Dreplay.play=file [-Dreplay.turn=n] plays one back
+    // (fast-forwarded to turn n without drawing), then hands over to the keyboard
+    private Replay.Playback playback;
+
     public GamePanel() {
         int w = GameConfig.MAP_W * GameConfig.TILE_SIZE * GameConfig.SCALE;
         int h = (GameConfig.MAP_H + GameConfig.UI_H_TILES) * GameConfig.TILE_SIZE * GameConfig.SCALE;
@@ -26,13 +42,50 @@ public final class GamePanel extends JPanel {
         setFocusable(true);
         setDoubleBuffered(true);
 
+        // Keys are queued, not applied: a step drains them in order at the start of a frame
         addKeyListener(new KeyAdapter() {
-            @Override public void keyPressed(KeyEvent e) { input.onKeyPressed(e); }
-            @Override public void keyReleased(KeyEvent e) { input.onKeyReleased(e); }
+            @Override public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_F3) {
+                    perf.visible = !perf.visible;
+                    repaint();
+                    return;
+                }
+                if (playback != null) return;
+                if (keyNanos == 0) keyNanos = System.nanoTime();
+                input.post(e.getKeyCode(), true);
+                if (immediate && !stepQueued && game.acceptsImmediateInput()) {
+                    stepQueued = true;
+                    SwingUtilities.invokeLater(GamePanel.this::stepNow); // after the rest of this burst of events
+                }
+            }
+
+            @Override public void keyReleased(KeyEvent e) {
+                if (playback == null) input.post(e.getKeyCode(), false);
+            }
         });
 
         // start at menu
         game.goToMainMenu();
+        setUpReplay();
+    }
+
+    private void setUpReplay() {
+        String play = System.getProperty("replay.play");
+        String record = System.getProperty("replay.record");
+        try {
+            if (play != null) {
+                playback = Replay.load(Path.of(play)).play(game, input);
+                playback.runToTurn(Long.getLong("replay.turn", 0L));
+            } else if (record != null) {
+                Replay.Recorder rec = new Replay.Recorder(Path.of(record));
+                input.record(rec);
+                game.record(rec);
+                Runtime.getRuntime().addShutdownHook(new Thread(rec::close, "replay-close"));
+            }
+        } catch (IOException e) {
+            System.err.println("Replay not started: " + e.getMessage());
+            playback = null;
+        }
     }
 
     public void start() {
@@ -44,17 +97,47 @@ public final class GamePanel extends JPanel {
     }
 
     private void tick() {
+        if (playback != null) {
+            if (playback.step()) {
+                repaint();
+                return;
+            }
+            playback = null; // recording used up: the keyboard takes over
+        }
+
+        step();
+        repaint();
+    }
+
+    // A key on the map: resolve it and the enemies' reply now and paint the result before returning
+    private void stepNow() {
+        stepQueued = false;
+        if (playback != null || !game.acceptsImmediateInput()) return; // state changed: the tick will handle it
+
+        step();
+        if (game.enemyTurnPending()) step();
+        paintImmediately(0, 0, getWidth(), getHeight());
+    }
+
+    private void step() {
+        long t0 = System.nanoTime();
+        input.pollEvents();
+        if (keyNanos != 0 && shownNanos == 0) {
+            shownNanos = keyNanos;
+            keyNanos = 0;
+        }
+
         // Update game (Game handles R with fade)
         game.update(input);
 
         // Consume taps
         input.endFrame();
-
-        repaint();
+        perf.update(System.nanoTime() - t0);
     }
 
     @Override
     protected void paintComponent(Graphics g0) {
+        long t0 = System.nanoTime();
         super.paintComponent(g0);
 
         // Logical buffer (your game is authored in this resolution)
@@ -77,5 +160,14 @@ public final class GamePanel extends JPanel {
         Graphics2D g2 = (Graphics2D) g0;
         g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
         g2.drawImage(img, 0, 0, getWidth(), getHeight(), null);
+        perf.draw(g2, immediate);
+
+        long t1 = System.nanoTime();
+        perf.paint(t1 - t0);
+        if (shownNanos != 0) {
+            Toolkit.getDefaultToolkit().sync(); // flush to the display before calling it shown
+            perf.inputToPhoton(System.nanoTime() - shownNanos);
+            shownNanos = 0;
+        }
     }
 }
\ No newline at end of file
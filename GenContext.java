@@ -0,0 +1,27 @@
+package org.example.world;
+
+import org.example.game.util.RNG;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Map state shared by the passes of one GenPipeline run. */
+public final class GenContext {
+    public final Dungeon d;
+    public final RNG rng;
+    public final GenParams params;
+    public final GenWorkspace ws = GenWorkspace.get(); // this thread's scratch; passes hand it to the helpers
+
+    // Rooms in placement order; rooms.get(0) is the start room unless a pass says otherwise.
+    public final List<Rect> rooms = new ArrayList<>();
+
+    // Filled in by the stairs pass
+    public Rect startRoom;
+    public Rect stairsRoom;
+
+    public GenContext(Dungeon d, RNG rng, GenParams params) {
+        this.d = d;
+        this.rng = rng;
+        this.params = params;
+    }
+}
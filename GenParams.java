@@ -0,0 +1,85 @@
+package org.example.world;
+
+import org.example.game.GameConfig;
+
+/**
+ * Per-floor dungeon generation knobs (map size, room count, room size range).
+ * GameConfig still holds the baseline values; floors derive from them.
+ */
+public final class GenParams {
+    /** Which generator pipeline builds the floor. */
+    public enum Style { ROOMS, CAVE }
+
+    public final Style style;
+    public final int w, h;
+    public final int maxRooms;
+    public final int roomMin, roomMax;
+
+    // How many darts we throw when placing rooms. The classic generator throws one per room slot.
+    public final int placementAttempts;
+
+    public GenParams(int w, int h, int maxRooms, int roomMin, int roomMax, int placementAttempts) {
+        this(Style.ROOMS, w, h, maxRooms, roomMin, roomMax, placementAttempts);
+    }
+
+    public GenParams(Style style, int w, int h, int maxRooms, int roomMin, int roomMax, int placementAttempts) {
+        if (roomMin < 1 || roomMax < roomMin) throw new IllegalArgumentException("bad room size range");
+        this.style = style;
+        this.w = w;
+        this.h = h;
+        this.maxRooms = Math.max(0, maxRooms);
+        this.roomMin = roomMin;
+        this.roomMax = roomMax;
+        this.placementAttempts = Math.max(0, placementAttempts);
+    }
+
+    /** The original fixed settings (GameConfig sizes, MAX_ROOMS darts). */
+    public static GenParams defaults() {
+        return new GenParams(
+                GameConfig.DUNGEON_W, GameConfig.DUNGEON_H,
+                GameConfig.MAX_ROOMS,
+                GameConfig.ROOM_MIN, GameConfig.ROOM_MAX,
+                GameConfig.MAX_ROOMS
+        );
+    }
+
+    /** Deeper floors get a few more rooms; size range stays the same for now. Every 4th floor is a cave. */
+    public static GenParams forFloor(int floor) {
+        int extra = Math.min(6, Math.max(0, floor - 1) / 3); // +1 room every 3 floors, capped
+        int rooms = GameConfig.MAX_ROOMS + extra;
+        Style style = (floor > 0 && floor % 4 == 0) ? Style.CAVE : Style.ROOMS;
+        return new GenParams(
+                style,
+                GameConfig.DUNGEON_W, GameConfig.DUNGEON_H,
+                rooms,
+                GameConfig.ROOM_MIN, GameConfig.ROOM_MAX,
+                rooms
+        );
+    }
+
+    /**
+     * Big-map preset: room budget scales with area and we throw several darts per room,
+     * so thousands of rooms are fine (placement is near-linear thanks to RoomGrid).
+     */
+    public static GenParams large(int w, int h) {
+        int roomArea = (GameConfig.ROOM_MAX + 2) * (GameConfig.ROOM_MAX + 2);
+        int rooms = Math.max(GameConfig.MAX_ROOMS, (w * h) / (roomArea * 3));
+        return new GenParams(w, h, rooms, GameConfig.ROOM_MIN, GameConfig.ROOM_MAX, rooms * 4);
+    }
+
+    public GenParams withSize(int w, int h) {
+        return new GenParams(style, w, h, maxRooms, roomMin, roomMax, placementAttempts);
+    }
+
+    public GenParams withRooms(int maxRooms, int placementAttempts) {
+        return new GenParams(style, w, h, maxRooms, roomMin, roomMax, placementAttempts);
+    }
+
+    public GenParams withRoomSize(int roomMin, int roomMax) {
+        return new GenParams(style, w, h, maxRooms, roomMin, roomMax, placementAttempts);
+    }
+
+    public GenParams withStyle(Style style) {
+        return new GenParams(style, w, h, maxRooms, roomMin, roomMax, placementAttempts);
+    }
+}
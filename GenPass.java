@@ -0,0 +1,8 @@
+package org.example.world;
+
+/** One named step of map generation. Passes read/write the shared GenContext in pipeline order. */
+public interface GenPass {
+    String name();
+
+    void apply(GenContext ctx);
+}
@@ -0,0 +1,131 @@
+package org.example.world;
+
+import org.example.game.util.ThreadAlloc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered list of generation passes with per-pass wall-clock and allocation tracking.
+ *
+ * Timings are kept for the last run and summed over all runs, so a pipeline reused across
+ * many floors (fuzzer, benchmarks) shows which stage dominates. Not thread-safe: use one per thread.
+ */
+public final class GenPipeline {
+    private final List<GenPass> passes = new ArrayList<>();
+
+    private long[] lastNanos = new long[0];
+    private long[] lastAlloc = new long[0];
+    private long[] totalNanos = new long[0];
+    private long[] totalAlloc = new long[0];
+    private long runs = 0;
+
+    private boolean profiling = true;
+
+    public GenPipeline add(GenPass pass) {
+        passes.add(pass);
+        resizeStats();
+        return this;
+    }
+
+    /** Swap the pass with the given name (e.g. a different room placer). Throws if no such pass. */
+    public GenPipeline replace(String name, GenPass pass) {
+        passes.set(indexOf(name), pass);
+        resetStats();
+        return this;
+    }
+
+    public GenPipeline insertAfter(String name, GenPass pass) {
+        passes.add(indexOf(name) + 1, pass);
+        resizeStats();
+        return this;
+    }
+
+    public GenPipeline remove(String name) {
+        passes.remove(indexOf(name));
+        resizeStats();
+        return this;
+    }
+
+    public void setProfiling(boolean on) {
+        this.profiling = on;
+    }
+
+    public void run(GenContext ctx) {
+        boolean alloc = profiling && ThreadAlloc.supported();
+
+        for (int i = 0; i < passes.size(); i++) {
+            long a0 = alloc ? ThreadAlloc.bytes() : 0L;
+            long t0 = profiling ? System.nanoTime() : 0L;
+
+            passes.get(i).apply(ctx);
+
+            if (profiling) {
+                long dt = System.nanoTime() - t0;
+                long da = alloc ? Math.max(0L, ThreadAlloc.bytes() - a0) : 0L;
+                lastNanos[i] = dt;
+                lastAlloc[i] = da;
+                totalNanos[i] += dt;
+                totalAlloc[i] += da;
+            }
+        }
+        runs++;
+    }
+
+    public int size() { return passes.size(); }
+    public String passName(int i) { return passes.get(i).name(); }
+    public long lastNanos(int i) { return lastNanos[i]; }
+    public long lastAllocBytes(int i) { return lastAlloc[i]; }
+    public long totalNanos(int i) { return totalNanos[i]; }
+    public long totalAllocBytes(int i) { return totalAlloc[i]; }
+    public long runs() { return runs; }
+
+    /** Fold another pipeline's totals into this one (same pass layout), e.g. per-thread pipelines. */
+    public void addTotals(GenPipeline other) {
+        if (other.passes.size() != passes.size()) throw new IllegalArgumentException("pipeline layouts differ");
+        for (int i = 0; i < passes.size(); i++) {
+            totalNanos[i] += other.totalNanos[i];
+            totalAlloc[i] += other.totalAlloc[i];
+        }
+        runs += other.runs;
+    }
+
+    /** One line per pass: average time and allocation per run, plus share of total time. */
+    public String report() {
+        long sum = 0;
+        for (long t : totalNanos) sum += t;
+
+        StringBuilder sb = new StringBuilder();
+        long n = Math.max(1, runs);
+        for (int i = 0; i < passes.size(); i++) {
+            sb.append(String.format("%-12s %9.1f us  %9.1f KB  %5.1f%%%n",
+                    passes.get(i).name(),
+                    totalNanos[i] / (double) n / 1000.0,
+                    totalAlloc[i] / (double) n / 1024.0,
+                    sum == 0 ? 0.0 : 100.0 * totalNanos[i] / sum));
+        }
+        sb.append(String.format("%-12s %9.1f us  over %d runs%n", "total", sum / (double) n / 1000.0, runs));
+        return sb.toString();
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < passes.size(); i++) {
+            if (passes.get(i).name().equals(name)) return i;
+        }
+        throw new IllegalArgumentException("no pass named " + name);
+    }
+
+    private void resizeStats() {
+        int n = passes.size();
+        lastNanos = java.util.Arrays.copyOf(lastNanos, n);
+        lastAlloc = java.util.Arrays.copyOf(lastAlloc, n);
+        resetStats();
+    }
+
+    private void resetStats() {
+        int n = passes.size();
+        totalNanos = new long[n];
+        totalAlloc = new long[n];
+        runs = 0;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.world;
+
+import org.example.game.util.IntList;
+import org.example.game.util.IntQueue;
+
+/**
+ * Reusable scratch buffers for map generation (one per generator thread).
+ *
+ * Coordinates are packed as a single int index (x + y * w) so queues and lists stay primitive.
+ * The visited grid uses a stamp instead of a boolean[][]: bumping the stamp "clears" it in O(1).
+ */
+public final class GenWorkspace {
+    private static final ThreadLocal<GenWorkspace> LOCAL = ThreadLocal.withInitial(GenWorkspace::new);
+
+    /** Workspace owned by the calling thread (bulk / background generation gets its own). */
+    public static GenWorkspace get() {
+        return LOCAL.get();
+    }
+
+    public final IntQueue queue = new IntQueue(1024);
+    public final IntQueue queue2 = new IntQueue(1024);
+    public final IntList cells = new IntList(64);
+
+    // Bit-packed grid for the cave passes
+    final CaveBits caveBits = new CaveBits();
+
+    private int w, h;
+    private int[] marks = new int[0];
+    private int stamp = 0;
+
+    // Second stamped grid for searches that need their own visited set + back-pointers
+    private int[] parent = new int[0];
+    private int[] parentMarks = new int[0];
+    private int parentStamp = 0;
+
+    private GenWorkspace() {}
+
+    /** Prepare the mark grid for a w*h map and clear all marks. */
+    public void resetMarks(int w, int h) {
+        this.w = w;
+        this.h = h;
+
+        int n = w * h;
+        if (marks.length < n) {
+            marks = new int[n];
+            stamp = 0;
+        }
+
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            // wrapped: wipe once and start over
+            java.util.Arrays.fill(marks, 0);
+            stamp = 1;
+        }
+    }
+
+    /** Clear the parent grid (same w*h as the last resetMarks call). */
+    public void resetParents() {
+        int n = w * h;
+        if (parent.length < n) {
+            parent = new int[n];
+            parentMarks = new int[n];
+            parentStamp = 0;
+        }
+
+        parentStamp++;
+        if (parentStamp == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(parentMarks, 0);
+            parentStamp = 1;
+        }
+    }
+
+    public boolean hasParent(int p) {
+        return parentMarks[p] == parentStamp;
+    }
+
+    public void setParent(int p, int from) {
+        parentMarks[p] = parentStamp;
+        parent[p] = from;
+    }
+
+    public int parent(int p) {
+        return parent[p];
+    }
+
+    public int w() { return w; }
+    public int h() { return h; }
+
+    public int pack(int x, int y) { return x + y * w; }
+    public int unpackX(int p) { return p % w; }
+    public int unpackY(int p) { return p / w; }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < w && y < h;
+    }
+
+    public boolean isMarked(int x, int y) {
+        return inBounds(x, y) && marks[x + y * w] == stamp;
+    }
+
+    public void mark(int x, int y) {
+        marks[x + y * w] = stamp;
+    }
+}
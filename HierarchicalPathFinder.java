@@ -0,0 +1,639 @@
+package org.example.world;
+
+import org.example.game.util.IntList;
+import org.example.game.util.IntQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HPA*-style path finding for big maps: the map is cut into square clusters, every opening across a
+ * cluster border gets an entrance node on each side, and entrances of one cluster are linked by their
+ * BFS distance inside it. A query hooks start and goal into their clusters, runs A* on that small
+ * abstract graph, then refines each hop with a BFS that never leaves one cluster.
+ *
+ * Routes through entrance tiles can bend badly on short trips, so the stitched path is then smoothed:
+ * it is cut into windows of SMOOTH_WINDOW steps and each window with slack (longer than the Manhattan
+ * distance between its ends) is re-searched by BFS in a box around it, twice with the windows shifted by
+ * half. Paths stay near-shortest and are never wrong: a route is found whenever one exists. When a tile
+ * changes walkability (a locked door opens) only that cluster and its neighbours are rebuilt.
+ */
+public final class HierarchicalPathFinder implements TileChangeListener {
+    public static final int DEFAULT_CLUSTER = 32;
+    private static final int LONG_SPAN = 6; // openings at least this wide get an entrance at both ends
+    private static final int SMOOTH_WINDOW = 32; // path steps re-searched at once
+    private static final int SMOOTH_MARGIN = 8;  // box around a window's tiles the re-search may use
+    private static final int BOX = SMOOTH_WINDOW + 2 * SMOOTH_MARGIN + 1; // max box side
+
+    private static final class Node {
+        int tile, cluster;
+        final IntList intraTo = new IntList(8);
+        final IntList intraCost = new IntList(8);
+        final IntList interTo = new IntList(2);
+
+        Node(int tile, int cluster) {
+            this.tile = tile;
+            this.cluster = cluster;
+        }
+
+        // Reuse a dead node's id and lists for a new entrance
+        void reset(int tile, int cluster) {
+            this.tile = tile;
+            this.cluster = cluster;
+            intraTo.clear();
+            intraCost.clear();
+            interTo.clear();
+        }
+    }
+
+    private final WorldMap map;
+    private final int w, h, cs, cw, ch;
+
+    // Row-major walkability copy: the BFS loops are the hot part, and this skips the map's bounds checks
+    private final boolean[] walk;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final IntList freeIds = new IntList(16); // ids of dead nodes, reused before nodes grows
+    private final IntList[] clusterNodes;
+
+    // Local BFS scratch (cluster-sized, stamped)
+    private final int[] localDist, localParent, localMarks;
+    private int localStamp = 0;
+    private final IntQueue queue = new IntQueue(256);
+
+    // Abstract search scratch (grows with the node count, stamped)
+    private int[] g = new int[0], parent = new int[0], marks = new int[0], closed = new int[0];
+    private int stamp = 0;
+    private long[] heap = new long[256];
+    private int heapSize = 0;
+
+    // Start/goal hooks of the current query
+    private final IntList startTo = new IntList(16), startCost = new IntList(16);
+    private int[] goalCost = new int[0], goalMarks = new int[0];
+
+    private final IntList abstractPath = new IntList(64);
+    private final IntList segment = new IntList(64);
+
+    // Smoothing scratch (box-sized, stamped)
+    private final int[] boxDist = new int[BOX * BOX], boxParent = new int[BOX * BOX], boxMarks = new int[BOX * BOX];
+    private int boxStamp = 0;
+    private final IntList smoothed = new IntList(256);
+
+    public HierarchicalPathFinder(WorldMap map) {
+        this(map, DEFAULT_CLUSTER);
+    }
+
+    public HierarchicalPathFinder(WorldMap map, int clusterSize) {
+        this(map, clusterSize, true);
+    }
+
+    /**
+     * Built without listening to the map, so it can run off the game thread (the listener list isn't
+     * thread-safe). The owner then calls refresh for tiles changed meanwhile and attach, on the game thread.
+     */
+    static HierarchicalPathFinder detached(WorldMap map) {
+        return new HierarchicalPathFinder(map, DEFAULT_CLUSTER, false);
+    }
+
+    private HierarchicalPathFinder(WorldMap map, int clusterSize, boolean listen) {
+        this.map = map;
+        this.w = map.w();
+        this.h = map.h();
+        this.cs = Math.max(4, clusterSize);
+        this.cw = (w + cs - 1) / cs;
+        this.ch = (h + cs - 1) / cs;
+
+        walk = new boolean[w * h];
+        for (int x = 0; x < w; x++) {
+            for (int y = 0; y < h; y++) walk[x + y * w] = map.isWalkable(x, y);
+        }
+
+        clusterNodes = new IntList[cw * ch];
+        for (int i = 0; i < clusterNodes.length; i++) clusterNodes[i] = new IntList(8);
+
+        localDist = new int[cs * cs];
+        localParent = new int[cs * cs];
+        localMarks = new int[cs * cs];
+
+        for (int cy = 0; cy < ch; cy++) {
+            for (int cx = 0; cx < cw; cx++) {
+                if (cx + 1 < cw) scanBorder(cx, cy, true);
+                if (cy + 1 < ch) scanBorder(cx, cy, false);
+            }
+        }
+        for (int c = 0; c < clusterNodes.length; c++) linkCluster(c);
+
+        if (listen) map.addTileChangeListener(this);
+    }
+
+    /** Start listening to the map (after detached). */
+    void attach() {
+        map.addTileChangeListener(this);
+    }
+
+    /** Catch up with tile (x, y) if the map changed it since the graph read it. */
+    void refresh(int x, int y) {
+        boolean now = map.isWalkable(x, y);
+        if (walk[x + y * w] == now) return;
+        walk[x + y * w] = now;
+        rebuildAround(clusterOf(x, y));
+    }
+
+    /** Stop listening to the map (the graph goes stale after this). */
+    public void detach() {
+        map.removeTileChangeListener(this);
+    }
+
+    public int nodeCount() {
+        return nodes.size() - freeIds.size();
+    }
+
+    /** Hops of the last abstract path (start and goal included); 0 if it was solved inside one cluster. */
+    public int lastAbstractLength() {
+        return abstractPath.size();
+    }
+
+    /**
+     * Path from (sx, sy) to (tx, ty); out gets the packed tiles after the start, ending at the goal.
+     * Returns false if the goal is unreachable.
+     */
+    public boolean findPath(int sx, int sy, int tx, int ty, IntList out) {
+        out.clear();
+        abstractPath.clear();
+        if (!map.inBounds(sx, sy) || !map.inBounds(tx, ty)) return false;
+        if (!walk[sx + sy * w] || !walk[tx + ty * w]) return false;
+        if (sx == tx && sy == ty) return true;
+
+        int s = sx + sy * w, t = tx + ty * w;
+        int sc = clusterOf(sx, sy), tc = clusterOf(tx, ty);
+
+        // Same cluster and connected inside it: no abstract search needed
+        if (sc == tc && localBfs(sc, s, t)) {
+            appendLocal(sc, s, t, out);
+            return true;
+        }
+
+        if (!abstractSearch(s, sc, t, tc)) return false;
+
+        int prevTile = s;
+        int prevCluster = sc;
+        for (int i = 1; i < abstractPath.size(); i++) {
+            int id = abstractPath.get(i);
+            int tile = (id == nodes.size() + 1) ? t : nodes.get(id).tile;
+            int cluster = (id == nodes.size() + 1) ? tc : nodes.get(id).cluster;
+
+            if (cluster != prevCluster) {
+                out.add(tile); // inter edge: neighbouring tiles across a border
+            } else if (tile != prevTile) {
+                localBfs(cluster, prevTile, tile);
+                appendLocal(cluster, prevTile, tile, out);
+            }
+            prevTile = tile;
+            prevCluster = cluster;
+        }
+
+        smoothPass(s, out, 0);
+        smoothPass(s, out, SMOOTH_WINDOW / 2);
+        return true;
+    }
+
+    @Override
+    public void tileChanged(WorldMap m, int x, int y, Tile before, Tile after) {
+        if (m != map || before.walkable == after.walkable) return;
+        walk[x + y * w] = after.walkable;
+        rebuildAround(clusterOf(x, y));
+    }
+
+    // -----------------------------
+    // Graph building
+    // -----------------------------
+
+    private int clusterOf(int x, int y) {
+        return (x / cs) + (y / cs) * cw;
+    }
+
+    /** Entrances on the right (vertical=true) or bottom border of cluster (cx, cy). */
+    private void scanBorder(int cx, int cy, boolean vertical) {
+        int a = cx + cy * cw;
+        int b = vertical ? a + 1 : a + cw;
+
+        int len = vertical ? Math.min(cs, h - cy * cs) : Math.min(cs, w - cx * cs);
+        int fixed = vertical ? (cx + 1) * cs - 1 : (cy + 1) * cs - 1; // last row/column of cluster a
+        int base = vertical ? cy * cs : cx * cs;
+
+        int spanStart = -1;
+        for (int i = 0; i <= len; i++) {
+            boolean open = i < len && (vertical
+                    ? walk[fixed + (base + i) * w] && walk[fixed + 1 + (base + i) * w]
+                    : walk[base + i + fixed * w] && walk[base + i + (fixed + 1) * w]);
+
+            if (open) {
+                if (spanStart < 0) spanStart = i;
+                continue;
+            }
+            if (spanStart < 0) continue;
+
+            int spanEnd = i - 1;
+            if (spanEnd - spanStart + 1 >= LONG_SPAN) {
+                addEntrance(a, b, vertical, fixed, base + spanStart);
+                addEntrance(a, b, vertical, fixed, base + spanEnd);
+            } else {
+                addEntrance(a, b, vertical, fixed, base + (spanStart + spanEnd) / 2);
+            }
+            spanStart = -1;
+        }
+    }
+
+    private void addEntrance(int a, int b, boolean vertical, int fixed, int along) {
+        int ta = vertical ? fixed + along * w : along + fixed * w;
+        int tb = vertical ? ta + 1 : ta + w;
+
+        int na = nodeAt(a, ta), nb = nodeAt(b, tb);
+        Node A = nodes.get(na), B = nodes.get(nb);
+        if (!contains(A.interTo, nb)) A.interTo.add(nb);
+        if (!contains(B.interTo, na)) B.interTo.add(na);
+    }
+
+    private int nodeAt(int cluster, int tile) {
+        IntList list = clusterNodes[cluster];
+        for (int i = 0; i < list.size(); i++) {
+            if (nodes.get(list.get(i)).tile == tile) return list.get(i);
+        }
+        int id;
+        if (!freeIds.isEmpty()) {
+            id = freeIds.get(freeIds.size() - 1);
+            freeIds.swapRemove(freeIds.size() - 1);
+            nodes.get(id).reset(tile, cluster);
+        } else {
+            id = nodes.size();
+            nodes.add(new Node(tile, cluster));
+        }
+        list.add(id);
+        return id;
+    }
+
+    /** (Re)build intra-cluster edges: one BFS per entrance, each pair stored both ways. */
+    private void linkCluster(int c) {
+        IntList list = clusterNodes[c];
+        for (int i = 0; i < list.size(); i++) {
+            Node n = nodes.get(list.get(i));
+            n.intraTo.clear();
+            n.intraCost.clear();
+        }
+
+        for (int i = 0; i < list.size(); i++) {
+            Node a = nodes.get(list.get(i));
+            localBfs(c, a.tile, -1);
+
+            for (int j = i + 1; j < list.size(); j++) {
+                Node b = nodes.get(list.get(j));
+                int d = localDistance(c, b.tile);
+                if (d < 0) continue;
+                a.intraTo.add(list.get(j));
+                a.intraCost.add(d);
+                b.intraTo.add(list.get(i));
+                b.intraCost.add(d);
+            }
+        }
+    }
+
+    // A walkability change inside cluster k: redo its borders, then intra edges of it and its neighbours.
+    // Dropped nodes go on the free list; nothing references them by the time scanBorder hands the ids out again.
+    private void rebuildAround(int k) {
+        IntList own = clusterNodes[k];
+        for (int i = 0; i < own.size(); i++) {
+            int id = own.get(i);
+            Node n = nodes.get(id);
+            freeIds.add(id);
+
+            for (int j = 0; j < n.interTo.size(); j++) {
+                int pid = n.interTo.get(j);
+                Node p = nodes.get(pid);
+                removeValue(p.interTo, id);
+                if (p.interTo.isEmpty()) {
+                    freeIds.add(pid);
+                    removeValue(clusterNodes[p.cluster], pid);
+                }
+            }
+        }
+        own.clear();
+
+        int cx = k % cw, cy = k / cw;
+        if (cx + 1 < cw) scanBorder(cx, cy, true);
+        if (cx > 0) scanBorder(cx - 1, cy, true);
+        if (cy + 1 < ch) scanBorder(cx, cy, false);
+        if (cy > 0) scanBorder(cx, cy - 1, false);
+
+        linkCluster(k);
+        if (cx + 1 < cw) linkCluster(k + 1);
+        if (cx > 0) linkCluster(k - 1);
+        if (cy + 1 < ch) linkCluster(k + cw);
+        if (cy > 0) linkCluster(k - cw);
+    }
+
+    private static boolean contains(IntList list, int v) {
+        for (int i = 0; i < list.size(); i++) if (list.get(i) == v) return true;
+        return false;
+    }
+
+    private static void removeValue(IntList list, int v) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == v) {
+                list.swapRemove(i);
+                return;
+            }
+        }
+    }
+
+    // -----------------------------
+    // Local (one cluster) BFS
+    // -----------------------------
+
+    /** BFS from tile src without leaving cluster c; stops early at target (-1 = fill the cluster). */
+    private boolean localBfs(int c, int src, int target) {
+        localStamp++;
+        if (localStamp == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(localMarks, 0);
+            localStamp = 1;
+        }
+
+        int x0 = (c % cw) * cs, y0 = (c / cw) * cs;
+        int x1 = Math.min(w, x0 + cs), y1 = Math.min(h, y0 + cs);
+
+        queue.clear();
+        int ls = (src % w - x0) + (src / w - y0) * cs;
+        localMarks[ls] = localStamp;
+        localDist[ls] = 0;
+        localParent[ls] = -1;
+        queue.add(ls);
+
+        int lt = (target >= 0) ? (target % w - x0) + (target / w - y0) * cs : -1;
+        int lw = x1 - x0, lh = y1 - y0;
+
+        while (!queue.isEmpty()) {
+            int l = queue.poll();
+            if (l == lt) return true;
+
+            int lx = l % cs, ly = l / cs;
+            int tile = x0 + lx + (y0 + ly) * w;
+            int nd = localDist[l] + 1;
+
+            // unrolled 4-neighbourhood, bounds = this cluster
+            if (lx + 1 < lw) localVisit(l + 1, tile + 1, l, nd);
+            if (lx > 0)      localVisit(l - 1, tile - 1, l, nd);
+            if (ly + 1 < lh) localVisit(l + cs, tile + w, l, nd);
+            if (ly > 0)      localVisit(l - cs, tile - w, l, nd);
+        }
+        return target < 0;
+    }
+
+    private void localVisit(int nl, int tile, int from, int nd) {
+        if (localMarks[nl] == localStamp || !walk[tile]) return;
+        localMarks[nl] = localStamp;
+        localDist[nl] = nd;
+        localParent[nl] = from;
+        queue.add(nl);
+    }
+
+    // Distance to tile from the last localBfs in cluster c, or -1
+    private int localDistance(int c, int tile) {
+        int x0 = (c % cw) * cs, y0 = (c / cw) * cs;
+        int l = (tile % w - x0) + (tile / w - y0) * cs;
+        return (localMarks[l] == localStamp) ? localDist[l] : -1;
+    }
+
+    // Append the tiles after src up to target (last localBfs must have reached target)
+    private void appendLocal(int c, int src, int target, IntList out) {
+        int x0 = (c % cw) * cs, y0 = (c / cw) * cs;
+        int ls = (src % w - x0) + (src / w - y0) * cs;
+
+        segment.clear();
+        for (int l = (target % w - x0) + (target / w - y0) * cs; l != ls; l = localParent[l]) {
+            segment.add(x0 + l % cs + (y0 + l / cs) * w);
+        }
+        for (int i = segment.size() - 1; i >= 0; i--) out.add(segment.get(i));
+    }
+
+    // -----------------------------
+    // Smoothing
+    // -----------------------------
+
+    // Tile k of the full path: 0 is the start s, k >= 1 is path[k - 1]
+    private static int at(int s, IntList path, int k) {
+        return (k == 0) ? s : path.get(k - 1);
+    }
+
+    /** Re-search each window of the path (windows start at first, first + SMOOTH_WINDOW, ...). */
+    private void smoothPass(int s, IntList path, int first) {
+        int n = path.size();
+        if (n <= first + 1) return;
+
+        smoothed.clear();
+        for (int k = 1; k <= first; k++) smoothed.add(path.get(k - 1));
+
+        for (int i = first; i < n; ) {
+            int j = Math.min(n, i + SMOOTH_WINDOW);
+            int a = at(s, path, i), b = at(s, path, j);
+            int manhattan = Math.abs(a % w - b % w) + Math.abs(a / w - b / w);
+
+            if (j - i <= manhattan || !boxSearch(s, path, i, j)) {
+                for (int k = i + 1; k <= j; k++) smoothed.add(path.get(k - 1)); // already as short as it gets
+            }
+            i = j;
+        }
+
+        path.clear();
+        for (int k = 0; k < smoothed.size(); k++) path.add(smoothed.get(k));
+    }
+
+    /** BFS from path tile i to path tile j inside a box around them; appends the route to smoothed if shorter. */
+    private boolean boxSearch(int s, IntList path, int i, int j) {
+        int minX = w, minY = h, maxX = 0, maxY = 0;
+        for (int k = i; k <= j; k++) {
+            int tile = at(s, path, k);
+            minX = Math.min(minX, tile % w);
+            maxX = Math.max(maxX, tile % w);
+            minY = Math.min(minY, tile / w);
+            maxY = Math.max(maxY, tile / w);
+        }
+        int x0 = Math.max(0, minX - SMOOTH_MARGIN), y0 = Math.max(0, minY - SMOOTH_MARGIN);
+        int bw = Math.min(w, maxX + SMOOTH_MARGIN + 1) - x0, bh = Math.min(h, maxY + SMOOTH_MARGIN + 1) - y0;
+
+        boxStamp++;
+        if (boxStamp == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(boxMarks, 0);
+            boxStamp = 1;
+        }
+
+        int a = at(s, path, i), b = at(s, path, j);
+        int la = (a % w - x0) + (a / w - y0) * BOX;
+        int lb = (b % w - x0) + (b / w - y0) * BOX;
+        boxMarks[la] = boxStamp;
+        boxDist[la] = 0;
+        boxParent[la] = -1;
+        queue.clear();
+        queue.add(la);
+
+        while (!queue.isEmpty()) {
+            int l = queue.poll();
+            if (l == lb) break;
+
+            int lx = l % BOX, ly = l / BOX;
+            int tile = x0 + lx + (y0 + ly) * w;
+            int nd = boxDist[l] + 1;
+
+            if (lx + 1 < bw) boxVisit(l + 1, tile + 1, l, nd);
+            if (lx > 0)      boxVisit(l - 1, tile - 1, l, nd);
+            if (ly + 1 < bh) boxVisit(l + BOX, tile + w, l, nd);
+            if (ly > 0)      boxVisit(l - BOX, tile - w, l, nd);
+        }
+        if (boxMarks[lb] != boxStamp || boxDist[lb] >= j - i) return false; // the window itself is in the box
+
+        segment.clear();
+        for (int l = lb; l != la; l = boxParent[l]) segment.add(x0 + l % BOX + (y0 + l / BOX) * w);
+        for (int k = segment.size() - 1; k >= 0; k--) smoothed.add(segment.get(k));
+        return true;
+    }
+
+    private void boxVisit(int nl, int tile, int from, int nd) {
+        if (boxMarks[nl] == boxStamp || !walk[tile]) return;
+        boxMarks[nl] = boxStamp;
+        boxDist[nl] = nd;
+        boxParent[nl] = from;
+        queue.add(nl);
+    }
+
+    // -----------------------------
+    // Abstract A*
+    // -----------------------------
+
+    private boolean abstractSearch(int s, int sc, int t, int tc) {
+        int n = nodes.size();
+        int S = n, T = n + 1;
+        if (marks.length < n + 2) {
+            int cap = Math.max(n + 2, marks.length * 2);
+            g = new int[cap];
+            parent = new int[cap];
+            marks = new int[cap];
+            closed = new int[cap];
+            goalCost = new int[cap];
+            goalMarks = new int[cap];
+            stamp = 0;
+        }
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(marks, 0);
+            java.util.Arrays.fill(closed, 0);
+            java.util.Arrays.fill(goalMarks, 0);
+            stamp = 1;
+        }
+
+        // Hook the start and goal into the entrances of their clusters
+        startTo.clear();
+        startCost.clear();
+        localBfs(sc, s, -1);
+        IntList sn = clusterNodes[sc];
+        for (int i = 0; i < sn.size(); i++) {
+            int d = localDistance(sc, nodes.get(sn.get(i)).tile);
+            if (d < 0) continue;
+            startTo.add(sn.get(i));
+            startCost.add(d);
+        }
+
+        localBfs(tc, t, -1);
+        IntList tn = clusterNodes[tc];
+        boolean goalHooked = false;
+        for (int i = 0; i < tn.size(); i++) {
+            int d = localDistance(tc, nodes.get(tn.get(i)).tile);
+            if (d < 0) continue;
+            goalMarks[tn.get(i)] = stamp;
+            goalCost[tn.get(i)] = d;
+            goalHooked = true;
+        }
+        if (startTo.isEmpty() || !goalHooked) return false;
+
+        int tx = t % w, ty = t / w;
+        heapSize = 0;
+        relax(S, 0, -1, 0);
+
+        while (heapSize > 0) {
+            int id = (int) pop();
+            if (closed[id] == stamp) continue;
+            closed[id] = stamp;
+
+            if (id == T) {
+                abstractPath.clear();
+                for (int p = T; p >= 0; p = parent[p]) abstractPath.add(p);
+                for (int i = 0, j = abstractPath.size() - 1; i < j; i++, j--) {
+                    int tmp = abstractPath.get(i);
+                    abstractPath.set(i, abstractPath.get(j));
+                    abstractPath.set(j, tmp);
+                }
+                return true;
+            }
+
+            if (id == S) {
+                for (int i = 0; i < startTo.size(); i++) {
+                    int to = startTo.get(i);
+                    relax(to, startCost.get(i), S, heuristic(nodes.get(to).tile, tx, ty));
+                }
+                continue;
+            }
+
+            Node node = nodes.get(id);
+            int gid = g[id];
+            for (int i = 0; i < node.intraTo.size(); i++) {
+                int to = node.intraTo.get(i);
+                relax(to, gid + node.intraCost.get(i), id, heuristic(nodes.get(to).tile, tx, ty));
+            }
+            for (int i = 0; i < node.interTo.size(); i++) {
+                int to = node.interTo.get(i);
+                relax(to, gid + 1, id, heuristic(nodes.get(to).tile, tx, ty));
+            }
+            if (goalMarks[id] == stamp) relax(T, gid + goalCost[id], id, 0);
+        }
+        return false;
+    }
+
+    private int heuristic(int tile, int tx, int ty) {
+        return Math.abs(tile % w - tx) + Math.abs(tile / w - ty);
+    }
+
+    private void relax(int id, int ng, int from, int hx) {
+        if (marks[id] == stamp && ng >= g[id]) return;
+        marks[id] = stamp;
+        g[id] = ng;
+        parent[id] = from;
+        // f, then h: among equal f prefer nodes nearer the goal (cuts expansions a lot on open maps)
+        long f = ng + hx;
+        push((((f << 12) | Math.min(hx, 0xFFF)) << 32) | id);
+    }
+
+    private void push(long v) {
+        if (heapSize == heap.length) heap = java.util.Arrays.copyOf(heap, heap.length << 1);
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= v) break;
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = v;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= heapSize) break;
+            if (c + 1 < heapSize && heap[c + 1] < heap[c]) c++;
+            if (heap[c] >= last) break;
+            heap[i] = heap[c];
+            i = c;
+        }
+        if (heapSize > 0) heap[i] = last;
+        return top;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.game;
+
+import org.example.game.util.RNG;
+import org.example.game.util.ThreadAlloc;
+import org.example.world.Dungeon;
+
+import java.util.Arrays;
+
+/**
+ * Horde stress run for the dungeon turn loop: for each enemy count, a fresh floor is packed with that many
+ * enemies and Game.update is driven headlessly (a random walk, waiting when blocked) for a number of turns.
+ * Each turn is timed in two parts, the player phase (move, lookups, FOV) and the enemy phase, and the report
+ * gives latency percentiles, allocation per turn and one row per count, so it reads as a scaling curve.
+ *
+ * Allocation is this thread only; a parallel decide phase allocates on pool threads too.
+ *
+ * Usage: HordeBench [counts=1000,5000,20000,50000] [mapSize=512] [turns=400] [seed=1]
+ */
+public final class HordeBench {
+    private static final int WARMUP_TURNS = 50;
+    private static final Action[] MOVES = { Action.RIGHT, Action.LEFT, Action.DOWN, Action.UP };
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    public static void main(String[] args) {
+        int[] counts = Arrays.stream((args.length > 0 ? args[0] : "1000,5000,20000,50000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+        int turns = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+
+        System.out.printf("map %dx%d, %d turns per run (+%d warmup)%n", size, size, turns, WARMUP_TURNS);
+        System.out.printf("%8s %8s | %9s %9s | %9s %9s %9s %9s | %10s %8s%n",
+                "enemies", "placed", "plr p50", "plr p99", "enm p50", "enm p90", "enm p99", "enm max",
+                "alloc/turn", "turns/s");
+        for (int count : counts) System.out.println(run(count, size, turns, seed));
+    }
+
+    /** One row of the report for count enemies. */
+    public static String run(int count, int size, int turns, long seed) {
+        Game game = new Game();
+        game.startStressFloor(seed, size, size, count);
+        Input input = new Input();
+        RNG walk = new RNG(seed ^ 0x5DEECE66DL);
+
+        long[] playerNs = new long[turns];
+        long[] enemyNs = new long[turns];
+        boolean allocSupported = ThreadAlloc.supported();
+        long allocBefore = 0;
+        long wall0 = 0;
+
+        for (int t = -WARMUP_TURNS; t < turns; t++) {
+            if (t == 0) {
+                allocBefore = ThreadAlloc.bytes();
+                wall0 = System.nanoTime();
+            }
+            Action action = pickAction(game, walk);
+
+            long t0 = System.nanoTime();
+            input.tap(action);
+            game.update(input);
+            input.endFrame();
+            long t1 = System.nanoTime();
+            game.update(input); // enemy phase runs on the next frame
+            long t2 = System.nanoTime();
+
+            if (t >= 0) {
+                playerNs[t] = t1 - t0;
+                enemyNs[t] = t2 - t1;
+            }
+        }
+
+        double wallSecs = (System.nanoTime() - wall0) / 1e9;
+        long alloc = allocSupported ? ThreadAlloc.bytes() - allocBefore : -1;
+        Arrays.sort(playerNs);
+        Arrays.sort(enemyNs);
+
+        return String.format("%8d %8d | %9s %9s | %9s %9s %9s %9s | %10s %8.0f",
+                count, game.enemies().size(),
+                us(pct(playerNs, 50)), us(pct(playerNs, 99)),
+                us(pct(enemyNs, 50)), us(pct(enemyNs, 90)), us(pct(enemyNs, 99)), us(enemyNs[turns - 1]),
+                (alloc < 0) ? "n/a" : (alloc / turns / 1024) + " KB", turns / wallSecs);
+    }
+
+    // A random step, or wait when it would bump into a wall or start a battle
+    private static Action pickAction(Game game, RNG walk) {
+        Dungeon d = game.dungeon();
+        int dir = walk.nextInt(4);
+        int nx = game.player().x + DX[dir], ny = game.player().y + DY[dir];
+        if (!d.isWalkable(nx, ny) || game.isEnemyAt(nx, ny)) return Action.WAIT;
+        return MOVES[dir];
+    }
+
+    private static long pct(long[] sorted, int p) {
+        return sorted[Math.min(sorted.length - 1, (int) ((long) sorted.length * p / 100))];
+    }
+
+    private static String us(long ns) {
+        return String.format("%.1fus", ns / 1000.0);
+    }
+}
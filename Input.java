@@ -1,33 +1,134 @@
 package org.example.game;
 
+import org.example.game.util.SpscIntRing;
+
 import java.awt.event.KeyEvent;
-import java.util.HashSet;
-import java.util.Set;
 
+/**
+ * Key state as actions. Raw keys (from GamePanel, replays or HordeBench) go through a fixed key -> actions
+ * table; pressed and tapped state are bitsets over Action, so a check is a mask test and nothing is boxed.
+ * tap(Action) injects an action directly (scripts, bots).
+ *
+ * Keys from another thread (the AWT listener) go through post(), a lock-free queue the game loop empties
+ * with pollEvents() at the start of each frame, in order. A press that would tap an action already tapped
+ * this frame waits for the next one, so a key hit twice between two ticks still counts twice.
+ * press/release apply a key at once and belong to the game loop's thread (replays, HordeBench).
+ */
 public final class Input {
-    private final Set<Integer> pressed = new HashSet<>();
-    private final Set<Integer> tapped = new HashSet<>();
+    private static final int KEYS = 256; // key codes the bindings use are all below this
+
+    private static final long[] KEY_ACTIONS = new long[KEYS];
+    static {
+        bind(Action.UP, KeyEvent.VK_UP, KeyEvent.VK_W);
+        bind(Action.DOWN, KeyEvent.VK_DOWN, KeyEvent.VK_S);
+        bind(Action.LEFT, KeyEvent.VK_LEFT, KeyEvent.VK_A);
+        bind(Action.RIGHT, KeyEvent.VK_RIGHT, KeyEvent.VK_D);
+        bind(Action.CONFIRM, KeyEvent.VK_ENTER, KeyEvent.VK_SPACE);
+        bind(Action.INTERACT, KeyEvent.VK_ENTER);
+        bind(Action.WAIT, KeyEvent.VK_SPACE);
+        bind(Action.CANCEL, KeyEvent.VK_ESCAPE);
+        bind(Action.BACK, KeyEvent.VK_ESCAPE, KeyEvent.VK_BACK_SPACE);
+        bind(Action.INVENTORY, KeyEvent.VK_I);
+        bind(Action.TRAVEL, KeyEvent.VK_G);
+        bind(Action.LOG, KeyEvent.VK_L);
+        bind(Action.RESTART, KeyEvent.VK_R);
+        bind(Action.TALK, KeyEvent.VK_Z);
+        bind(Action.SELL, KeyEvent.VK_S);
+        bind(Action.YES, KeyEvent.VK_Y);
+        bind(Action.NO, KeyEvent.VK_N);
+    }
+
+    private static void bind(Action a, int... keys) {
+        for (int k : keys) KEY_ACTIONS[k] |= a.bit;
+    }
+
+    private final long[] keysDown = new long[KEYS / 64];
+    private final int[] held = new int[Action.values().length]; // keys holding each action down
+    private long tapped = 0;
+    private boolean anyTapped = false;
+    private Replay.Recorder recorder; // null: not recording
+
+    private final SpscIntRing events = new SpscIntRing(1024); // keyCode << 1 | down
+
+    /** Queue a key change from the producer thread, applied by the next pollEvents(); false if the queue is full. */
+    public boolean post(int keyCode, boolean down) {
+        return events.offer(keyCode << 1 | (down ? 1 : 0)); // full only if the loop has stalled for ages
+    }
+
+    /** Apply queued key changes in order, stopping at a press that would repeat a tap of this frame. */
+    public void pollEvents() {
+        while (!events.isEmpty()) {
+            int e = events.peek();
+            int k = e >> 1;
+            if ((e & 1) != 0) {
+                if (k >= 0 && k < KEYS && !isKeyDown(k) && (KEY_ACTIONS[k] & tapped) != 0) return; // next frame
+                events.poll();
+                press(k);
+            } else {
+                events.poll();
+                release(k);
+            }
+        }
+    }
+
+
+    public void press(int k) {
+        if (k >= 0 && k < KEYS) {
+            long bit = 1L << (k & 63);
+            if ((keysDown[k >>> 6] & bit) != 0) return; // auto-repeat
+            keysDown[k >>> 6] |= bit;
+
+            long m = KEY_ACTIONS[k];
+            tapped |= m;
+            for (; m != 0; m &= m - 1) held[Long.numberOfTrailingZeros(m)]++;
+        }
+        anyTapped = true;
+        if (recorder != null) recorder.key(true, k);
+    }
+
+    public void release(int k) {
+        if (k < 0 || k >= KEYS) return;
+        long bit = 1L << (k & 63);
+        if ((keysDown[k >>> 6] & bit) == 0) return;
+        keysDown[k >>> 6] &= ~bit;
+
+        for (long m = KEY_ACTIONS[k]; m != 0; m &= m - 1) held[Long.numberOfTrailingZeros(m)]--;
+        if (recorder != null) recorder.key(false, k);
+    }
+
+    /** Inject a one-frame action, as if its key had been tapped. */
+    public void tap(Action a) {
+        tapped |= a.bit;
+        anyTapped = true;
+        if (recorder != null) recorder.action(a);
+    }
+
+    /** Send key changes, injected actions and frame ends to r (null stops). Auto-repeat presses are not recorded. */
+    public void record(Replay.Recorder r) {
+        recorder = r;
+    }
 
-    public void onKeyPressed(KeyEvent e) {
-        int k = e.getKeyCode();
-        if (!pressed.contains(k)) tapped.add(k);
-        pressed.add(k);
+    private boolean isKeyDown(int k) {
+        return (keysDown[k >>> 6] & (1L << (k & 63))) != 0;
     }
 
-    public void onKeyReleased(KeyEvent e) {
-        pressed.remove(e.getKeyCode());
+    public boolean isDown(Action a) {
+        return held[a.ordinal()] > 0;
     }
 
-    public boolean isDown(int keyCode) {
-        return pressed.contains(keyCode);
+    public boolean wasTapped(Action a) {
+        return (tapped & a.bit) != 0;
     }
 
-    public boolean wasTapped(int keyCode) {
-        return tapped.contains(keyCode);
+    /** Any key at all (bound or not) or injected action this frame. */
+    public boolean anyTapped() {
+        return anyTapped;
     }
 
     public void endFrame() {
-        tapped.clear();
+        tapped = 0;
+        anyTapped = false;
+        if (recorder != null) recorder.endFrame();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package org.example.game.util;
+
+/** Growable list of primitive ints (no boxing). Clearing keeps the backing array. */
+public final class IntList {
+    private int[] buf;
+    private int size = 0;
+
+    public IntList(int initialCapacity) {
+        buf = new int[Math.max(4, initialCapacity)];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(int v) {
+        if (size == buf.length) buf = java.util.Arrays.copyOf(buf, buf.length << 1);
+        buf[size++] = v;
+    }
+
+    public int get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return buf[i];
+    }
+
+    public void set(int i, int v) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        buf[i] = v;
+    }
+
+    /** O(1) unordered removal: moves the last element into slot i. */
+    public int swapRemove(int i) {
+        int v = get(i);
+        buf[i] = buf[--size];
+        return v;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.game.util;
+
+/**
+ * Growable FIFO ring of primitive ints.
+ * Used for BFS frontiers so we don't box or allocate an int[] per node.
+ */
+public final class IntQueue {
+    private int[] buf;
+    private int head = 0; // next read
+    private int size = 0;
+
+    public IntQueue(int initialCapacity) {
+        buf = new int[Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1)];
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(int v) {
+        if (size == buf.length) grow();
+        buf[(head + size) & (buf.length - 1)] = v;
+        size++;
+    }
+
+    public int peek() {
+        if (size == 0) throw new IllegalStateException("queue empty");
+        return buf[head];
+    }
+
+    public int poll() {
+        if (size == 0) throw new IllegalStateException("queue empty");
+        int v = buf[head];
+        head = (head + 1) & (buf.length - 1);
+        size--;
+        return v;
+    }
+
+    private void grow() {
+        int[] next = new int[buf.length << 1];
+        for (int i = 0; i < size; i++) next[i] = buf[(head + i) & (buf.length - 1)];
+        buf = next;
+        head = 0;
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.world;
+
+import org.example.game.GameConfig;
+import org.example.game.util.IntQueue;
+
+/**
+ * What enemies can hear and smell of the player.
+ *
+ * Noise spreads from the player through walkable tiles (one level lost per step, so it goes around walls,
+ * not through them) and fades over turns; scent is laid on every tile the player stands on and fades slower,
+ * leaving a trail. Both grids store level + turn * decay, so a level fades with no per-turn pass:
+ * the current value is stored - now * decay. Sampling a tile is O(1).
+ *
+ * An emission is a BFS bounded by its loudness that stops wherever a louder (or fresher) sound already is,
+ * so a player walking along only touches the few tiles the new step actually changes.
+ */
+public final class NoiseMap {
+    public static final int NOISE_DECAY = 2; // levels lost per turn
+    public static final int SCENT_DECAY = 1;
+    // The player moves at most a tile per turn, so a trail tile this fresh is within ENEMY_SIM_RADIUS steps:
+    // whoever smells it is inside the full-AI window (same bound as GameConfig.NOISE_LOUD)
+    public static final int SCENT_STRENGTH = GameConfig.ENEMY_SIM_RADIUS + 1;
+
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    private WorldMap map;
+    private int w, h;
+    private int now;
+    private int[] noise = new int[0];
+    private int[] scent = new int[0];
+
+    private final IntQueue queue = new IntQueue(256);
+
+    /** Set the current turn; a different map starts silent. */
+    public void beginTurn(WorldMap m, int turn) {
+        now = turn;
+        if (m == map) return;
+
+        map = m;
+        w = m.w();
+        h = m.h();
+        int n = w * h;
+        if (noise.length < n) {
+            noise = new int[n];
+            scent = new int[n];
+        } else {
+            // 0 reads as silence on any turn >= 0
+            java.util.Arrays.fill(noise, 0, n, 0);
+            java.util.Arrays.fill(scent, 0, n, 0);
+        }
+    }
+
+    /** Sound of the given loudness at (x, y) this turn: heard up to loudness - 1 steps away. */
+    public void emit(int x, int y, int loudness) {
+        if (!map.inBounds(x, y)) return;
+
+        int offset = now * NOISE_DECAY;
+        int s = x + y * w;
+        if (noise[s] >= loudness + offset) return;
+        noise[s] = loudness + offset;
+        queue.clear();
+        queue.add(s);
+
+        while (!queue.isEmpty()) {
+            int p = queue.poll();
+            int next = noise[p] - 1;
+            if (next <= offset) continue; // would be silent
+
+            int px = p % w, py = p / w;
+            for (int i = 0; i < 4; i++) {
+                int nx = px + DX[i], ny = py + DY[i];
+                if (!map.isWalkable(nx, ny)) continue;
+
+                int np = nx + ny * w;
+                if (noise[np] >= next) continue; // as loud already: nothing to add there or past it
+                noise[np] = next;
+                queue.add(np);
+            }
+        }
+    }
+
+    public void depositScent(int x, int y) {
+        if (!map.inBounds(x, y)) return;
+        scent[x + y * w] = SCENT_STRENGTH + now * SCENT_DECAY;
+    }
+
+    /** Current noise level on (x, y), 0 if silent. */
+    public int noise(int x, int y) {
+        if (!map.inBounds(x, y)) return 0;
+        return Math.max(0, noise[x + y * w] - now * NOISE_DECAY);
+    }
+
+    /** Current scent on (x, y), 0 if none. */
+    public int scent(int x, int y) {
+        if (!map.inBounds(x, y)) return 0;
+        return Math.max(0, scent[x + y * w] - now * SCENT_DECAY);
+    }
+
+    /** Heard or smelled the player this turn. */
+    public boolean isAware(int x, int y) {
+        return noise(x, y) > 0 || scent(x, y) > 0;
+    }
+
+    /**
+     * Direction (0..3, same order as DistanceField) toward the louder neighbour, or the fresher scent
+     * when nothing is louder; -1 if neither gets closer.
+     */
+    public int bestStep(int x, int y, DistanceField.StepFilter filter) {
+        int dir = uphill(noise, NOISE_DECAY, x, y, filter);
+        return (dir >= 0) ? dir : uphill(scent, SCENT_DECAY, x, y, filter);
+    }
+
+    private int uphill(int[] grid, int decay, int x, int y, DistanceField.StepFilter filter) {
+        int offset = now * decay;
+        int best = -1;
+        int bestValue = Math.max(offset, grid[x + y * w]);
+
+        for (int i = 0; i < 4; i++) {
+            int nx = x + DX[i], ny = y + DY[i];
+            if (!map.inBounds(nx, ny)) continue;
+            int v = grid[nx + ny * w];
+            if (v <= bestValue) continue;
+            if (filter != null && !filter.allowed(nx, ny)) continue;
+            best = i;
+            bestValue = v;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,368 @@
+package org.example.world;
+
+import org.example.game.util.IntList;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 4-connected A* over a WorldMap (player travel, AI that needs an actual route).
+ *
+ * Nodes are packed ints (x + y * w); g / parent / closed live in stamped arrays and the open set is a
+ * binary heap of longs (f and h in the high half, node in the low half), so a query allocates nothing per node.
+ * Jump-point search can be switched on: on dungeon floors it cuts expansions ~8x and halves query time.
+ * In the open town the row scans of each vertical jump cost more than they save; plain A* with
+ * h tie-breaking is the faster choice there.
+ *
+ * Maps of 256x256 and up are routed through HierarchicalPathFinder instead. Building it takes a while on
+ * huge maps (~1.5 s at 2048x2048), so it is built on a background thread as soon as the map is attached
+ * (prepare() right after generating a floor); until it is ready those maps use flat A* too.
+ *
+ * Found paths are cached (LRU) and dropped when the map reports a walkability change through
+ * TileChangeListener. One instance per map user; not thread-safe.
+ */
+public final class PathFinder implements TileChangeListener {
+    public static final int DEFAULT_MAX_EXPANSIONS = 4096;
+    private static final int CACHE_SIZE = 32;
+    private static final int HIERARCHICAL_MIN_AREA = 256 * 256; // bigger maps route through HierarchicalPathFinder
+
+    private WorldMap map;
+    private int w, h;
+    private boolean jumpPoints = false;
+    private HierarchicalPathFinder hierarchical; // only for big maps, once built
+    private Future<HierarchicalPathFinder> building;
+    private final IntList changedWhileBuilding = new IntList(16); // packed tiles to replay into the new graph
+
+    private static final ExecutorService BUILDER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "path-hierarchy");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private int[] g = new int[0];
+    private int[] parent = new int[0];
+    private int[] marks = new int[0];
+    private int[] closed = new int[0];
+    private int stamp = 0;
+
+    private long[] heap = new long[256];
+    private int heapSize = 0;
+
+    private int goal;
+    private int lastExpansions = 0;
+
+    // (start << 32 | goal) -> steps after start, goal included
+    private final LinkedHashMap<Long, int[]> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /** Use jump points (corridor-heavy maps). Paths stay shortest either way. */
+    public void setJumpPoints(boolean on) {
+        this.jumpPoints = on;
+    }
+
+    /** Start on m's routing now (big maps: the background hierarchy build) so the first travel doesn't wait. */
+    public void prepare(WorldMap m) {
+        attach(m);
+    }
+
+    /** Expansions (heap pops) used by the last search that actually ran. */
+    public int lastExpansions() {
+        return lastExpansions;
+    }
+
+    /**
+     * Shortest path from (sx, sy) to (tx, ty); out gets the packed tiles after the start, ending at the goal.
+     * Returns false if there is no path or it wasn't found within maxExpansions.
+     */
+    public boolean findPath(WorldMap m, int sx, int sy, int tx, int ty, int maxExpansions, IntList out) {
+        out.clear();
+        attach(m);
+        if (!m.inBounds(sx, sy) || !m.isWalkable(tx, ty)) return false;
+        if (sx == tx && sy == ty) return true;
+
+        int s = sx + sy * w;
+        int t = tx + ty * w;
+
+        Long key = ((long) s << 32) | t;
+        int[] hit = cache.get(key);
+        if (hit != null) {
+            for (int p : hit) out.add(p);
+            return true;
+        }
+
+        if (hierarchyReady()) {
+            // Near-shortest, but cost no longer grows with the map; expansion budget doesn't apply
+            if (!hierarchical.findPath(sx, sy, tx, ty, out)) return false;
+        } else {
+            if (!search(s, t, maxExpansions)) return false;
+            buildPath(s, t, out);
+        }
+
+        int[] copy = new int[out.size()];
+        for (int i = 0; i < copy.length; i++) copy[i] = out.get(i);
+        cache.put(key, copy);
+        return true;
+    }
+
+    public boolean findPath(WorldMap m, int sx, int sy, int tx, int ty, IntList out) {
+        return findPath(m, sx, sy, tx, ty, DEFAULT_MAX_EXPANSIONS, out);
+    }
+
+    /** Packed first step toward (tx, ty), or -1. Repeated calls along the same route hit the cache. */
+    public int nextStep(WorldMap m, int sx, int sy, int tx, int ty, IntList scratch) {
+        if (!findPath(m, sx, sy, tx, ty, scratch) || scratch.isEmpty()) return -1;
+        return scratch.get(0);
+    }
+
+    @Override
+    public void tileChanged(WorldMap m, int x, int y, Tile before, Tile after) {
+        if (m != map || before.walkable == after.walkable) return;
+        if (building != null) changedWhileBuilding.add(x + y * w);
+
+        if (after.walkable) {
+            // A new opening can shorten anything
+            cache.clear();
+            return;
+        }
+
+        int p = x + y * w;
+        Iterator<int[]> it = cache.values().iterator();
+        while (it.hasNext()) {
+            for (int q : it.next()) {
+                if (q == p) {
+                    it.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void attach(WorldMap m) {
+        if (m == map) return;
+
+        if (map != null) map.removeTileChangeListener(this);
+        if (hierarchical != null) hierarchical.detach();
+        if (building != null) building.cancel(false); // a build already running just gets dropped
+        hierarchical = null;
+        building = null;
+        changedWhileBuilding.clear();
+
+        map = m;
+        m.addTileChangeListener(this);
+        cache.clear();
+
+        w = m.w();
+        h = m.h();
+        if (w * h >= HIERARCHICAL_MIN_AREA) {
+            WorldMap target = m;
+            building = BUILDER.submit(() -> HierarchicalPathFinder.detached(target));
+        }
+    }
+
+    /** Installs the hierarchy once its background build is done (game thread only). */
+    private boolean hierarchyReady() {
+        if (hierarchical != null) return true;
+        if (building == null || !building.isDone()) return false;
+
+        try {
+            hierarchical = building.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Path hierarchy build failed: " + e.getMessage(), e);
+        }
+        building = null;
+
+        // Tiles that changed while it was being built (a door opened): the graph may have read them either way
+        for (int i = 0; i < changedWhileBuilding.size(); i++) {
+            int p = changedWhileBuilding.get(i);
+            hierarchical.refresh(p % w, p / w);
+        }
+        changedWhileBuilding.clear();
+        hierarchical.attach();
+
+        // The flat grids were only the fallback; at this size they're large
+        g = parent = marks = closed = new int[0];
+        return true;
+    }
+
+    // -----------------------------
+    // Search
+    // -----------------------------
+
+    private boolean search(int s, int t, int maxExpansions) {
+        int n = w * h;
+        if (marks.length < n) {
+            g = new int[n];
+            parent = new int[n];
+            marks = new int[n];
+            closed = new int[n];
+            stamp = 0;
+        }
+
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(marks, 0);
+            java.util.Arrays.fill(closed, 0);
+            stamp = 1;
+        }
+
+        goal = t;
+        heapSize = 0;
+        lastExpansions = 0;
+        relax(s, 0, -1);
+
+        while (heapSize > 0) {
+            int p = (int) pop();
+            if (closed[p] == stamp) continue; // stale duplicate
+            closed[p] = stamp;
+
+            if (p == t) return true;
+            if (++lastExpansions > maxExpansions) return false;
+
+            if (jumpPoints) expandJump(p);
+            else expandPlain(p);
+        }
+        return false;
+    }
+
+    private void expandPlain(int p) {
+        int x = p % w, y = p / w;
+        int ng = g[p] + 1;
+        if (walkable(x + 1, y)) relax(p + 1, ng, p);
+        if (walkable(x - 1, y)) relax(p - 1, ng, p);
+        if (walkable(x, y + 1)) relax(p + w, ng, p);
+        if (walkable(x, y - 1)) relax(p - w, ng, p);
+    }
+
+    /*
+     * Jump points on a 4-connected grid: canonical paths go vertical-then-horizontal, so a horizontal
+     * run only turns where a wall beside it just ended (forced), and every vertical step also peeks
+     * left/right for something worth stopping at.
+     */
+    private void expandJump(int p) {
+        int x = p % w, y = p / w;
+        int from = parent[p];
+
+        if (from < 0) {
+            jumpTo(p, jumpH(x, y, 1));
+            jumpTo(p, jumpH(x, y, -1));
+            jumpTo(p, jumpV(x, y, 1));
+            jumpTo(p, jumpV(x, y, -1));
+            return;
+        }
+
+        int fy = from / w;
+        if (fy == y) {
+            int dx = (x > from % w) ? 1 : -1;
+            jumpTo(p, jumpH(x, y, dx));
+            if (forcedH(x, y, dx, 1)) jumpTo(p, jumpV(x, y, 1));
+            if (forcedH(x, y, dx, -1)) jumpTo(p, jumpV(x, y, -1));
+        } else {
+            int dy = (y > fy) ? 1 : -1;
+            jumpTo(p, jumpV(x, y, dy));
+            jumpTo(p, jumpH(x, y, 1));
+            jumpTo(p, jumpH(x, y, -1));
+        }
+    }
+
+    private void jumpTo(int p, int jp) {
+        if (jp < 0) return;
+        int d = Math.abs(jp % w - p % w) + Math.abs(jp / w - p / w);
+        relax(jp, g[p] + d, p);
+    }
+
+    private int jumpH(int x, int y, int dx) {
+        while (true) {
+            x += dx;
+            if (!walkable(x, y)) return -1;
+            int p = x + y * w;
+            if (p == goal || forcedH(x, y, dx, 1) || forcedH(x, y, dx, -1)) return p;
+        }
+    }
+
+    private int jumpV(int x, int y, int dy) {
+        while (true) {
+            y += dy;
+            if (!walkable(x, y)) return -1;
+            int p = x + y * w;
+            if (p == goal || jumpH(x, y, 1) >= 0 || jumpH(x, y, -1) >= 0) return p;
+        }
+    }
+
+    // Moving horizontally by dx onto (x, y): turning vy is forced if the tile beside where we came from is blocked
+    private boolean forcedH(int x, int y, int dx, int vy) {
+        return walkable(x, y + vy) && !walkable(x - dx, y + vy);
+    }
+
+    private boolean walkable(int x, int y) {
+        return map.isWalkable(x, y);
+    }
+
+    private void relax(int p, int ng, int from) {
+        if (marks[p] == stamp && ng >= g[p]) return;
+        marks[p] = stamp;
+        g[p] = ng;
+        parent[p] = from;
+
+        // Key: f, then h (ties go to the node closer to the goal), then the node itself
+        int hx = Math.abs(p % w - goal % w) + Math.abs(p / w - goal / w);
+        long f = ng + hx;
+        push((((f << 12) | Math.min(hx, 0xFFF)) << 32) | p);
+    }
+
+    // Parents are jump points when JPS is on; fill the straight runs between them.
+    private void buildPath(int s, int t, IntList out) {
+        for (int p = t; p != s; p = parent[p]) {
+            int q = parent[p];
+            int step = (q / w == p / w) ? ((q < p) ? 1 : -1) : ((q < p) ? w : -w);
+            for (int c = p; c != q; c -= step) out.add(c);
+        }
+
+        // collected goal -> start; flip
+        for (int i = 0, j = out.size() - 1; i < j; i++, j--) {
+            int tmp = out.get(i);
+            out.set(i, out.get(j));
+            out.set(j, tmp);
+        }
+    }
+
+    // -----------------------------
+    // Binary min-heap of longs
+    // -----------------------------
+
+    private void push(long v) {
+        if (heapSize == heap.length) heap = java.util.Arrays.copyOf(heap, heap.length << 1);
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= v) break;
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = v;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= heapSize) break;
+            if (c + 1 < heapSize && heap[c + 1] < heap[c]) c++;
+            if (heap[c] >= last) break;
+            heap[i] = heap[c];
+            i = c;
+        }
+        if (heapSize > 0) heap[i] = last;
+        return top;
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.ui;
+
+import java.awt.*;
+
+/**
+ * F3 overlay: update and paint cost of the last frames, and input-to-photon latency, from the key event
+ * reaching the panel to the frame showing its effect being painted and flushed. Samples go into fixed
+ * rings, so recording allocates nothing; the text is built only while the overlay is shown.
+ */
+final class PerfOverlay {
+    private static final int SAMPLES = 120; // ~2s of frames
+    private static final double FRAME_MS = 1000.0 / 60;
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    private final long[] updateNs = new long[SAMPLES];
+    private final long[] paintNs = new long[SAMPLES];
+    private final long[] latencyNs = new long[SAMPLES];
+    private int updates = 0, paints = 0, latencies = 0; // samples ever taken (ring index = count % SAMPLES)
+
+    boolean visible = false;
+
+    void update(long ns) {
+        updateNs[updates++ % SAMPLES] = ns;
+    }
+
+    void paint(long ns) {
+        paintNs[paints++ % SAMPLES] = ns;
+    }
+
+    void inputToPhoton(long ns) {
+        latencyNs[latencies++ % SAMPLES] = ns;
+    }
+
+    void draw(Graphics2D g, boolean immediate) {
+        if (!visible) return;
+
+        double lastLat = (latencies == 0) ? 0 : ms(latencyNs[(latencies - 1) % SAMPLES]);
+        double maxLat = ms(max(latencyNs, latencies));
+        String[] lines = {
+                String.format("update %5.2f ms  max %5.2f", ms(avg(updateNs, updates)), ms(max(updateNs, updates))),
+                String.format("paint  %5.2f ms  max %5.2f", ms(avg(paintNs, paints)), ms(max(paintNs, paints))),
+                String.format("input->photon %5.1f ms  avg %5.1f  max %5.1f", lastLat,
+                        ms(avg(latencyNs, latencies)), maxLat),
+                "immediate input " + (immediate ? "on" : "off") + "  (F3 hides)"
+        };
+
+        g.setFont(FONT);
+        FontMetrics fm = g.getFontMetrics();
+        int w = 0;
+        for (String s : lines) w = Math.max(w, fm.stringWidth(s));
+        int lh = fm.getHeight();
+
+        g.setColor(new Color(0, 0, 0, 170));
+        g.fillRect(4, 4, w + 12, lh * lines.length + 8);
+        for (int i = 0; i < lines.length; i++) {
+            // latency line goes red once the worst recent case misses a 60Hz frame
+            g.setColor((i == 2 && maxLat > FRAME_MS) ? new Color(255, 110, 110) : Color.WHITE);
+            g.drawString(lines[i], 10, 8 + fm.getAscent() + i * lh);
+        }
+    }
+
+    private static long avg(long[] ring, int count) {
+        int n = Math.min(count, SAMPLES);
+        if (n == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < n; i++) sum += ring[i];
+        return sum / n;
+    }
+
+    private static long max(long[] ring, int count) {
+        long m = 0;
+        for (int i = 0, n = Math.min(count, SAMPLES); i < n; i++) m = Math.max(m, ring[i]);
+        return m;
+    }
+
+    private static double ms(long ns) {
+        return ns / 1e6;
+    }
+}
@@ -1,30 +1,133 @@
 package org.example.game.util;
 
-import java.util.Random;
-
+/**
+ * Seeded PRNG: xoshiro256** with its state expanded from the seed by SplitMix64. Not synchronized, so
+ * keep one per thread (or use streamInt). The whole state is four longs (state() / setState()), so a run
+ * can be saved and resumed or replayed exactly.
+ */
 public final class RNG {
-    private final Random r;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private long s0, s1, s2, s3;
 
     public RNG(long seed) {
-        this.r = new Random(seed);
+        s0 = mix(seed += GOLDEN);
+        s1 = mix(seed += GOLDEN);
+        s2 = mix(seed += GOLDEN);
+        s3 = mix(seed + GOLDEN);
+    }
+
+    /** 64 random bits (bulk generators use one call per 64 tiles). */
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
     }
 
+    /** Uniform in [0, boundExclusive): multiply-shift on 32 bits, redrawing only the few biased products. */
     public int nextInt(int boundExclusive) {
-        return r.nextInt(boundExclusive);
+        if (boundExclusive <= 0) throw new IllegalArgumentException("bound must be positive");
+        long m = (nextLong() >>> 32) * boundExclusive;
+        if (Integer.compareUnsigned((int) m, boundExclusive) < 0) {
+            int threshold = Integer.remainderUnsigned(-boundExclusive, boundExclusive);
+            while (Integer.compareUnsigned((int) m, threshold) < 0) {
+                m = (nextLong() >>> 32) * boundExclusive;
+            }
+        }
+        return (int) (m >>> 32);
     }
 
     public int range(int minInclusive, int maxInclusive) {
         if (maxInclusive < minInclusive) throw new IllegalArgumentException("bad range");
         int span = (maxInclusive - minInclusive) + 1;
-        return minInclusive + r.nextInt(span);
+        return minInclusive + nextInt(span);
+    }
+
+    /** Uniform in [0, 1), 53 bits. */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
     }
 
     public boolean chance(double p) {
-        return r.nextDouble() < p;
+        return nextDouble() < p;
+    }
+
+    // ----------------------------
+    // Bulk fills (same values as the single calls, in order)
+    // ----------------------------
+    public void nextLongs(long[] out, int off, int len) {
+        long a = s0, b = s1, c = s2, d = s3;
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = Long.rotateLeft(b * 5, 7) * 9;
+            long t = b << 17;
+            c ^= a;
+            d ^= b;
+            b ^= c;
+            a ^= d;
+            c ^= t;
+            d = Long.rotateLeft(d, 45);
+        }
+        s0 = a;
+        s1 = b;
+        s2 = c;
+        s3 = d;
+    }
+
+    public void nextInts(int[] out, int off, int len, int boundExclusive) {
+        for (int i = off, end = off + len; i < end; i++) out[i] = nextInt(boundExclusive);
+    }
+
+    // ----------------------------
+    // State
+    // ----------------------------
+
+    /** The full generator state; setState() of it continues the exact same sequence. */
+    public long[] state() {
+        return new long[] { s0, s1, s2, s3 };
+    }
+
+    public void setState(long[] state) {
+        if (state == null || state.length != 4) throw new IllegalArgumentException("RNG state is 4 longs");
+        if ((state[0] | state[1] | state[2] | state[3]) == 0) throw new IllegalArgumentException("RNG state is all zero");
+        s0 = state[0];
+        s1 = state[1];
+        s2 = state[2];
+        s3 = state[3];
+    }
+
+    /** An independent generator continuing from this one's current state. */
+    public RNG copy() {
+        RNG c = new RNG(0);
+        c.s0 = s0;
+        c.s1 = s1;
+        c.s2 = s2;
+        c.s3 = s3;
+        return c;
+    }
+
+    /**
+     * Stateless draw in [0, bound) for stream `stream` of `seed` (SplitMix64 finalizer). Same inputs give
+     * the same value on any thread, so parallel code can hand every entity its own stream.
+     */
+    public static int streamInt(long seed, long stream, int bound) {
+        long z = mix(seed + (stream + 1) * GOLDEN);
+        return (int) (((z >>> 32) * bound) >>> 32);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 
     public long seedPeek() {
         // Not the real seed, but useful to show something stable-ish per run if needed.
-        return r.nextLong();
+        return nextLong();
     }
-}
\ No newline at end of file
+}
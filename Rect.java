@@ -17,4 +17,12 @@ public final class Rect {
         return this.x <= other.x2() && this.x2() >= other.x
                 && this.y <= other.y2() && this.y2() >= other.y;
     }
+
+    /** Same as intersects(other expanded by pad), without allocating the expanded Rect. */
+    public boolean intersectsPadded(int ox, int oy, int ow, int oh, int pad) {
+        int ex = x - pad, ey = y - pad;
+        int ex2 = x2() + pad, ey2 = y2() + pad;
+        return ox <= ex2 && ox + ow - 1 >= ex
+                && oy <= ey2 && oy + oh - 1 >= ey;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package org.example.ui;
 
 import org.example.entity.Enemy;
+import org.example.game.EnemyStore;
+import org.example.game.EventLog;
 import org.example.game.Game;
 import org.example.game.GameConfig;
 import org.example.game.ShopItem;  // ADD THIS
@@ -110,6 +112,7 @@ public final class Renderer {
 
             if (game.state() == Game.State.BATTLE) {
                 drawBattle(g, game, panelW, panelH);
+                if (game.historyOpen()) drawLogHistory(g, game, panelW, panelH);
 
                 if (game.isDeathWipeActive()) drawDeathWipeOverlay(g, panelW, panelH, game.deathWipeProgress());
                 else drawFadeOverlay(g, panelW, panelH, game.fadeAlpha());
@@ -189,8 +192,9 @@ public final class Renderer {
 
 
             if (game.zone() == Game.Zone.DUNGEON) {
-                for (Enemy e : game.enemies()) {
-                    if (map.isVisibleNow(e.x, e.y)) drawEnemy(g, e.x, e.y);
+                EnemyStore enemies = game.enemies();
+                for (int i = 0; i < enemies.size(); i++) {
+                    if (map.isVisibleNow(enemies.x(i), enemies.y(i))) drawEnemy(g, enemies.x(i), enemies.y(i));
                 }
 
                 for (Chest c : game.chests()) {
@@ -272,6 +276,9 @@ public final class Renderer {
             if (game.state() == Game.State.LEVEL_UP) {
                 drawLevelUpOverlay(g, game, panelW, panelH);
             }
+            if (game.historyOpen()) {
+                drawLogHistory(g, game, panelW, panelH);
+            }
 
             if (game.isDeathWipeActive()) {
                 drawDeathWipeOverlay(g, panelW, panelH, game.deathWipeProgress());
@@ -578,21 +585,21 @@ public final class Renderer {
         g.setColor(Palette.GB3);
         g.drawRect(ix, iy, infoW, infoH);
 
-        int enemyAtkX = attackShakeX(b.enemyAtkFrames, 2);
-        int enemyHitY = hitBobY(b.enemyHitFrames, 2);
+        int enemyAtkX = attackShakeX(b.enemyAtkFrames(), 2);
+        int enemyHitY = hitBobY(b.enemyHitFrames(), 2);
 
         var enemyImg = enemyBattleSprites.getOrDefault(b.foe.type, enemyBattleSprites.get(Enemy.Type.GOBLIN));
 
         if (b.foe.hp <= 0) {
             // If dead: play the split/fade while timer is active, otherwise draw nothing.
-            if (b.enemyDefeatFrames > 0) {
+            if (b.enemyDefeatFrames() > 0) {
                 drawEnemyDefeatSplit(
                         g,
                         enemyImg,
                         ex, ey + ENEMY_SPRITE_Y_OFFSET_PX,
                         es, es,
                         ENEMY_SPRITE_SCALE_BOOST,
-                        b.enemyDefeatFrames,
+                        b.enemyDefeatFrames(),
                         org.example.game.Battle.ENEMY_DEFEAT_FRAMES_MAX
                 );
             }
@@ -690,8 +697,8 @@ public final class Renderer {
         int pIx = panelW - pInfoW - pad;
         int pIy = botY + pad;
 
-        int playerAtkX = attackShakeX(b.playerAtkFrames, 2); // side-to-side when attacking
-        int playerHitY = hitBobY(b.playerHitFrames, 2);      // bob up/down when hit
+        int playerAtkX = attackShakeX(b.playerAtkFrames(), 2); // side-to-side when attacking
+        int playerHitY = hitBobY(b.playerHitFrames(), 2);      // bob up/down when hit
 
         // Low HP effect (<= 5): slow flicker + gentle bob
         boolean lowHp = game.player().hp > 0 && game.player().hp <= 5;
@@ -826,8 +833,9 @@ public final class Renderer {
         FontMetrics msgFm = g.getFontMetrics();
         int msgTextY = msgBoxY + 6 + msgFm.getAscent();
 
-        if (b.log != null && !b.log.isBlank()) {
-            String msgFit = ellipsize(g, b.log, msgBoxW - 12);
+        String msg = b.logLine();
+        if (msg != null && !msg.isBlank()) {
+            String msgFit = ellipsize(g, msg, msgBoxW - 12);
             g.drawString(msgFit, msgBoxX + 6, msgTextY);
         }
 
@@ -1054,6 +1062,49 @@ public final class Renderer {
         g.drawString(controls, x + pad, y + boxH - 10);
     }
 
+    // Scrollable message history; only the visible lines are turned into text
+    private void drawLogHistory(Graphics2D g, Game game, int panelW, int panelH) {
+        EventLog log = game.eventLog();
+
+        Composite old = g.getComposite();
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.60f));
+        g.setColor(Palette.GB0);
+        g.fillRect(0, 0, panelW, panelH);
+        g.setComposite(old);
+
+        int boxW = panelW - 40;
+        int boxH = panelH - 40;
+        int x = 20;
+        int y = 20;
+        int pad = 10;
+
+        g.setColor(Palette.GB1);
+        g.fillRect(x, y, boxW, boxH);
+        g.setColor(Palette.GB3);
+        g.drawRect(x, y, boxW, boxH);
+
+        g.setFont(pixelBold(8f));
+        g.drawString("LOG", x + pad, y + 20);
+
+        g.setFont(pixel(7f));
+        String controls = "↑/↓: Scroll   L/ESC: Close";
+        g.drawString(controls, x + pad, y + boxH - 10);
+
+        g.setFont(pixel(8f));
+        int lineH = 16;
+        int top = y + 40;
+        int bottom = y + boxH - 28;
+        int rows = Math.max(1, (bottom - top) / lineH + 1);
+
+        // Newest at the bottom, scrolled up by historyScroll
+        long seq = log.next() - 1 - game.historyScroll();
+        for (int row = rows - 1; row >= 0 && seq >= log.oldest(); row--, seq--) {
+            String line = log.text(seq);
+            if (line == null) break;
+            g.drawString(ellipsize(g, line, boxW - pad * 2), x + pad, top + row * lineH);
+        }
+    }
+
     private void drawMainMenu(Graphics2D g, int panelW, int panelH) {
         g.setColor(Palette.GB0);
         g.fillRect(0, 0, panelW, panelH);
@@ -0,0 +1,273 @@
+package org.example.game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Input recording and replay. Game.update is a pure function of the frame sequence once three things are
+ * pinned down: key presses/releases, the seeds new runs take (normally the clock), and the frames on which
+ * a fade saw its dark frame presented. A Recorder writes those as a stream of frame-stamped records; a
+ * Playback feeds them back into a fresh Game frame by frame, with no rendering and no timer, so it runs as
+ * fast as update() does.
+ *
+ * File: "RPLY", version byte, then records of (varint frame delta, kind byte, payload) and a final END.
+ * Keys are varint key codes, injected actions (Input.tap) varint Action ordinals, seeds 8 bytes; a typical
+ * session is a few KB.
+ *
+ * Usage: Replay file [turn]   (plays headless to the end, or up to a player turn, and prints a summary)
+ */
+public final class Replay {
+    private static final int MAGIC = 0x52504C59; // "RPLY"
+    private static final int VERSION = 1;
+
+    private static final byte KEY_DOWN = 0;
+    private static final byte KEY_UP = 1;
+    private static final byte SEED = 2;
+    private static final byte PRESENT = 3;
+    private static final byte END = 4;
+    private static final byte ACTION = 5;
+
+    // Records, in order
+    private final long[] frame;
+    private final byte[] kind;
+    private final long[] value;
+    private final long endFrame;
+
+    private Replay(long[] frame, byte[] kind, long[] value, long endFrame) {
+        this.frame = frame;
+        this.kind = kind;
+        this.value = value;
+        this.endFrame = endFrame;
+    }
+
+    /** Frames in the recording. */
+    public long frames() {
+        return endFrame;
+    }
+
+    public static Replay load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException(file + " is not a replay");
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IOException(file + ": replay version " + version + " not supported");
+
+            long[] f = new long[256];
+            byte[] k = new byte[256];
+            long[] v = new long[256];
+            int n = 0;
+            long at = 0;
+            while (true) {
+                long delta;
+                byte kindOf;
+                try {
+                    delta = readVarLong(in);
+                    kindOf = in.readByte();
+                } catch (EOFException e) {
+                    break; // recording was cut off (crash): keep what is there
+                }
+                at += delta;
+                if (kindOf == END) break;
+
+                long val = switch (kindOf) {
+                    case KEY_DOWN, KEY_UP, ACTION -> readVarLong(in);
+                    case SEED -> in.readLong();
+                    case PRESENT -> 0;
+                    default -> throw new IOException(file + ": bad record kind " + kindOf);
+                };
+                if (n == f.length) {
+                    f = Arrays.copyOf(f, n << 1);
+                    k = Arrays.copyOf(k, n << 1);
+                    v = Arrays.copyOf(v, n << 1);
+                }
+                f[n] = at;
+                k[n] = kindOf;
+                v[n] = val;
+                n++;
+            }
+            return new Replay(Arrays.copyOf(f, n), Arrays.copyOf(k, n), Arrays.copyOf(v, n), at);
+        }
+    }
+
+    /** Drive game from the start of the recording (resets it to the main menu, as a fresh GamePanel). */
+    public Playback play(Game game, Input input) {
+        return new Playback(game, input);
+    }
+
+    // ----------------------------
+    // Playback
+    // ----------------------------
+    public final class Playback {
+        private final Game game;
+        private final Input input;
+        private long at = 0;    // next frame to run
+        private int next = 0;   // next record
+        private int nextSeed = 0;
+
+        private Playback(Game game, Input input) {
+            this.game = game;
+            this.input = input;
+            game.goToMainMenu();
+            game.startReplay(this::takeSeed);
+        }
+
+        /** Run one frame; false once the recording is used up (the game is then live again). */
+        public boolean step() {
+            if (at >= endFrame) return false;
+            while (next < frame.length && frame[next] == at) {
+                switch (kind[next]) {
+                    case KEY_DOWN -> input.press((int) value[next]);
+                    case KEY_UP -> input.release((int) value[next]);
+                    case ACTION -> input.tap(Action.of((int) value[next]));
+                    case PRESENT -> game.presentFrame();
+                    default -> { } // seeds are taken in order by takeSeed
+                }
+                next++;
+            }
+            game.update(input);
+            input.endFrame();
+            at++;
+            if (at >= endFrame) game.endReplay();
+            return true;
+        }
+
+        /** Run until the player has taken turn player turns (or the recording ends). */
+        public void runToTurn(long turn) {
+            while (game.playerTurns() < turn && step()) { }
+        }
+
+        public void runToEnd() {
+            while (step()) { }
+        }
+
+        public long frame() {
+            return at;
+        }
+
+        public boolean done() {
+            return at >= endFrame;
+        }
+
+        private long takeSeed() {
+            while (nextSeed < kind.length && kind[nextSeed] != SEED) nextSeed++;
+            if (nextSeed == kind.length) return System.currentTimeMillis(); // past the recording
+            return value[nextSeed++];
+        }
+    }
+
+    // ----------------------------
+    // Recording
+    // ----------------------------
+
+    /** Writes one session; frames are counted by Input.endFrame(). */
+    public static final class Recorder implements Closeable {
+        private DataOutputStream out; // null once closed or failed
+        private long at = 0;
+        private long last = 0; // frame of the last record
+
+        public Recorder(Path file) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        }
+
+        void key(boolean down, int keyCode) {
+            if (begin(down ? KEY_DOWN : KEY_UP)) write(() -> writeVarLong(out, keyCode & 0xFFFFFFFFL));
+        }
+
+        void action(Action a) {
+            if (begin(ACTION)) write(() -> writeVarLong(out, a.ordinal()));
+        }
+
+        void seed(long seed) {
+            if (begin(SEED)) write(() -> out.writeLong(seed));
+        }
+
+        void present() {
+            begin(PRESENT);
+        }
+
+        void endFrame() {
+            at++;
+            if ((at & 63) == 0) write(() -> out.flush()); // a crash loses at most ~1s
+        }
+
+        @Override
+        public void close() {
+            if (out == null) return;
+            begin(END);
+            write(() -> out.close());
+            out = null;
+        }
+
+        private boolean begin(byte kindOf) {
+            if (out == null) return false;
+            long delta = at - last;
+            last = at;
+            write(() -> {
+                writeVarLong(out, delta);
+                out.writeByte(kindOf);
+            });
+            return out != null;
+        }
+
+        private interface Io {
+            void run() throws IOException;
+        }
+
+        // Recording must never take the game down: on a write error, report once and stop
+        private void write(Io io) {
+            if (out == null) return;
+            try {
+                io.run();
+            } catch (IOException e) {
+                System.err.println("Replay recording stopped: " + e.getMessage());
+                out = null;
+            }
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("bad varint");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: Replay file [turn]");
+            return;
+        }
+        Replay replay = load(Path.of(args[0]));
+        long turn = args.length > 1 ? Long.parseLong(args[1]) : Long.MAX_VALUE;
+
+        Game game = new Game();
+        Playback p = replay.play(game, new Input());
+        long t0 = System.nanoTime();
+        p.runToTurn(turn);
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("%d of %d frames, %d player turns in %.3fs (%.0f frames/s)%n",
+                p.frame(), replay.frames(), game.playerTurns(), secs, p.frame() / Math.max(1e-9, secs));
+        System.out.println(game.replaySummary());
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.world;
+
+import java.util.Arrays;
+
+/**
+ * Coarse spatial hash for room overlap queries.
+ *
+ * The map is cut into square buckets (about one max-size room each). A room is linked into every
+ * bucket its padded bounds touch, so an overlap query only looks at rooms in a handful of buckets
+ * instead of every room placed so far. Bucket lists are intrusive int links (no per-entry objects).
+ */
+final class RoomGrid {
+    private final int cell;
+    private final int cols, rows;
+    private final int pad;
+
+    private final int[] head;   // bucket -> first entry, -1 = empty
+    private int[] next = new int[64];   // entry -> next entry in same bucket
+    private int[] roomOf = new int[64]; // entry -> room index
+    private int entries = 0;
+
+    private Rect[] rooms = new Rect[16];
+    private int roomCount = 0;
+
+    // query stamp so a room spanning several buckets is only tested once
+    private int[] seen = new int[16];
+    private int queryStamp = 0;
+
+    RoomGrid(int w, int h, int maxRoomSize, int pad) {
+        this.pad = pad;
+        this.cell = Math.max(4, maxRoomSize + pad * 2);
+        this.cols = Math.max(1, (w + cell - 1) / cell);
+        this.rows = Math.max(1, (h + cell - 1) / cell);
+        this.head = new int[cols * rows];
+        Arrays.fill(head, -1);
+    }
+
+    void add(Rect r) {
+        if (roomCount == rooms.length) {
+            rooms = Arrays.copyOf(rooms, roomCount * 2);
+            seen = Arrays.copyOf(seen, roomCount * 2);
+        }
+        int idx = roomCount++;
+        rooms[idx] = r;
+
+        int c0 = col(r.x - pad), c1 = col(r.x2() + pad);
+        int r0 = row(r.y - pad), r1 = row(r.y2() + pad);
+        for (int cy = r0; cy <= r1; cy++) {
+            for (int cx = c0; cx <= c1; cx++) {
+                link(cx + cy * cols, idx);
+            }
+        }
+    }
+
+    /** True if (x,y,w,h) touches any stored room expanded by pad. */
+    boolean overlapsAny(int x, int y, int w, int h) {
+        queryStamp++;
+
+        int c0 = col(x), c1 = col(x + w - 1);
+        int r0 = row(y), r1 = row(y + h - 1);
+        for (int cy = r0; cy <= r1; cy++) {
+            for (int cx = c0; cx <= c1; cx++) {
+                for (int e = head[cx + cy * cols]; e >= 0; e = next[e]) {
+                    int ri = roomOf[e];
+                    if (seen[ri] == queryStamp) continue;
+                    seen[ri] = queryStamp;
+                    if (rooms[ri].intersectsPadded(x, y, w, h, pad)) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void link(int bucket, int roomIdx) {
+        if (entries == next.length) {
+            next = Arrays.copyOf(next, entries * 2);
+            roomOf = Arrays.copyOf(roomOf, entries * 2);
+        }
+        next[entries] = head[bucket];
+        roomOf[entries] = roomIdx;
+        head[bucket] = entries++;
+    }
+
+    private int col(int x) {
+        return Math.max(0, Math.min(cols - 1, x / cell));
+    }
+
+    private int row(int y) {
+        return Math.max(0, Math.min(rows - 1, y / cell));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.game.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free FIFO of ints for exactly one producer thread and one consumer thread (e.g. the AWT
+ * key listener and the game loop). Each side only writes its own index and publishes it with a release
+ * store; the other side's index is re-read only when the cached copy says full / empty.
+ */
+public final class SpscIntRing {
+    private final int[] buf;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong(); // next write, owned by the producer
+    private final AtomicLong head = new AtomicLong(); // next read, owned by the consumer
+    private long headCache = 0; // producer's last view of head
+    private long tailCache = 0; // consumer's last view of tail
+
+    public SpscIntRing(int capacity) {
+        int cap = Math.max(2, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        buf = new int[cap];
+        mask = cap - 1;
+    }
+
+    public int capacity() {
+        return buf.length;
+    }
+
+    /** Producer: append v; false (and nothing written) when full. */
+    public boolean offer(int v) {
+        long t = tail.get();
+        if (t - headCache == buf.length) {
+            headCache = head.get();
+            if (t - headCache == buf.length) return false;
+        }
+        buf[(int) t & mask] = v;
+        tail.lazySet(t + 1); // publishes the slot
+        return true;
+    }
+
+    /** Consumer: true if peek/poll would return something. */
+    public boolean isEmpty() {
+        long h = head.get();
+        if (h == tailCache) tailCache = tail.get();
+        return h == tailCache;
+    }
+
+    /** Consumer: oldest value, left in place. Check isEmpty first. */
+    public int peek() {
+        if (isEmpty()) throw new IllegalStateException("ring empty");
+        return buf[(int) head.get() & mask];
+    }
+
+    /** Consumer: remove and return the oldest value. Check isEmpty first. */
+    public int poll() {
+        if (isEmpty()) throw new IllegalStateException("ring empty");
+        long h = head.get();
+        int v = buf[(int) h & mask];
+        head.lazySet(h + 1); // frees the slot
+        return v;
+    }
+}
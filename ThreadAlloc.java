@@ -0,0 +1,31 @@
+package org.example.game.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the current thread, for profiling (generation passes, benchmarks).
+ * Needs the HotSpot ThreadMXBean extension; supported() is false on JVMs without it.
+ */
+public final class ThreadAlloc {
+    private static final com.sun.management.ThreadMXBean BEAN = init();
+
+    private ThreadAlloc() {}
+
+    private static com.sun.management.ThreadMXBean init() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean sun
+                && sun.isThreadAllocatedMemorySupported()) {
+            sun.setThreadAllocatedMemoryEnabled(true);
+            return sun;
+        }
+        return null;
+    }
+
+    public static boolean supported() {
+        return BEAN != null;
+    }
+
+    /** Running total for the calling thread; only meaningful as a difference, 0 if unsupported. */
+    public static long bytes() {
+        return (BEAN != null) ? BEAN.getCurrentThreadAllocatedBytes() : 0L;
+    }
+}
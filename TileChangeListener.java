@@ -0,0 +1,6 @@
+package org.example.world;
+
+/** Told about tile edits on a live map (doors unlocked, tiles stamped) so caches can invalidate. */
+public interface TileChangeListener {
+    void tileChanged(WorldMap map, int x, int y, Tile before, Tile after);
+}
@@ -0,0 +1,33 @@
+package org.example.world;
+
+import java.util.Arrays;
+
+/**
+ * The listeners of one map. Copy-on-write array: edits are rare (a cache attaching or detaching),
+ * fire() runs on every live setTile and just walks the array.
+ */
+final class TileChangeListeners {
+    private TileChangeListener[] all = new TileChangeListener[0];
+
+    void add(TileChangeListener l) {
+        for (TileChangeListener existing : all) if (existing == l) return;
+        all = Arrays.copyOf(all, all.length + 1);
+        all[all.length - 1] = l;
+    }
+
+    void remove(TileChangeListener l) {
+        for (int i = 0; i < all.length; i++) {
+            if (all[i] != l) continue;
+            TileChangeListener[] next = new TileChangeListener[all.length - 1];
+            System.arraycopy(all, 0, next, 0, i);
+            System.arraycopy(all, i + 1, next, i, next.length - i);
+            all = next;
+            return;
+        }
+    }
+
+    void fire(WorldMap map, int x, int y, Tile before, Tile after) {
+        if (before == after) return;
+        for (TileChangeListener l : all) l.tileChanged(map, x, y, before, after);
+    }
+}
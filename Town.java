@@ -14,6 +14,9 @@ public final class Town implements WorldMap {
 
     private int startX, startY;
 
+    // Notified on setTile once the map is live (none during generation)
+    private final TileChangeListeners tileListeners = new TileChangeListeners();
+
     private int cryptDoorX = -1, cryptDoorY = -1;
 
 
@@ -40,7 +43,20 @@ public final class Town implements WorldMap {
     }
 
     public void setTile(int x, int y, Tile t) {
-        if (inBounds(x, y)) tiles[x][y] = t;
+        if (!inBounds(x, y)) return;
+        Tile before = tiles[x][y];
+        tiles[x][y] = t;
+        tileListeners.fire(this, x, y, before, t);
+    }
+
+    @Override
+    public void addTileChangeListener(TileChangeListener l) {
+        tileListeners.add(l);
+    }
+
+    @Override
+    public void removeTileChangeListener(TileChangeListener l) {
+        tileListeners.remove(l);
     }
 
     @Override
@@ -1,9 +1,34 @@
 package org.example.game;
 
+import org.example.game.util.IntList;
+
+/**
+ * Turn order by time. Every actor has a next-action time and acting pushes it back by a delay that
+ * shrinks with speed, so faster actors get more actions. The player is a single time; enemies (EnemyStore
+ * handles) sit in an indexed binary min-heap keyed by (time, handle), so rescheduling one is O(log n).
+ *
+ * Only active enemies are in the heap. Each enemy phase Game activates the ones near the player
+ * (setActive); the rest are paused, cost nothing here, and keep the time they had left for later.
+ */
 public final class TurnSystem {
-    // This “first playable” is strict alternating:
-    // Player acts -> Enemies act -> back to Player.
+    public static final int TURN_TIME = 100; // delay of a speed-5 actor (a fresh player)
+
     private boolean playerTurn = true;
+    private long now = 0;        // time of the player's current action
+    private long playerNext = 0; // ...and of its next one
+    private long playerTurns = 0; // actions taken this session (never reset)
+
+    // Indexed heap over enemy handles
+    private int[] heapActor = new int[64];
+    private long[] heapTime = new long[64];
+    private int heapSize = 0;
+    private int[] pos = new int[0];         // handle -> heap index, -1 if not in the heap
+    private long[] pausedLeft = new long[0]; // handle -> time left when paused
+    private long[] actedAt = new long[0];    // handle -> time of the action handed out by nextRound()
+
+    private final IntList active = new IntList(64);
+    private int[] activeMark = new int[0];
+    private int markStamp = 0;
 
     public boolean isPlayerTurn() {
         return playerTurn;
@@ -11,13 +36,151 @@ public final class TurnSystem {
 
     public void endPlayerTurn() {
         playerTurn = false;
+        playerTurns++;
+    }
+
+    public long playerTurns() {
+        return playerTurns;
     }
 
     public void endEnemyTurn() {
+        now = playerNext;
         playerTurn = true;
     }
 
     public void reset() {
         playerTurn = true;
+        now = 0;
+        playerNext = 0;
+        for (int i = 0; i < heapSize; i++) pos[heapActor[i]] = -1;
+        heapSize = 0;
+        active.clear();
+        java.util.Arrays.fill(pausedLeft, 0L);
+    }
+
+    /** Time between two actions at this speed: 5 is one TURN_TIME, +5 speed is ~20% more actions. */
+    public static int actionDelay(int speed) {
+        return TURN_TIME * 20 / (Math.max(0, speed) + 15);
+    }
+
+    /** Start of an enemy phase: the player just acted, and acts again after its own delay. */
+    public void beginEnemyPhase(int playerSpeed) {
+        playerNext = now + actionDelay(playerSpeed);
+    }
+
+    /**
+     * Make exactly these handles active: newcomers are scheduled with the time they had left (now if none),
+     * enemies no longer listed are paused. Cost is the size of this list plus the previous one.
+     */
+    public void setActive(IntList handles) {
+        markStamp++;
+        for (int i = 0; i < handles.size(); i++) {
+            int h = handles.get(i);
+            ensureCapacity(h + 1);
+            activeMark[h] = markStamp;
+        }
+
+        for (int i = 0; i < active.size(); i++) {
+            int h = active.get(i);
+            if (activeMark[h] == markStamp || pos[h] < 0) continue;
+            pausedLeft[h] = Math.max(0, heapTime[pos[h]] - now);
+            removeAt(pos[h]);
+        }
+
+        active.clear();
+        for (int i = 0; i < handles.size(); i++) {
+            int h = handles.get(i);
+            active.add(h);
+            if (pos[h] < 0) push(h, now + pausedLeft[h]);
+        }
+    }
+
+    /**
+     * Pop every active enemy due before the player's next action into out (each at most once).
+     * After resolving them, call actionDone() for each; repeat until this returns false.
+     */
+    public boolean nextRound(IntList out) {
+        out.clear();
+        while (heapSize > 0 && heapTime[0] < playerNext) {
+            int h = heapActor[0];
+            actedAt[h] = heapTime[0];
+            removeAt(0);
+            out.add(h);
+        }
+        return !out.isEmpty();
+    }
+
+    /** Reschedule an enemy handed out by nextRound() after its action. */
+    public void actionDone(int handle, int speed) {
+        if (pos[handle] >= 0) return;
+        push(handle, actedAt[handle] + actionDelay(speed));
+    }
+
+    private void ensureCapacity(int n) {
+        if (pos.length >= n) return;
+        int m = Math.max(n, pos.length << 1);
+        int old = pos.length;
+        pos = java.util.Arrays.copyOf(pos, m);
+        java.util.Arrays.fill(pos, old, m, -1);
+        pausedLeft = java.util.Arrays.copyOf(pausedLeft, m);
+        actedAt = java.util.Arrays.copyOf(actedAt, m);
+        activeMark = java.util.Arrays.copyOf(activeMark, m);
+    }
+
+    // -----------------------------
+    // Indexed min-heap on (time, handle)
+    // -----------------------------
+
+    private boolean less(long ta, int a, long tb, int b) {
+        return ta < tb || (ta == tb && a < b);
+    }
+
+    private void push(int h, long time) {
+        if (heapSize == heapActor.length) {
+            heapActor = java.util.Arrays.copyOf(heapActor, heapSize << 1);
+            heapTime = java.util.Arrays.copyOf(heapTime, heapSize << 1);
+        }
+        int i = heapSize++;
+        siftUp(i, h, time);
+    }
+
+    private void removeAt(int i) {
+        int h = heapActor[i];
+        pos[h] = -1;
+        int last = --heapSize;
+        if (i == last) return;
+
+        int mh = heapActor[last];
+        long mt = heapTime[last];
+        if (i > 0 && less(mt, mh, heapTime[(i - 1) >>> 1], heapActor[(i - 1) >>> 1])) siftUp(i, mh, mt);
+        else siftDown(i, mh, mt);
+    }
+
+    private void siftUp(int i, int h, long t) {
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (!less(t, h, heapTime[up], heapActor[up])) break;
+            place(i, heapActor[up], heapTime[up]);
+            i = up;
+        }
+        place(i, h, t);
+    }
+
+    private void siftDown(int i, int h, long t) {
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= heapSize) break;
+            if (c + 1 < heapSize && less(heapTime[c + 1], heapActor[c + 1], heapTime[c], heapActor[c])) c++;
+            if (!less(heapTime[c], heapActor[c], t, h)) break;
+            place(i, heapActor[c], heapTime[c]);
+            i = c;
+        }
+        place(i, h, t);
+    }
+
+    private void place(int i, int h, long t) {
+        heapActor[i] = h;
+        heapTime[i] = t;
+        pos[h] = i;
     }
-}
\ No newline at end of file
+}
@@ -12,4 +12,8 @@ public interface WorldMap {
     boolean wasSeenEver(int x, int y);
 
     Tile tile(int x, int y);
+
+    /** Maps that can change after generation report edits here (default: static map, no-op). */
+    default void addTileChangeListener(TileChangeListener l) {}
+    default void removeTileChangeListener(TileChangeListener l) {}
 }
\ No newline at end of file